@@ -0,0 +1,291 @@
+package com.anonymity.batch;
+
+import com.anonymity.config.WatchProperties;
+import com.anonymity.output.CsvResultWriter;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.service.CsvService;
+import com.anonymity.service.ExcelService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.deidentifier.arx.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 監看目錄批次匿名化
+ * 以 WatchService 偵測新放入的 CSV/XLSX 檔案，解析與匿名化分成兩個階段：
+ * 解析執行緒讀取第 N+1 個檔案的同時，匿名化執行緒處理第 N 個檔案
+ * 已載入記憶體但尚未處理完的檔案數以 workers + 1 為上限，避免大量檔案同時佔用記憶體
+ * 結果輸出為 &lt;檔名&gt;.anonymized.csv，各階段耗時與統計資訊輸出為 &lt;檔名&gt;.stats.json，
+ * 檔名保留來源副檔名（x.csv 與 x.xlsx 的結果不會互相覆蓋）
+ */
+@Component
+public class DirectoryBatchProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryBatchProcessor.class);
+
+    @Autowired
+    private WatchProperties properties;
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private ExcelService excelService;
+
+    @Autowired
+    private AnonymityService anonymityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Path inputDir;
+    private Path outputDir;
+    private Path processedDir;
+    private Path failedDir;
+
+    private WatchService watchService;
+    private ExecutorService parseExecutor;
+    private ExecutorService anonymizeExecutor;
+    private Semaphore inFlight;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        inputDir = Paths.get(properties.getInputDir()).toAbsolutePath();
+        outputDir = Paths.get(properties.getOutputDir()).toAbsolutePath();
+        processedDir = inputDir.resolve("processed");
+        failedDir = inputDir.resolve("failed");
+        Files.createDirectories(outputDir);
+        Files.createDirectories(processedDir);
+        Files.createDirectories(failedDir);
+
+        int workers = Math.max(1, properties.getWorkers());
+        parseExecutor = Executors.newSingleThreadExecutor(threadFactory("batch-parse"));
+        anonymizeExecutor = Executors.newFixedThreadPool(workers, threadFactory("batch-anonymize"));
+        // 每個匿名化執行緒各一個，再加上解析中的下一個檔案
+        inFlight = new Semaphore(workers + 1);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        inputDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+
+        // 啟動前已經放入的檔案
+        scan();
+
+        Thread watcher = new Thread(this::watch, "batch-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("開始監看目錄: {} -> {}, workers: {}", inputDir, outputDir, workers);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        watchService.close();
+        parseExecutor.shutdown();
+        parseExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        anonymizeExecutor.shutdown();
+        anonymizeExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void watch() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    scan();
+                } else {
+                    submit(inputDir.resolve((Path) event.context()));
+                }
+            }
+            key.reset();
+        }
+    }
+
+    private void scan() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDir)) {
+            for (Path file : files) {
+                submit(file);
+            }
+        } catch (IOException e) {
+            logger.error("掃描目錄失敗: {}", inputDir, e);
+        }
+    }
+
+    private void submit(Path file) {
+        if (!isSupported(file) || !Files.isRegularFile(file) || !pending.add(file)) {
+            return;
+        }
+        parseExecutor.execute(() -> parse(file));
+    }
+
+    /**
+     * 解析階段：等待檔案寫入完成後讀成 ARX 資料集，再交給匿名化階段
+     */
+    private void parse(Path file) {
+        boolean handedOff = false;
+        boolean acquired = false;
+        try {
+            if (!waitUntilStable(file)) {
+                return;
+            }
+            inFlight.acquire();
+            acquired = true;
+
+            long start = System.currentTimeMillis();
+            Data dataSet = read(file);
+            long parseMillis = System.currentTimeMillis() - start;
+
+            anonymizeExecutor.execute(() -> anonymize(file, dataSet, parseMillis));
+            handedOff = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fail(file, e);
+        } finally {
+            if (!handedOff) {
+                if (acquired) {
+                    inFlight.release();
+                }
+                pending.remove(file);
+            }
+        }
+    }
+
+    /**
+     * 匿名化階段：匿名化、輸出結果並移走來源檔案
+     */
+    private void anonymize(Path file, Data dataSet, long parseMillis) {
+        try {
+            long start = System.currentTimeMillis();
+            AnonymizationResult result = anonymityService.anonymize(dataSet,
+                properties.getQuasiIdentifiers(), properties.getSensitiveAttributes(),
+                properties.getK(), properties.getL());
+            long anonymizeMillis = System.currentTimeMillis() - start;
+
+            String name = file.getFileName().toString();
+            start = System.currentTimeMillis();
+            try (Writer writer = Files.newBufferedWriter(outputDir.resolve(name + ".anonymized.csv"), StandardCharsets.UTF_8)) {
+                CsvResultWriter.write(result.getOutput(), result.getHeader(), result.getColumns(), writer);
+            }
+            long writeMillis = System.currentTimeMillis() - start;
+
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("parseMillis", parseMillis);
+            timing.put("anonymizeMillis", anonymizeMillis);
+            timing.put("writeMillis", writeMillis);
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("file", file.getFileName().toString());
+            report.put("timing", timing);
+            report.put("statistics", result.getStatistics());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(outputDir.resolve(name + ".stats.json").toFile(), report);
+
+            Files.move(file, processedDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            logger.info("批次處理完成: {}, {} 筆, 解析 {} 毫秒, 匿名化 {} 毫秒, 輸出 {} 毫秒",
+                file.getFileName(), result.getNumRows(), parseMillis, anonymizeMillis, writeMillis);
+        } catch (Exception e) {
+            fail(file, e);
+        } finally {
+            inFlight.release();
+            pending.remove(file);
+        }
+    }
+
+    private Data read(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase().endsWith(".xlsx")) {
+            return excelService.readExcelFile(file.toFile());
+        }
+        return csvService.readCsvFile(file, properties.getCsvDelimiter());
+    }
+
+    /**
+     * 等到檔案大小在 settleMillis 內不再變化，檔案已被移走時回傳 false
+     */
+    private boolean waitUntilStable(Path file) throws IOException, InterruptedException {
+        try {
+            long size = Files.size(file);
+            while (true) {
+                Thread.sleep(properties.getSettleMillis());
+                long current = Files.size(file);
+                if (current == size) {
+                    return true;
+                }
+                size = current;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void fail(Path file, Exception e) {
+        logger.error("批次處理失敗: {}", file.getFileName(), e);
+        try {
+            if (Files.exists(file)) {
+                Files.move(file, failedDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException moveError) {
+            logger.error("無法移動失敗的檔案: {}", file, moveError);
+        }
+    }
+
+    private static boolean isSupported(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        // 略過隱藏檔與 Excel 開啟時產生的鎖定檔
+        if (name.startsWith(".") || name.startsWith("~$")) {
+            return false;
+        }
+        return name.endsWith(".csv") || name.endsWith(".xlsx");
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
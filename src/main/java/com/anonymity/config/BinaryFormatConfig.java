@@ -0,0 +1,24 @@
+package com.anonymity.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 讓所有 @RequestBody 與回傳物件的端點接受 application/cbor 與 application/x-jackson-smile
+ * 使用與 JSON 相同設定的 ObjectMapper，取代 Spring MVC 預設以空白設定建立的轉換器
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(DataFormats dataFormats) {
+        return new MappingJackson2CborHttpMessageConverter(dataFormats.getCborMapper());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(DataFormats dataFormats) {
+        return new MappingJackson2SmileHttpMessageConverter(dataFormats.getSmileMapper());
+    }
+}
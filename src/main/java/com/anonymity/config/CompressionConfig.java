@@ -0,0 +1,25 @@
+package com.anonymity.config;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * API 請求與回應的壓縮設定
+ */
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<ContentEncodingFilter> contentEncodingFilter(CompressionProperties properties) {
+        FilterRegistrationBean<ContentEncodingFilter> registration =
+            new FilterRegistrationBean<>(new ContentEncodingFilter(properties.getMaxDecodedSize()));
+        registration.addUrlPatterns("/api/anonymity/*", "/api/privacy/*", "/api/differential-privacy/*");
+        // 串流回應在非同步派送結束時才寫出壓縮結尾
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setAsyncSupported(true);
+        registration.setName("contentEncodingFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,25 @@
+package com.anonymity.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 請求壓縮設定
+ *
+ * anonymity.compression.max-decoded-size=1073741824
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.compression")
+public class CompressionProperties {
+
+    /** 壓縮的請求本體解壓縮後的大小上限（位元組），超過時回傳 413，避免少量壓縮資料展開成數 GB */
+    private long maxDecodedSize = ContentEncodingFilter.DEFAULT_MAX_DECODED_SIZE;
+
+    public long getMaxDecodedSize() {
+        return maxDecodedSize;
+    }
+
+    public void setMaxDecodedSize(long maxDecodedSize) {
+        this.maxDecodedSize = maxDecodedSize;
+    }
+}
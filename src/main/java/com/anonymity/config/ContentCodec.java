@@ -0,0 +1,124 @@
+package com.anonymity.config;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 支援的 HTTP Content-Encoding，皆為串流式編解碼
+ */
+public enum ContentCodec {
+
+    GZIP("gzip", 6) {
+        @Override
+        public InputStream decode(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream encode(OutputStream out, int level) throws IOException {
+            // syncFlush 讓串流回應在 flush 時就把已壓縮的內容送出
+            return new GZIPOutputStream(out, BUFFER_SIZE, true) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+    },
+
+    ZSTD("zstd", 3) {
+        @Override
+        public InputStream decode(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+
+        @Override
+        public OutputStream encode(OutputStream out, int level) throws IOException {
+            return new ZstdOutputStream(out, level);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+    private final int defaultLevel;
+
+    ContentCodec(String token, int defaultLevel) {
+        this.token = token;
+        this.defaultLevel = defaultLevel;
+    }
+
+    /**
+     * Content-Encoding 標頭中的名稱
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    public abstract InputStream decode(InputStream in) throws IOException;
+
+    public abstract OutputStream encode(OutputStream out, int level) throws IOException;
+
+    public OutputStream encode(OutputStream out) throws IOException {
+        return encode(out, defaultLevel);
+    }
+
+    /**
+     * 依名稱查詢，不支援時回傳 null
+     */
+    public static ContentCodec forToken(String token) {
+        for (ContentCodec codec : values()) {
+            if (codec.token.equalsIgnoreCase(token.trim())) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 依 Accept-Encoding 選擇回應的編碼，優先使用 zstd，沒有可用的編碼時回傳 null
+     */
+    public static ContentCodec negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        boolean zstd = false;
+        boolean gzip = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim().toLowerCase();
+            if (isRejected(tokens)) {
+                continue;
+            }
+            if (name.equals("zstd")) {
+                zstd = true;
+            } else if (name.equals("gzip") || name.equals("x-gzip") || name.equals("*")) {
+                gzip = true;
+            }
+        }
+        return zstd ? ZSTD : gzip ? GZIP : null;
+    }
+
+    private static boolean isRejected(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
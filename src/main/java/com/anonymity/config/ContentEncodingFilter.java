@@ -0,0 +1,440 @@
+package com.anonymity.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import com.anonymity.output.ArrowResultWriter;
+import com.anonymity.output.XlsxResultWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * 處理請求與回應的 Content-Encoding（gzip、zstd）
+ * 請求本體在讀取時才逐段解壓縮，回應在寫出時逐段壓縮，都不會先緩衝整個本體
+ * 串流回應（StreamingResponseBody）會在非同步派送結束後才完成壓縮串流
+ * 本身已經壓縮的回應（xlsx、Arrow、zip 等）不再壓縮
+ * 解壓縮後的請求本體超過 maxDecodedSize 時讀取會拋出 RequestBodyTooLargeException
+ */
+public class ContentEncodingFilter extends OncePerRequestFilter {
+
+    /** 解壓縮後請求本體的預設上限 */
+    public static final long DEFAULT_MAX_DECODED_SIZE = 1L << 30;
+
+    private static final String RESPONSE_ATTRIBUTE = ContentEncodingFilter.class.getName() + ".response";
+
+    /** 不壓縮的 Content-Type 前綴 */
+    private static final List<String> PRECOMPRESSED_TYPES = List.of(
+        XlsxResultWriter.MEDIA_TYPE,
+        ArrowResultWriter.MEDIA_TYPE,
+        "application/zip",
+        "application/gzip",
+        "application/zstd",
+        "image/",
+        "audio/",
+        "video/"
+    );
+
+    private final long maxDecodedSize;
+
+    public ContentEncodingFilter() {
+        this(DEFAULT_MAX_DECODED_SIZE);
+    }
+
+    public ContentEncodingFilter(long maxDecodedSize) {
+        if (maxDecodedSize <= 0) {
+            throw new IllegalArgumentException("解壓縮大小上限必須大於 0");
+        }
+        this.maxDecodedSize = maxDecodedSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            filterAndFinish(chain, request, request, response);
+            return;
+        }
+
+        HttpServletRequest decodedRequest = request;
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !contentEncoding.isBlank() && !contentEncoding.equalsIgnoreCase("identity")) {
+            ContentCodec codec = ContentCodec.forToken(contentEncoding);
+            if (codec == null || isMultipart(request)) {
+                // multipart 由容器直接解析原始本體，無法在這裡解壓縮
+                response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+                response.setContentType("text/plain;charset=UTF-8");
+                response.getWriter().write("不支援的 Content-Encoding：" + contentEncoding);
+                return;
+            }
+            decodedRequest = new DecodingRequest(request, codec, maxDecodedSize);
+        }
+
+        HttpServletResponse encodedResponse = response;
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentCodec responseCodec = ContentCodec.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (responseCodec != null && !"HEAD".equals(request.getMethod())) {
+            EncodingResponse wrapper = new EncodingResponse(response, responseCodec);
+            request.setAttribute(RESPONSE_ATTRIBUTE, wrapper);
+            encodedResponse = wrapper;
+        }
+
+        filterAndFinish(chain, request, decodedRequest, encodedResponse);
+    }
+
+    /**
+     * 處理請求後結束壓縮串流；處理過程拋出例外時同樣結束，zstd 的原生資源才會釋放
+     */
+    private static void filterAndFinish(FilterChain chain, HttpServletRequest request,
+                                        HttpServletRequest filteredRequest, HttpServletResponse filteredResponse)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(filteredRequest, filteredResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            try {
+                finishIfComplete(request);
+            } catch (IOException finishError) {
+                e.addSuppressed(finishError);
+            }
+            throw e;
+        }
+        finishIfComplete(request);
+    }
+
+    /**
+     * 請求處理完成（非同步處理也結束）後寫出壓縮串流的結尾
+     */
+    private static void finishIfComplete(HttpServletRequest request) throws IOException {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        EncodingResponse wrapper = (EncodingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (wrapper != null) {
+            request.removeAttribute(RESPONSE_ATTRIBUTE);
+            wrapper.finish();
+        }
+    }
+
+    static boolean isPrecompressed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return PRECOMPRESSED_TYPES.stream().anyMatch(type::startsWith);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    /**
+     * 讀取時解壓縮的請求，並隱藏原本的 Content-Encoding 與 Content-Length
+     */
+    private static class DecodingRequest extends HttpServletRequestWrapper {
+
+        private final ContentCodec codec;
+        private final long maxDecodedSize;
+        private ServletInputStream stream;
+        private BufferedReader reader;
+
+        DecodingRequest(HttpServletRequest request, ContentCodec codec, long maxDecodedSize) {
+            super(request);
+            this.codec = codec;
+            this.maxDecodedSize = maxDecodedSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() 已被呼叫");
+            }
+            if (stream == null) {
+                ServletInputStream raw = super.getInputStream();
+                stream = new DecodingInputStream(raw, codec.decode(raw), maxDecodedSize);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                InputStream in = getInputStream();
+                reader = new BufferedReader(new InputStreamReader(in,
+                    encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(DecodingRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * 解壓縮後的串流，累計讀取的位元組數，超過上限時拋出 RequestBodyTooLargeException
+     */
+    private static class DecodingInputStream extends ServletInputStream {
+
+        private final ServletInputStream raw;
+        private final InputStream decoded;
+        private final long maxDecodedSize;
+        private long count;
+        private boolean finished;
+
+        DecodingInputStream(ServletInputStream raw, InputStream decoded, long maxDecodedSize) {
+            this.raw = raw;
+            this.decoded = decoded;
+            this.maxDecodedSize = maxDecodedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkLimit();
+            int b = decoded.read();
+            finished = b < 0;
+            if (!finished) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkLimit();
+            int n = decoded.read(b, off, len);
+            finished = n < 0;
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void checkLimit() throws IOException {
+            if (count > maxDecodedSize) {
+                throw new RequestBodyTooLargeException(maxDecodedSize);
+            }
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            checkLimit();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return raw.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new UnsupportedOperationException("壓縮的請求本體不支援非阻塞讀取");
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoded.close();
+        }
+    }
+
+    /**
+     * 寫出時壓縮的回應
+     * 第一次取得輸出串流時才依 Content-Type 決定是否壓縮並加上 Content-Encoding，沒有本體的回應維持原狀
+     */
+    private static class EncodingResponse extends HttpServletResponseWrapper {
+
+        private final ContentCodec codec;
+        private EncodingOutputStream stream;
+        private ServletOutputStream uncompressed;
+        private PrintWriter writer;
+
+        EncodingResponse(HttpServletResponse response, ContentCodec codec) {
+            super(response);
+            this.codec = codec;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (uncompressed != null) {
+                return uncompressed;
+            }
+            if (stream == null) {
+                HttpServletResponse response = (HttpServletResponse) getResponse();
+                if (isPrecompressed(response.getContentType())) {
+                    uncompressed = response.getOutputStream();
+                    return uncompressed;
+                }
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, codec.getToken());
+                ServletOutputStream raw = response.getOutputStream();
+                stream = new EncodingOutputStream(raw, codec.encode(raw));
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                String encoding = getCharacterEncoding();
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                    encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            // 壓縮後長度未知
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // 壓縮後長度未知
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            }
+        }
+    }
+
+    private static class EncodingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream raw;
+        private final OutputStream encoded;
+        private boolean finished;
+
+        EncodingOutputStream(ServletOutputStream raw, OutputStream encoded) {
+            this.raw = raw;
+            this.encoded = encoded;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            encoded.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            encoded.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!finished) {
+                encoded.flush();
+            }
+        }
+
+        /**
+         * 訊息轉換器寫完後會關閉串流，這時就寫出壓縮結尾
+         */
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        void finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                encoded.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return raw.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            raw.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.anonymity.config;
+
+import com.anonymity.output.XlsxResultWriter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 匯出檔案設定
+ *
+ * anonymity.export.xlsx-rows-per-sheet=1048575
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.export")
+public class ExportProperties {
+
+    /** .xlsx 每個工作表的資料筆數（不含標題列），超過時接續到下一個工作表，最多為 Excel 的上限 */
+    private int xlsxRowsPerSheet = XlsxResultWriter.MAX_ROWS_PER_SHEET;
+
+    public int getXlsxRowsPerSheet() {
+        return xlsxRowsPerSheet;
+    }
+
+    public void setXlsxRowsPerSheet(int xlsxRowsPerSheet) {
+        this.xlsxRowsPerSheet = xlsxRowsPerSheet;
+    }
+}
@@ -0,0 +1,80 @@
+package com.anonymity.config;
+
+import com.anonymity.store.ColumnStorage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC 串流介面設定
+ *
+ * anonymity.grpc.enabled=true
+ * anonymity.grpc.port=9090
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.grpc")
+public class GrpcProperties {
+
+    private boolean enabled = false;
+
+    private int port = 9090;
+
+    /** 單一批次訊息的大小上限 */
+    private int maxInboundMessageSize = 4 * 1024 * 1024;
+
+    /** 單次呼叫可上傳的資料列上限，超過時以 RESOURCE_EXHAUSTED 結束 */
+    private int maxRows = 5000000;
+
+    /** 回傳結果時每個批次的列數 */
+    private int batchRows = 1000;
+
+    /** 上傳中的資料列編碼後存放的位置，上傳大量資料時可改用 direct 或 mapped 減少 heap 與 GC 負擔 */
+    private ColumnStorage storage = ColumnStorage.HEAP;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getMaxInboundMessageSize() {
+        return maxInboundMessageSize;
+    }
+
+    public void setMaxInboundMessageSize(int maxInboundMessageSize) {
+        this.maxInboundMessageSize = maxInboundMessageSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public int getBatchRows() {
+        return batchRows;
+    }
+
+    public void setBatchRows(int batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    public ColumnStorage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(ColumnStorage storage) {
+        this.storage = storage;
+    }
+}
@@ -0,0 +1,18 @@
+package com.anonymity.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Boot 會將 Module bean 註冊到預設的 ObjectMapper，CBOR 與 Smile 的 ObjectMapper 由其複製而來，同樣適用
+ * Blackbird 以 LambdaMetafactory 產生 getter、setter 與建構子的存取類別，取代反射呼叫
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
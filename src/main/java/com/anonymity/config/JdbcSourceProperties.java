@@ -0,0 +1,99 @@
+package com.anonymity.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 可供匿名化直接讀取的資料庫來源，以及可寫入匿名化結果的目標資料庫
+ * 來源與目標只能在設定檔中定義，請求只指定名稱，不接受連線字串；來源以唯讀連線讀取，不會被寫入
+ *
+ * anonymity.jdbc.fetch-size=1000
+ * anonymity.jdbc.sources.cases.url=jdbc:postgresql://db/cases
+ * anonymity.jdbc.sources.cases.username=reader
+ * anonymity.jdbc.sources.cases.password=secret
+ *
+ * anonymity.jdbc.batch-size=1000
+ * anonymity.jdbc.targets.reports.url=jdbc:postgresql://db/reports
+ * anonymity.jdbc.targets.reports.username=writer
+ * anonymity.jdbc.targets.reports.password=secret
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.jdbc")
+public class JdbcSourceProperties {
+
+    /** 預設每次向資料庫取回的列數 */
+    private int fetchSize = 1000;
+
+    /** 預設寫入目標資料表時每次批次執行的列數 */
+    private int batchSize = 1000;
+
+    private Map<String, Source> sources = new HashMap<>();
+
+    private Map<String, Source> targets = new HashMap<>();
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Map<String, Source> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<String, Source> sources) {
+        this.sources = sources;
+    }
+
+    public Map<String, Source> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(Map<String, Source> targets) {
+        this.targets = targets;
+    }
+
+    public static class Source {
+
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
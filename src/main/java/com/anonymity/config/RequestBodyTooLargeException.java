@@ -0,0 +1,19 @@
+package com.anonymity.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+
+/**
+ * 解壓縮後的請求本體超過 anonymity.compression.max-decoded-size
+ * 由讀取請求本體的串流拋出，Jackson 與訊息轉換器會原樣傳遞 IOException，
+ * 經由 @ResponseStatus 回傳 413；自行讀取本體的端點需自行轉成 413
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class RequestBodyTooLargeException extends IOException {
+
+    public RequestBodyTooLargeException(long maxSize) {
+        super("解壓縮後的請求內容超過上限：" + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,57 @@
+package com.anonymity.config;
+
+import com.anonymity.store.ColumnStorage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 匿名化結果保存設定
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.results")
+public class ResultProperties {
+
+    /** 同時保存的結果數量上限，超過時移除最久未使用的結果；0 表示不保存 */
+    private int maxResults = 10;
+
+    /** 閒置超過此時間的結果會被移除 */
+    private long ttlMinutes = 60;
+
+    /** 單次分頁查詢的列數上限 */
+    private int maxPageSize = 1000;
+
+    /** 保存的結果存放的位置，保存大型結果時可改用 direct 或 mapped 減少 heap 與 GC 負擔 */
+    private ColumnStorage storage = ColumnStorage.HEAP;
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public long getTtlMinutes() {
+        return ttlMinutes;
+    }
+
+    public void setTtlMinutes(long ttlMinutes) {
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public ColumnStorage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(ColumnStorage storage) {
+        this.storage = storage;
+    }
+}
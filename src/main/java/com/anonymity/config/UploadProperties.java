@@ -0,0 +1,69 @@
+package com.anonymity.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * 分段上傳設定
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.upload")
+public class UploadProperties {
+
+    /** 組合中檔案的存放目錄 */
+    private String dir = Paths.get(System.getProperty("java.io.tmpdir"), "anonymity-uploads").toString();
+
+    /** 預設分段大小 */
+    private int defaultChunkSize = 8 * 1024 * 1024;
+
+    /** 單一分段的大小上限 */
+    private int maxChunkSize = 64 * 1024 * 1024;
+
+    /** 上傳檔案的大小上限 */
+    private long maxFileSize = 20L * 1024 * 1024 * 1024;
+
+    /** 閒置超過此時間的上傳會被清除 */
+    private long sessionTimeoutMinutes = 24 * 60;
+
+    public String getDir() {
+        return dir;
+    }
+
+    public void setDir(String dir) {
+        this.dir = dir;
+    }
+
+    public int getDefaultChunkSize() {
+        return defaultChunkSize;
+    }
+
+    public void setDefaultChunkSize(int defaultChunkSize) {
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public void setMaxChunkSize(int maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public long getSessionTimeoutMinutes() {
+        return sessionTimeoutMinutes;
+    }
+
+    public void setSessionTimeoutMinutes(long sessionTimeoutMinutes) {
+        this.sessionTimeoutMinutes = sessionTimeoutMinutes;
+    }
+}
@@ -0,0 +1,124 @@
+package com.anonymity.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 監看目錄批次匿名化設定
+ *
+ * anonymity.watch.enabled=true
+ * anonymity.watch.input-dir=/data/reports
+ * anonymity.watch.output-dir=/data/results
+ */
+@Component
+@ConfigurationProperties(prefix = "anonymity.watch")
+public class WatchProperties {
+
+    private boolean enabled = false;
+
+    /** 放入 CSV/XLSX 檔案的目錄，處理完的檔案移到 processed/，失敗的移到 failed/ */
+    private String inputDir = "watch/input";
+
+    /** 匿名化結果與統計資訊的輸出目錄 */
+    private String outputDir = "watch/output";
+
+    /** 同時進行匿名化的檔案數 */
+    private int workers = 2;
+
+    /** 檔案大小維持不變多久才視為寫入完成 */
+    private long settleMillis = 1000;
+
+    private char csvDelimiter = ',';
+
+    private int k = 3;
+
+    private double l = 2;
+
+    private List<String> quasiIdentifiers = new ArrayList<>(Arrays.asList("年齡", "性別", "縣市", "通報日期"));
+
+    private List<String> sensitiveAttributes = new ArrayList<>(Arrays.asList("疾病", "檢驗結果", "是否確診"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getInputDir() {
+        return inputDir;
+    }
+
+    public void setInputDir(String inputDir) {
+        this.inputDir = inputDir;
+    }
+
+    public String getOutputDir() {
+        return outputDir;
+    }
+
+    public void setOutputDir(String outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public long getSettleMillis() {
+        return settleMillis;
+    }
+
+    public void setSettleMillis(long settleMillis) {
+        this.settleMillis = settleMillis;
+    }
+
+    public char getCsvDelimiter() {
+        return csvDelimiter;
+    }
+
+    public void setCsvDelimiter(char csvDelimiter) {
+        this.csvDelimiter = csvDelimiter;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void setK(int k) {
+        this.k = k;
+    }
+
+    public double getL() {
+        return l;
+    }
+
+    public void setL(double l) {
+        this.l = l;
+    }
+
+    public List<String> getQuasiIdentifiers() {
+        return quasiIdentifiers;
+    }
+
+    public void setQuasiIdentifiers(List<String> quasiIdentifiers) {
+        this.quasiIdentifiers = quasiIdentifiers;
+    }
+
+    public List<String> getSensitiveAttributes() {
+        return sensitiveAttributes;
+    }
+
+    public void setSensitiveAttributes(List<String> sensitiveAttributes) {
+        this.sensitiveAttributes = sensitiveAttributes;
+    }
+}
@@ -1,19 +1,31 @@
 package com.anonymity.controller;
 
-import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.anonymity.config.DataFormats;
+import com.anonymity.config.RequestBodyTooLargeException;
+import com.anonymity.controller.dto.AnonymizationParameters;
+import com.anonymity.controller.dto.AnonymizationRequest;
+import com.anonymity.ingest.StreamingJsonIngestor;
+import com.anonymity.ingest.StreamingJsonIngestor.IngestedRequest;
 import com.anonymity.service.AnonymityService;
+import com.anonymity.service.AnonymizationResult;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +35,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springdoc.core.annotations.ParameterObject;
+
 @RestController
 @RequestMapping("/api/anonymity")
 @Tag(name = "數據匿名化", description = "提供k-Anonymity和l-Diversity匿名化功能")
@@ -33,6 +47,15 @@ public class AnonymityController {
     @Autowired
     private AnonymityService anonymityService;
 
+    @Autowired
+    private StreamingJsonIngestor streamingJsonIngestor;
+
+    @Autowired
+    private DataFormats dataFormats;
+
+    @Autowired
+    private ResultResponder resultResponder;
+
     @Operation(summary = "匿名化數據", description = "使用k-Anonymity和l-Diversity算法對數據進行匿名化處理")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "匿名化成功",
@@ -47,23 +70,68 @@ public class AnonymityController {
     })
     @PostMapping("/anonymize")
     public ResponseEntity<?> anonymizeData(
-            @Parameter(description = "匿名化請求參數", required = true)
-            @RequestBody Map<String, Object> request) {
+            @Valid @RequestBody AnonymizationRequest request,
+            @ParameterObject @ModelAttribute OutputOptions output) {
         try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> data = (List<Map<String, String>>) request.get("data");
-            @SuppressWarnings("unchecked")
-            List<String> quasiIdentifiers = (List<String>) request.get("quasiIdentifiers");
-            @SuppressWarnings("unchecked")
-            List<String> sensitiveAttributes = (List<String>) request.get("sensitiveAttributes");
-            int k = ((Number) request.get("k")).intValue();
-            double l = ((Number) request.get("l")).doubleValue();
+            resultResponder.validate(output);
+            int k = request.getK();
+            double l = request.getL();
             logger.info("parameter: k={}, l={}", k, l);
 
-            Map<String, Object> result = anonymityService.anonymizeData(
-                data, quasiIdentifiers, sensitiveAttributes, k, l);
+            AnonymizationResult result = anonymityService.anonymize(
+                request.getData(), request.getQuasiIdentifiers(), request.getSensitiveAttributes(), k, l);
             
-            return ResponseEntity.ok(result);
+            return resultResponder.respond(result, new AnonymizationParameters(
+                k, l, request.getQuasiIdentifiers(), request.getSensitiveAttributes()), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("請求參數無效", e);
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "請求參數無效",
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            logger.error("處理請求時發生錯誤", e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "處理請求時發生錯誤",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    @Operation(summary = "串流匿名化數據", description = "請求格式與 /anonymize 相同，data 陣列以串流方式逐筆載入，適用於大量資料")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "匿名化成功",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Map.class))),
+        @ApiResponse(responseCode = "400", description = "請求參數無效",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Map.class))),
+        @ApiResponse(responseCode = "500", description = "處理請求時發生錯誤",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping(value = "/anonymize/stream",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, DataFormats.SMILE_MEDIA_TYPE})
+    public ResponseEntity<?> anonymizeDataStream(
+            HttpServletRequest httpRequest,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            IngestedRequest request = streamingJsonIngestor.read(httpRequest.getInputStream(),
+                dataFormats.mapperFor(httpRequest.getContentType()).getFactory());
+            if (request.getDataSet() == null || request.getK() == null || request.getL() == null) {
+                throw new IllegalArgumentException("缺少必要參數：data、k 或 l");
+            }
+            int k = request.getK();
+            double l = request.getL();
+            logger.info("parameter: k={}, l={}, rows={}", k, l, request.getRowCount());
+
+            AnonymizationResult result = anonymityService.anonymize(
+                request.getDataSet(), request.getQuasiIdentifiers(), request.getSensitiveAttributes(), k, l);
+            
+            return resultResponder.respond(result, new AnonymizationParameters(
+                k, l, request.getQuasiIdentifiers(), request.getSensitiveAttributes()), output);
             
         } catch (IllegalArgumentException e) {
             logger.error("請求參數無效", e);
@@ -71,6 +139,12 @@ public class AnonymityController {
                 "error", "請求參數無效",
                 "message", e.getMessage()
             ));
+        } catch (RequestBodyTooLargeException e) {
+            logger.error("請求內容過大", e);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
+                "error", "請求內容過大",
+                "message", e.getMessage()
+            ));
         } catch (Exception e) {
             logger.error("處理請求時發生錯誤", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -125,4 +199,4 @@ public class AnonymityController {
             ));
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.anonymity.controller;
+
+/**
+ * 多個端點共用的 OpenAPI 參數說明
+ */
+final class ApiParameters {
+
+    static final String FORMAT = "JSON 結果形式：objects（預設）、compact（columns 加位置陣列）、dictionary（另附各欄位字典，資料列為字典編號）；NDJSON 只支援 objects";
+    static final String AGGREGATE = "true 時依準識別符分組，每個等價類輸出一筆（筆數與敏感屬性的值分布）";
+    static final String ACCEPT = "Accept 為 application/x-ndjson 時以 NDJSON 逐列輸出";
+    static final String STORE = "true 時將結果保存在伺服器端，resultId 可用於 /api/results 分頁查詢（anonymity.results.max-results 為 0 時不保存）";
+    static final String QUASI_IDENTIFIERS = "準識別符，未提供時使用預設值";
+    static final String SENSITIVE_ATTRIBUTES = "敏感屬性，未提供時使用預設值";
+    static final String TARGET = "寫入目標名稱（anonymity.jdbc.targets.*），提供時結果以批次 INSERT 寫入資料庫，回應只含摘要";
+    static final String TARGET_TABLE = "寫入的目標資料表，欄位名稱需與結果欄位相同";
+    static final String BATCH_SIZE = "每次批次 INSERT 的列數，未提供時使用設定值";
+
+    private ApiParameters() {
+    }
+}
@@ -1,27 +1,57 @@
 package com.anonymity.controller;
 
+import com.anonymity.config.DataFormats;
+import com.anonymity.config.ExportProperties;
+import com.anonymity.config.RequestBodyTooLargeException;
+import com.anonymity.controller.dto.AnonymizationParameters;
+import com.anonymity.controller.dto.AnonymizationRequest;
+import com.anonymity.ingest.StreamingJsonIngestor;
+import com.anonymity.ingest.StreamingJsonIngestor.IngestedRequest;
+import com.anonymity.ingest.TempFiles;
+import com.anonymity.output.ArrowResultWriter;
+import com.anonymity.output.XlsxResultWriter;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.service.ArrowService;
+import com.anonymity.service.CsvService;
+import com.anonymity.service.JdbcService;
 import com.anonymity.service.ExcelService;
 import com.anonymity.service.AnonymityService;
+import com.anonymity.service.ChunkedUploadService;
+import com.anonymity.service.UploadSession;
+import com.anonymity.validation.DataValidator;
+import org.deidentifier.arx.Data;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
@@ -33,14 +63,43 @@ public class DataPrivacyController {
     private static final Logger logger = LoggerFactory.getLogger(DataPrivacyController.class);
     private static final List<String> DEFAULT_QUASI_IDENTIFIERS = Arrays.asList("年齡", "性別", "郵遞區號", "縣市");
     private static final List<String> DEFAULT_SENSITIVE_ATTRIBUTES = Arrays.asList("疾病", "檢驗結果", "是否確診");
+    private static final List<String> UPLOAD_FORMATS = Arrays.asList(".csv", ".xlsx", ".arrow");
 
     @Autowired
     private ExcelService excelService;
 
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private ArrowService arrowService;
+
+    @Autowired
+    private JdbcService jdbcService;
+
     @Autowired
     private AnonymityService anonymityService;
 
-    @PostMapping(value = "/anonymize", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Autowired
+    private StreamingJsonIngestor streamingJsonIngestor;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private DataValidator dataValidator;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Autowired
+    private DataFormats dataFormats;
+
+    @Autowired
+    private ResultResponder resultResponder;
+
+    @PostMapping(value = "/anonymize",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, DataFormats.SMILE_MEDIA_TYPE})
     @Operation(
         summary = "匿名化資料",
         description = "將輸入的資料進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
@@ -61,36 +120,30 @@ public class DataPrivacyController {
     @ApiResponse(responseCode = "400", description = "請求參數錯誤")
     @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
     public ResponseEntity<?> anonymizeData(
-            @RequestBody Map<String, Object> request) {
+            @Valid @RequestBody AnonymizationRequest request,
+            @ParameterObject @ModelAttribute OutputOptions output) {
         try {
+            resultResponder.validate(output);
             logger.info("收到匿名化請求");
             
-            // 從請求中獲取資料
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> data = (List<Map<String, String>>) request.get("data");
+            List<Map<String, String>> data = request.getData();
             
             // 使用預設值或請求中的值
-            List<String> quasiIdentifiers = request.get("quasiIdentifiers") != null ? 
-                (List<String>) request.get("quasiIdentifiers") : 
+            List<String> quasiIdentifiers = request.getQuasiIdentifiers() != null ?
+                request.getQuasiIdentifiers() :
                 DEFAULT_QUASI_IDENTIFIERS;
                 
-            List<String> sensitiveAttributes = request.get("sensitiveAttributes") != null ? 
-                (List<String>) request.get("sensitiveAttributes") : 
+            List<String> sensitiveAttributes = request.getSensitiveAttributes() != null ?
+                request.getSensitiveAttributes() :
                 DEFAULT_SENSITIVE_ATTRIBUTES;
             
-            // 從請求中獲取 k 和 l 值
-            int k = ((Number) request.get("k")).intValue();
-            double l = ((Number) request.get("l")).doubleValue();
+            int k = request.getK();
+            double l = request.getL();
             
             logger.info("匿名化參數: k={}, l={}", k, l);
             
-            // 驗證必要參數
-            if (data == null || data.isEmpty()) {
-                return ResponseEntity.badRequest().body("缺少必要參數：data");
-            }
-            
             // 呼叫匿名化服務
-            Map<String, Object> result = anonymityService.anonymizeData(
+            AnonymizationResult result = anonymityService.anonymize(
                 data, 
                 quasiIdentifiers, 
                 sensitiveAttributes, 
@@ -99,19 +152,193 @@ public class DataPrivacyController {
             );
             
             // 構建回應
+            return resultResponder.respond(result,
+                new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/anonymize/stream",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, DataFormats.SMILE_MEDIA_TYPE})
+    @Operation(
+        summary = "串流匿名化資料",
+        description = "請求格式與 /anonymize 相同，但 data 陣列以串流方式逐筆載入資料集，\n" +
+                     "不會先轉為完整的資料列表，適用於數十萬筆以上的資料。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeDataStream(
+            HttpServletRequest httpRequest,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            logger.info("收到串流匿名化請求");
+            
+            IngestedRequest request = streamingJsonIngestor.read(httpRequest.getInputStream(),
+                dataFormats.mapperFor(httpRequest.getContentType()).getFactory());
+            
+            // 驗證必要參數
+            if (request.getDataSet() == null || request.getRowCount() == 0) {
+                return ResponseEntity.badRequest().body("缺少必要參數：data");
+            }
+            if (request.getK() == null || request.getL() == null) {
+                return ResponseEntity.badRequest().body("缺少必要參數：k 或 l");
+            }
+            
+            // 使用預設值或請求中的值
+            List<String> quasiIdentifiers = request.getQuasiIdentifiers() != null ?
+                request.getQuasiIdentifiers() :
+                DEFAULT_QUASI_IDENTIFIERS;
+                
+            List<String> sensitiveAttributes = request.getSensitiveAttributes() != null ?
+                request.getSensitiveAttributes() :
+                DEFAULT_SENSITIVE_ATTRIBUTES;
+            
+            int k = request.getK();
+            double l = request.getL();
+            
+            logger.info("匿名化參數: k={}, l={}, 筆數={}", k, l, request.getRowCount());
+            
+            // 呼叫匿名化服務
+            AnonymizationResult result = anonymityService.anonymize(
+                request.getDataSet(),
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
+            return resultResponder.respond(result,
+                new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RequestBodyTooLargeException e) {
+            logger.error("請求內容過大", e);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/anonymize/excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "匿名化 Excel 檔案",
+        description = "上傳 .xlsx 檔案（第一個工作表，第一列為標題）進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
+                     "檔案以事件模型逐列讀取，數值與日期儲存格會自動轉換（日期為 yyyy/MM/dd）。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeExcel(
+            @Parameter(description = "Excel 檔案 (.xlsx)", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            logger.info("收到 Excel 匿名化請求: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body("缺少必要參數：file");
+            }
+            
+            if (quasiIdentifiers == null) {
+                quasiIdentifiers = DEFAULT_QUASI_IDENTIFIERS;
+            }
+            if (sensitiveAttributes == null) {
+                sensitiveAttributes = DEFAULT_SENSITIVE_ATTRIBUTES;
+            }
+            
+            AnonymizationResult result = anonymityService.anonymize(
+                excelService.readExcelFile(file),
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
+            return resultResponder.respond(result,
+                new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/anonymize/excel/sheets", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "匿名化 Excel 活頁簿的所有工作表",
+        description = "上傳 .xlsx 檔案，每個工作表（第一列為標題）分別進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
+                     "各工作表同時解析與匿名化，回傳每個工作表的結果與耗時；單一工作表失敗不影響其他工作表。"
+    )
+    @ApiResponse(responseCode = "200", description = "處理完成")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeExcelSheets(
+            @Parameter(description = "Excel 檔案 (.xlsx)", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes) {
+        try {
+            logger.info("收到 Excel 多工作表匿名化請求: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body("缺少必要參數：file");
+            }
+            
+            if (quasiIdentifiers == null) {
+                quasiIdentifiers = DEFAULT_QUASI_IDENTIFIERS;
+            }
+            if (sensitiveAttributes == null) {
+                sensitiveAttributes = DEFAULT_SENSITIVE_ATTRIBUTES;
+            }
+            
+            long start = System.currentTimeMillis();
+            List<Map<String, Object>> sheets = excelService.anonymizeWorkbook(
+                file,
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
             Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "匿名化處理成功");
-            response.put("data", result.get("data"));  // 匿名化後的資料
-            response.put("statistics", result.get("statistics"));  // 統計資訊
-            
-            // 創建參數映射
-            Map<String, Object> parameters = new HashMap<>();
-            parameters.put("k", k);
-            parameters.put("l", l);
-            parameters.put("quasiIdentifiers", quasiIdentifiers);
-            parameters.put("sensitiveAttributes", sensitiveAttributes);
-            response.put("parameters", parameters);
+            response.put("success", sheets.stream().allMatch(sheet -> Boolean.TRUE.equals(sheet.get("success"))));
+            response.put("message", "工作表處理完成");
+            response.put("sheets", sheets);
+            response.put("totalMillis", System.currentTimeMillis() - start);
+            
+            response.put("parameters", new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes));
             
             return ResponseEntity.ok(response);
             
@@ -124,4 +351,423 @@ public class DataPrivacyController {
                 .body("匿名化處理失敗：" + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+    
+    @PostMapping(value = "/anonymize/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "匿名化 CSV 檔案",
+        description = "上傳 UTF-8 CSV 檔案（第一列為標題）進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
+                     "檔案以記憶體映射方式讀取並直接切分欄位，適用於大型匯出檔。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeCsv(
+            @Parameter(description = "CSV 檔案 (UTF-8)", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = "欄位分隔字元，預設為逗號")
+            @RequestParam(defaultValue = ",") char delimiter,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            logger.info("收到 CSV 匿名化請求: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body("缺少必要參數：file");
+            }
+            
+            if (quasiIdentifiers == null) {
+                quasiIdentifiers = DEFAULT_QUASI_IDENTIFIERS;
+            }
+            if (sensitiveAttributes == null) {
+                sensitiveAttributes = DEFAULT_SENSITIVE_ATTRIBUTES;
+            }
+            
+            AnonymizationResult result = anonymityService.anonymize(
+                csvService.readCsvFile(file, delimiter),
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
+            return resultResponder.respond(result,
+                new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/anonymize/arrow", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = ArrowResultWriter.MEDIA_TYPE)
+    @Operation(
+        summary = "匿名化 Arrow 檔案",
+        description = "上傳 Arrow IPC 檔案（file 或 stream 格式）進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
+                     "只讀取準識別符與敏感屬性欄位，結果以 Arrow IPC stream 格式回傳，統計資訊放在回應標頭。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeArrow(
+            @Parameter(description = "Arrow IPC 檔案", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes) {
+        try {
+            logger.info("收到 Arrow 匿名化請求: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body("缺少必要參數：file");
+            }
+            
+            if (quasiIdentifiers == null) {
+                quasiIdentifiers = DEFAULT_QUASI_IDENTIFIERS;
+            }
+            if (sensitiveAttributes == null) {
+                sensitiveAttributes = DEFAULT_SENSITIVE_ATTRIBUTES;
+            }
+            
+            // 只讀取會用到的欄位
+            Set<String> projection = new HashSet<>(quasiIdentifiers);
+            projection.addAll(sensitiveAttributes);
+            
+            AnonymizationResult result = anonymityService.anonymize(
+                arrowService.readArrowFile(file, projection::contains),
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
+            StreamingResponseBody body = out -> ArrowResultWriter.write(
+                result.getOutput(), result.getHeader(), result.getColumns(), out);
+            return ResultResponder.okWithStatistics(result)
+                .contentType(MediaType.parseMediaType(ArrowResultWriter.MEDIA_TYPE))
+                .body(body);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/anonymize/jdbc")
+    @Operation(
+        summary = "匿名化資料庫資料表",
+        description = "直接從設定檔中定義的資料庫來源讀取資料表，進行 k-anonymity 和 l-diversity 匿名化處理。\n\n" +
+                     "只查詢準識別符與敏感屬性欄位，以 forward-only 游標依 fetchSize 分批取回，不需要先匯出再上傳。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> anonymizeJdbc(
+            @Parameter(description = "資料來源名稱（anonymity.jdbc.sources.*）", required = true)
+            @RequestParam String source,
+            @Parameter(description = "資料表名稱", required = true)
+            @RequestParam String table,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = "每次向資料庫取回的列數，未提供時使用設定值")
+            @RequestParam(required = false) Integer fetchSize,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            logger.info("收到資料庫匿名化請求: {}.{}", source, table);
+            
+            if (quasiIdentifiers == null) {
+                quasiIdentifiers = DEFAULT_QUASI_IDENTIFIERS;
+            }
+            if (sensitiveAttributes == null) {
+                sensitiveAttributes = DEFAULT_SENSITIVE_ATTRIBUTES;
+            }
+            
+            // 只查詢會用到的欄位
+            Set<String> columns = new LinkedHashSet<>(quasiIdentifiers);
+            columns.addAll(sensitiveAttributes);
+            
+            AnonymizationResult result = anonymityService.anonymize(
+                jdbcService.readTable(source, table, new ArrayList<>(columns), fetchSize),
+                quasiIdentifiers,
+                sensitiveAttributes,
+                k,
+                l
+            );
+            
+            return resultResponder.respond(result,
+                new AnonymizationParameters(k, l, quasiIdentifiers, sensitiveAttributes), output);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/anonymize/export", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = XlsxResultWriter.MEDIA_TYPE)
+    @Operation(
+        summary = "匿名化並匯出 Excel",
+        description = "上傳 .csv、.xlsx 或 .arrow 檔案進行 k-anonymity 和 l-diversity 匿名化處理，結果以 .xlsx 下載。\n\n" +
+                     "活頁簿以 SXSSF 逐列寫到回應，記憶體中只保留固定列數，統計資訊放在回應標頭；" +
+                     "includeOriginal 為 true 時另附「原始資料」工作表。超過單一工作表列數上限時自動接續到下一個工作表。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> exportExcel(
+            @Parameter(description = "資料檔案（.csv、.xlsx 或 .arrow）", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = "CSV 欄位分隔字元，預設為逗號")
+            @RequestParam(defaultValue = ",") char delimiter,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes,
+            @Parameter(description = "true 時另附原始資料工作表")
+            @RequestParam(defaultValue = "false") boolean includeOriginal) {
+        try {
+            logger.info("收到 Excel 匯出請求: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body("缺少必要參數：file");
+            }
+            
+            List<String> qi = quasiIdentifiers != null ? quasiIdentifiers : DEFAULT_QUASI_IDENTIFIERS;
+            List<String> sa = sensitiveAttributes != null ? sensitiveAttributes : DEFAULT_SENSITIVE_ATTRIBUTES;
+            String fileName = file.getOriginalFilename();
+            String extension = uploadFormat(fileName);
+            
+            AnonymizationResult result = TempFiles.withTempFile(file, extension, temp ->
+                anonymityService.anonymize(readDataFile(temp, extension, delimiter, qi, sa), qi, sa, k, l));
+            
+            String exportName = fileName.substring(0, fileName.length() - extension.length()) + ".anonymized.xlsx";
+            StreamingResponseBody body = out -> XlsxResultWriter.write(
+                result.getOutput(), result.getHeader(), result.getColumns(),
+                includeOriginal ? result.getInput() : null, exportProperties.getXlsxRowsPerSheet(), out);
+            return ResultResponder.okWithStatistics(result)
+                .contentType(MediaType.parseMediaType(XlsxResultWriter.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(exportName, StandardCharsets.UTF_8).build().toString())
+                .body(body);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/uploads")
+    @Operation(
+        summary = "建立分段上傳",
+        description = "大型檔案改以分段上傳，不受 multipart 檔案大小限制。\n\n" +
+                     "建立後依回傳的 chunkSize 將檔案切段，以 PUT /uploads/{uploadId}/chunks/{index} 上傳，" +
+                     "各段可以同時上傳，中斷後查詢 missingChunks 只補傳缺少的分段，最後呼叫 complete 開始匿名化。"
+    )
+    @ApiResponse(responseCode = "200", description = "建立成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤")
+    public ResponseEntity<?> createUpload(
+            @Parameter(description = "原始檔名，副檔名須為 .csv、.xlsx 或 .arrow", required = true)
+            @RequestParam String fileName,
+            @Parameter(description = "檔案大小 (bytes)", required = true)
+            @RequestParam long totalSize,
+            @Parameter(description = "分段大小 (bytes)，未提供時使用設定值")
+            @RequestParam(required = false) Integer chunkSize) {
+        try {
+            uploadFormat(fileName);
+            UploadSession session = chunkedUploadService.create(fileName, totalSize, chunkSize);
+            return ResponseEntity.ok(uploadStatus(session));
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("建立分段上傳失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("建立分段上傳失敗：" + e.getMessage());
+        }
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+        summary = "上傳分段",
+        description = "請求內容為該分段的原始位元組，寫入檔案中 index × chunkSize 的位置。重複上傳同一段會覆寫。"
+    )
+    @ApiResponse(responseCode = "200", description = "上傳成功")
+    @ApiResponse(responseCode = "400", description = "上傳不存在、分段編號或大小錯誤")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            HttpServletRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.writeChunk(uploadId, index, request.getInputStream());
+            Map<String, Object> response = new HashMap<>();
+            response.put("uploadId", uploadId);
+            response.put("index", index);
+            response.put("receivedChunks", session.getReceivedChunks());
+            response.put("totalChunks", session.getTotalChunks());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RequestBodyTooLargeException e) {
+            logger.error("分段內容過大", e);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("分段上傳失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("分段上傳失敗：" + e.getMessage());
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "查詢分段上傳狀態", description = "回傳已收到的分段數與尚未上傳的分段編號，用於中斷後續傳。")
+    @ApiResponse(responseCode = "200", description = "查詢成功")
+    @ApiResponse(responseCode = "400", description = "上傳不存在或已過期")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+        try {
+            UploadSession session = chunkedUploadService.get(uploadId);
+            Map<String, Object> response = uploadStatus(session);
+            response.put("receivedChunks", session.getReceivedChunks());
+            response.put("missingChunks", session.getMissingChunks());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(
+        summary = "完成分段上傳並匿名化",
+        description = "所有分段上傳後，依副檔名讀取組合好的檔案並進行 k-anonymity 和 l-diversity 匿名化處理，處理成功後刪除檔案；參數或資料驗證失敗時保留上傳，可修正參數後重試。"
+    )
+    @ApiResponse(responseCode = "200", description = "匿名化成功")
+    @ApiResponse(responseCode = "400", description = "請求參數錯誤或仍有分段未上傳")
+    @ApiResponse(responseCode = "500", description = "伺服器內部錯誤")
+    public ResponseEntity<?> completeUpload(
+            @PathVariable String uploadId,
+            @Parameter(description = "k值 (k-Anonymity)", required = true)
+            @RequestParam int k,
+            @Parameter(description = "l值 (l-Diversity)", required = true)
+            @RequestParam double l,
+            @Parameter(description = "CSV 欄位分隔字元，預設為逗號")
+            @RequestParam(defaultValue = ",") char delimiter,
+            @Parameter(description = ApiParameters.QUASI_IDENTIFIERS)
+            @RequestParam(required = false) List<String> quasiIdentifiers,
+            @Parameter(description = ApiParameters.SENSITIVE_ATTRIBUTES)
+            @RequestParam(required = false) List<String> sensitiveAttributes,
+            @ParameterObject @ModelAttribute OutputOptions output) {
+        try {
+            resultResponder.validate(output);
+            List<String> qi = quasiIdentifiers != null ? quasiIdentifiers : DEFAULT_QUASI_IDENTIFIERS;
+            List<String> sa = sensitiveAttributes != null ? sensitiveAttributes : DEFAULT_SENSITIVE_ATTRIBUTES;
+            String extension = uploadFormat(chunkedUploadService.get(uploadId).getFileName());
+            // 先驗證參數，參數錯誤時不必讀取已上傳的檔案
+            dataValidator.validateParameters(qi, sa, k, l);
+            logger.info("完成分段上傳 {}，開始匿名化", uploadId);
+
+            AnonymizationResult result = chunkedUploadService.complete(uploadId, file ->
+                anonymityService.anonymize(readDataFile(file, extension, delimiter, qi, sa), qi, sa, k, l));
+
+            return resultResponder.respond(result, new AnonymizationParameters(k, l, qi, sa), output);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("參數驗證失敗", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匿名化處理失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("匿名化處理失敗：" + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "取消分段上傳", description = "刪除已上傳的分段。")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            logger.error("取消分段上傳失敗", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("取消分段上傳失敗：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 依副檔名讀取檔案，Arrow 只讀取準識別符與敏感屬性欄位
+     */
+    private Data readDataFile(Path file, String extension, char delimiter,
+                              List<String> quasiIdentifiers, List<String> sensitiveAttributes) throws IOException {
+        switch (extension) {
+            case ".csv":
+                return csvService.readCsvFile(file, delimiter);
+            case ".xlsx":
+                return excelService.readExcelFile(file.toFile());
+            default:
+                Set<String> projection = new HashSet<>(quasiIdentifiers);
+                projection.addAll(sensitiveAttributes);
+                return arrowService.readArrowFile(file, projection::contains);
+        }
+    }
+
+    private static String uploadFormat(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase();
+        for (String suffix : UPLOAD_FORMATS) {
+            if (lower.endsWith(suffix)) {
+                return suffix;
+            }
+        }
+        throw new IllegalArgumentException("不支援的檔案格式，僅接受 " + String.join("、", UPLOAD_FORMATS));
+    }
+
+    private static Map<String, Object> uploadStatus(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getId());
+        response.put("fileName", session.getFileName());
+        response.put("totalSize", session.getTotalSize());
+        response.put("chunkSize", session.getChunkSize());
+        response.put("totalChunks", session.getTotalChunks());
+        return response;
+    }
+}
@@ -1,18 +1,34 @@
 package com.anonymity.controller;
 
+import com.anonymity.config.DataFormats;
 import com.anonymity.controller.dto.DifferentialPrivacyRequest;
+import com.anonymity.output.ArrowResultWriter;
+import com.anonymity.output.JsonResultWriter;
+import com.anonymity.output.JsonResultWriter.RowShape;
+import com.anonymity.service.ArrowService;
 import com.anonymity.service.DifferentialPrivacyService;
+import com.anonymity.service.ResultStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.deidentifier.arx.DataHandle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 @RestController
 @RequestMapping("/api/differential-privacy")
@@ -20,26 +36,114 @@ import java.util.Map;
 public class DifferentialPrivacyController {
 
     private final DifferentialPrivacyService differentialPrivacyService;
+    private final ArrowService arrowService;
+    private final ResultStore resultStore;
+    private final DataFormats dataFormats;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public DifferentialPrivacyController(DifferentialPrivacyService differentialPrivacyService) {
+    public DifferentialPrivacyController(DifferentialPrivacyService differentialPrivacyService,
+                                         ArrowService arrowService,
+                                         ResultStore resultStore,
+                                         DataFormats dataFormats,
+                                         ObjectMapper objectMapper) {
         this.differentialPrivacyService = differentialPrivacyService;
+        this.arrowService = arrowService;
+        this.resultStore = resultStore;
+        this.dataFormats = dataFormats;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/apply")
-    @Operation(summary = "應用差分隱私", description = "使用指定的隱私預算對數據應用差分隱私")
-    public ResponseEntity<Map<String, Object>> applyDifferentialPrivacy(
-            @Valid @RequestBody DifferentialPrivacyRequest request) {
+    @Operation(summary = "應用差分隱私",
+               description = "使用指定的隱私預算對數據應用差分隱私。結果逐列寫出，Accept 為 application/x-ndjson 時每列輸出一個 JSON 物件。" +
+                             "store 為 true 時結果另外保存在伺服器端，resultId 可用於 /api/results 分頁查詢；includeRows 為 false 時回應不含資料列")
+    public ResponseEntity<?> applyDifferentialPrivacy(
+            @Valid @RequestBody DifferentialPrivacyRequest request,
+            @RequestParam(defaultValue = "true") boolean includeRows,
+            @RequestParam(defaultValue = "false") boolean store,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            Map<String, Object> result = differentialPrivacyService.applyDifferentialPrivacy(
+            DataHandle output = differentialPrivacyService.anonymize(
                 request.getData(), 
                 request.getEpsilon(),
                 request.getDelta(),
                 request.getIsDataIndependent()
             );
-            return ResponseEntity.ok(result);
+            String[] names = attributeNames(output);
+            int[] columns = IntStream.range(0, names.length).toArray();
+            String resultId = store ? resultStore.save(output, names, columns) : null;
+            HttpHeaders headers = new HttpHeaders();
+            if (resultId != null) {
+                headers.set(ResultStore.RESULT_ID_HEADER, resultId);
+            }
+            
+            if (JsonResultWriter.isNdjson(accept)) {
+                StreamingResponseBody body = out -> JsonResultWriter.writeNdjson(
+                    objectMapper, output, names, columns, out);
+                return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.parseMediaType(JsonResultWriter.NDJSON_MEDIA_TYPE))
+                    .body(body);
+            }
+            
+            MediaType mediaType = dataFormats.negotiate(accept);
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("epsilon", request.getEpsilon());
+            fields.put("delta", request.getDelta());
+            fields.put("isDataIndependent", request.getIsDataIndependent());
+            if (resultId != null) {
+                fields.put("resultId", resultId);
+            }
+            if (!includeRows) {
+                fields.put("columns", names);
+                fields.put("totalRows", output.getNumRows());
+                return ResponseEntity.ok().headers(headers).body(fields);
+            }
+            StreamingResponseBody body = out -> JsonResultWriter.writeDocument(
+                dataFormats.mapperFor(mediaType), fields, "result", RowShape.ARRAY, output, names, columns, out);
+            return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(mediaType)
+                .body(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping(value = "/apply/arrow", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = ArrowResultWriter.MEDIA_TYPE)
+    @Operation(summary = "對 Arrow 檔案應用差分隱私",
+               description = "上傳 Arrow IPC 檔案，只讀取已分類的欄位，結果以 Arrow IPC stream 格式回傳")
+    public ResponseEntity<?> applyDifferentialPrivacyArrow(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam double epsilon,
+            @RequestParam double delta,
+            @RequestParam(defaultValue = "false") boolean isDataIndependent) {
+        try {
+            DataHandle output = differentialPrivacyService.anonymize(
+                arrowService.readArrowFile(file, DifferentialPrivacyService.CLASSIFIED_ATTRIBUTES::contains,
+                    DifferentialPrivacyService.IDENTIFYING_ATTRIBUTES::contains),
+                epsilon,
+                delta,
+                isDataIndependent
+            );
+            String[] names = attributeNames(output);
+            int[] columns = IntStream.range(0, names.length).toArray();
+            StreamingResponseBody body = out -> ArrowResultWriter.write(output, names, columns, out);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ArrowResultWriter.MEDIA_TYPE))
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String[] attributeNames(DataHandle handle) {
+        String[] names = new String[handle.getNumColumns()];
+        for (int j = 0; j < names.length; j++) {
+            names[j] = handle.getAttributeName(j);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,93 @@
+package com.anonymity.controller;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 匿名化結果的輸出選項，各端點以 @ParameterObject @ModelAttribute 綁定
+ * format、aggregate、target、targetTable、batchSize、store 來自查詢參數（multipart 請求也可放在表單欄位），
+ * Accept 標頭由 OutputOptionsAdvice 在綁定前填入，不接受同名的查詢參數
+ */
+public class OutputOptions {
+
+    @Parameter(description = ApiParameters.FORMAT)
+    private String format;
+
+    @Parameter(description = ApiParameters.AGGREGATE)
+    private boolean aggregate;
+
+    @Parameter(description = ApiParameters.TARGET)
+    private String target;
+
+    @Parameter(description = ApiParameters.TARGET_TABLE)
+    private String targetTable;
+
+    @Parameter(description = ApiParameters.BATCH_SIZE)
+    private Integer batchSize;
+
+    @Parameter(description = ApiParameters.STORE)
+    private boolean store;
+
+    @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.ACCEPT, description = ApiParameters.ACCEPT)
+    private String accept;
+
+    public OutputOptions() {
+    }
+
+    OutputOptions(String accept) {
+        this.accept = accept;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public boolean isAggregate() {
+        return aggregate;
+    }
+
+    public void setAggregate(boolean aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getTargetTable() {
+        return targetTable;
+    }
+
+    public void setTargetTable(String targetTable) {
+        this.targetTable = targetTable;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isStore() {
+        return store;
+    }
+
+    public void setStore(boolean store) {
+        this.store = store;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+}
@@ -0,0 +1,19 @@
+package com.anonymity.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * 先以 Accept 標頭建立 OutputOptions，端點的 @ModelAttribute 參數再綁定其餘的查詢參數
+ * 資料繫結只處理請求參數，標頭需在這裡另外放入
+ */
+@ControllerAdvice(assignableTypes = {AnonymityController.class, DataPrivacyController.class})
+class OutputOptionsAdvice {
+
+    @ModelAttribute("outputOptions")
+    OutputOptions outputOptions(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return new OutputOptions(accept);
+    }
+}
@@ -0,0 +1,69 @@
+package com.anonymity.controller;
+
+import com.anonymity.config.RequestBodyTooLargeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 請求以 @Valid @RequestBody 綁定失敗時的錯誤回應，格式與端點內的 {"error": "請求參數無效", "message": ...} 相同
+ * 綁定在進入端點之前發生，端點內的 try/catch 接不到這些例外
+ */
+@RestControllerAdvice(assignableTypes = {
+    AnonymityController.class, DataPrivacyController.class, DifferentialPrivacyController.class})
+public class RequestErrorAdvice {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestErrorAdvice.class);
+
+    /**
+     * 欄位驗證失敗，message 依序列出各欄位的錯誤訊息
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<?> handleInvalidArgument(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getFieldErrors().stream()
+            .map(FieldError::getDefaultMessage)
+            .collect(Collectors.joining("；"));
+        logger.error("請求參數無效: {}", message);
+        return badRequest(message);
+    }
+
+    /**
+     * 請求本體無法解析；解壓縮後超過上限時改回傳 413
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> handleNotReadable(HttpMessageNotReadableException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof RequestBodyTooLargeException tooLarge) {
+                return handleTooLarge(tooLarge);
+            }
+        }
+        logger.error("請求參數無效", e);
+        return badRequest(Objects.requireNonNullElse(e.getMostSpecificCause().getMessage(), "無法解析請求內容"));
+    }
+
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ResponseEntity<?> handleTooLarge(RequestBodyTooLargeException e) {
+        logger.error("請求內容過大", e);
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
+            "error", "請求內容過大",
+            "message", e.getMessage()
+        ));
+    }
+
+    private static ResponseEntity<?> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "請求參數無效",
+            "message", message
+        ));
+    }
+}
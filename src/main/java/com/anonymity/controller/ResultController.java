@@ -0,0 +1,96 @@
+package com.anonymity.controller;
+
+import com.anonymity.config.ResultProperties;
+import com.anonymity.service.ResultStore;
+import com.anonymity.service.StoredResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/results")
+@Tag(name = "匿名化結果", description = "分頁查詢保存在伺服器端的匿名化結果")
+public class ResultController {
+
+    private final ResultStore resultStore;
+    private final ResultProperties properties;
+
+    @Autowired
+    public ResultController(ResultStore resultStore, ResultProperties properties) {
+        this.resultStore = resultStore;
+        this.properties = properties;
+    }
+
+    @GetMapping("/{resultId}")
+    @Operation(summary = "查詢結果資訊", description = "回傳欄位名稱與總筆數")
+    public ResponseEntity<?> getResult(@PathVariable String resultId) {
+        try {
+            StoredResult result = resultStore.get(resultId);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("resultId", result.getId());
+            response.put("columns", result.getColumnNames());
+            response.put("totalRows", result.getNumRows());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{resultId}/rows")
+    @Operation(summary = "分頁查詢結果",
+               description = "回傳排序後第 offset 列起最多 limit 列，對應 AG Grid infinite row model 的 startRow、endRow 與 sortModel")
+    public ResponseEntity<?> getRows(
+            @PathVariable String resultId,
+            @Parameter(description = "起始列（從 0 開始）")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "列數，上限為 anonymity.results.max-page-size")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "排序欄位名稱，未提供時依原本順序")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "asc 或 desc，未指定 sort 時忽略")
+            @RequestParam(defaultValue = "asc") String order) {
+        try {
+            if (offset < 0) {
+                throw new IllegalArgumentException("offset 不可小於 0");
+            }
+            if (limit <= 0 || limit > properties.getMaxPageSize()) {
+                throw new IllegalArgumentException("limit 必須介於 1 與 " + properties.getMaxPageSize() + " 之間");
+            }
+            if (!"asc".equalsIgnoreCase(order) && !"desc".equalsIgnoreCase(order)) {
+                throw new IllegalArgumentException("order 只能為 asc 或 desc");
+            }
+            StoredResult result = resultStore.get(resultId);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("resultId", result.getId());
+            response.put("totalRows", result.getNumRows());
+            response.put("offset", offset);
+            response.put("rows", result.getRows(offset, limit,
+                sort == null || sort.isEmpty() ? null : sort, "desc".equalsIgnoreCase(order)));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{resultId}")
+    @Operation(summary = "刪除結果", description = "釋放保存的匿名化結果")
+    public ResponseEntity<?> deleteResult(@PathVariable String resultId) {
+        try {
+            resultStore.remove(resultId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.anonymity.controller;
+
+import com.anonymity.config.DataFormats;
+import com.anonymity.controller.dto.AnonymizationParameters;
+import com.anonymity.output.EquivalenceClassWriter;
+import com.anonymity.output.EquivalenceClassWriter.EquivalenceClass;
+import com.anonymity.output.JsonResultWriter;
+import com.anonymity.output.JsonResultWriter.RowShape;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.service.JdbcService;
+import com.anonymity.service.ResultStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AnonymityController 與 DataPrivacyController 共用的結果輸出
+ * 依 OutputOptions 寫入目標資料庫，或以 JSON、CBOR、Smile、NDJSON 回傳
+ */
+@Component
+class ResultResponder {
+
+    @Autowired
+    private JdbcService jdbcService;
+
+    @Autowired
+    private ResultStore resultStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataFormats dataFormats;
+
+    /**
+     * 在匿名化之前檢查輸出選項，format 與 Accept 不相容或寫入目標不合法時拋出 IllegalArgumentException
+     */
+    void validate(OutputOptions options) {
+        RowShape.forFormat(options.getFormat(), options.getAccept());
+        if (options.getTarget() != null) {
+            jdbcService.validateTarget(options.getTarget(), options.getTargetTable(), options.getBatchSize());
+        }
+    }
+
+    /**
+     * 輸出匿名化結果，資料列在回應寫出時才從 ARX 的輸出資料逐列取值
+     * 指定 target 時以批次 INSERT 寫入資料庫，回應只含寫入筆數與統計資訊
+     * Accept 為 NDJSON 時每列一行，統計資訊放在回應標頭；否則輸出 JSON 文件，data 陣列放在最後，
+     * 非 OBJECT 形式時欄位名稱只寫在 columns 中
+     * aggregate 時改為每個等價類一筆，以 classes 取代 data
+     * store 時結果另外保存在 ResultStore，編號放在 resultId 欄位與回應標頭
+     */
+    ResponseEntity<?> respond(AnonymizationResult result, AnonymizationParameters parameters,
+                              OutputOptions options) throws SQLException {
+        if (options.getTarget() != null) {
+            return writeToTarget(result, parameters, options);
+        }
+        RowShape shape = RowShape.forFormat(options.getFormat(), options.getAccept());
+        boolean aggregate = options.isAggregate();
+        List<EquivalenceClass> classes = aggregate ? result.groupEquivalenceClasses() : null;
+        String resultId = options.isStore() ? resultStore.save(result) : null;
+
+        if (JsonResultWriter.isNdjson(options.getAccept())) {
+            StreamingResponseBody body = aggregate
+                ? out -> EquivalenceClassWriter.writeNdjson(
+                    objectMapper, classes, result.getQuasiIdentifiers(), result.getSensitiveAttributes(), out)
+                : out -> JsonResultWriter.writeNdjson(
+                    objectMapper, result.getOutput(), result.getHeader(), result.getColumns(), out);
+            return withResultId(okWithStatistics(result), resultId)
+                .contentType(MediaType.parseMediaType(JsonResultWriter.NDJSON_MEDIA_TYPE))
+                .body(body);
+        }
+
+        // JSON、CBOR 或 Smile
+        MediaType mediaType = dataFormats.negotiate(options.getAccept());
+        ObjectMapper mapper = dataFormats.mapperFor(mediaType);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "匿名化處理成功");
+        if (resultId != null) {
+            response.put("resultId", resultId);  // 供 /api/results 分頁查詢
+        }
+        response.put("statistics", result.getStatistics());
+        response.put("parameters", parameters);
+
+        StreamingResponseBody body;
+        if (aggregate) {
+            response.put("equivalenceClasses", classes.size());
+            body = out -> EquivalenceClassWriter.writeDocument(
+                mapper, response, classes, result.getQuasiIdentifiers(), result.getSensitiveAttributes(), out);
+        } else {
+            if (shape != RowShape.OBJECT) {
+                response.put("columns", result.getHeader());
+            }
+            body = out -> JsonResultWriter.writeDocument(
+                mapper, response, "data", shape,
+                result.getOutput(), result.getHeader(), result.getColumns(), out);
+        }
+        return withResultId(ResponseEntity.ok(), resultId)
+            .contentType(mediaType)
+            .body(body);
+    }
+
+    private ResponseEntity<?> writeToTarget(AnonymizationResult result, AnonymizationParameters parameters,
+                                            OutputOptions options) throws SQLException {
+        int rows = jdbcService.writeTable(options.getTarget(), options.getTargetTable(), result, options.getBatchSize());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "匿名化結果已寫入資料庫");
+        response.put("target", options.getTarget());
+        response.put("targetTable", options.getTargetTable());
+        response.put("rowsWritten", rows);
+        response.put("statistics", result.getStatistics());
+        response.put("parameters", parameters);
+
+        return okWithStatistics(result).body(response);
+    }
+
+    /**
+     * 統計資訊放在回應標頭，供本體不是 JSON 的回應（NDJSON、Arrow、xlsx）使用
+     */
+    static ResponseEntity.BodyBuilder okWithStatistics(AnonymizationResult result) {
+        return ResponseEntity.ok()
+            .header("X-Anonymity-Rows", String.valueOf(result.getNumRows()))
+            .header("X-Anonymity-Information-Loss", String.valueOf(result.getStatistics().get("informationLoss")));
+    }
+
+    private static ResponseEntity.BodyBuilder withResultId(ResponseEntity.BodyBuilder builder, String resultId) {
+        return resultId != null ? builder.header(ResultStore.RESULT_ID_HEADER, resultId) : builder;
+    }
+}
@@ -0,0 +1,37 @@
+package com.anonymity.controller.dto;
+
+import java.util.List;
+
+/**
+ * 回應中的 parameters 欄位：實際使用的匿名化參數
+ */
+public class AnonymizationParameters {
+
+    private final int k;
+    private final double l;
+    private final List<String> quasiIdentifiers;
+    private final List<String> sensitiveAttributes;
+
+    public AnonymizationParameters(int k, double l, List<String> quasiIdentifiers, List<String> sensitiveAttributes) {
+        this.k = k;
+        this.l = l;
+        this.quasiIdentifiers = quasiIdentifiers;
+        this.sensitiveAttributes = sensitiveAttributes;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public double getL() {
+        return l;
+    }
+
+    public List<String> getQuasiIdentifiers() {
+        return quasiIdentifiers;
+    }
+
+    public List<String> getSensitiveAttributes() {
+        return sensitiveAttributes;
+    }
+}
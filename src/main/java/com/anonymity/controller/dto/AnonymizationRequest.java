@@ -0,0 +1,123 @@
+package com.anonymity.controller.dto;
+
+import com.anonymity.ingest.ValueInterner;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 匿名化請求
+ * 以具體型別反序列化，資料列直接建立為字串 Map，參數不需要再從 Map<String, Object> 轉型
+ * 資料值在解析時依欄位正規化，重複的值共用同一個 String
+ */
+@Schema(description = "匿名化請求")
+public class AnonymizationRequest {
+
+    @Schema(description = "資料列，每列為欄位名稱對應值")
+    @JsonDeserialize(using = DataDeserializer.class)
+    @NotEmpty(message = "缺少必要參數：data")
+    private List<Map<String, String>> data;
+
+    @Schema(description = "k值 (k-Anonymity)", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "缺少必要參數：k")
+    private Integer k;
+
+    @Schema(description = "l值 (l-Diversity)", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "缺少必要參數：l")
+    private Double l;
+
+    @Schema(description = "準識別符")
+    private List<String> quasiIdentifiers;
+
+    @Schema(description = "敏感屬性")
+    private List<String> sensitiveAttributes;
+
+    public List<Map<String, String>> getData() {
+        return data;
+    }
+
+    public void setData(List<Map<String, String>> data) {
+        this.data = data;
+    }
+
+    public Integer getK() {
+        return k;
+    }
+
+    public void setK(Integer k) {
+        this.k = k;
+    }
+
+    public Double getL() {
+        return l;
+    }
+
+    public void setL(Double l) {
+        this.l = l;
+    }
+
+    public List<String> getQuasiIdentifiers() {
+        return quasiIdentifiers;
+    }
+
+    public void setQuasiIdentifiers(List<String> quasiIdentifiers) {
+        this.quasiIdentifiers = quasiIdentifiers;
+    }
+
+    public List<String> getSensitiveAttributes() {
+        return sensitiveAttributes;
+    }
+
+    public void setSensitiveAttributes(List<String> sensitiveAttributes) {
+        this.sensitiveAttributes = sensitiveAttributes;
+    }
+
+    /**
+     * 逐 token 讀取資料列，字串值以 ValueInterner 正規化
+     */
+    public static class DataDeserializer extends JsonDeserializer<List<Map<String, String>>> {
+
+        @Override
+        public List<Map<String, String>> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("data 必須是 JSON 陣列");
+            }
+            ValueInterner interner = new ValueInterner();
+            Map<String, Integer> columnIndex = new HashMap<>();
+            List<Map<String, String>> rows = new ArrayList<>();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("data 的每一筆資料必須是 JSON 物件");
+                }
+                Map<String, String> row = new LinkedHashMap<>();
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = p.getCurrentName();
+                    JsonToken value = p.nextToken();
+                    if (value == JsonToken.VALUE_NULL) {
+                        row.put(name, null);
+                    } else if (value.isScalarValue()) {
+                        int column = columnIndex.computeIfAbsent(name, key -> columnIndex.size());
+                        row.put(name, interner.intern(column, p));
+                    } else {
+                        throw new IllegalArgumentException("欄位 '" + name + "' 的值必須是純量");
+                    }
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.anonymity.controller.dto;
+
+import com.anonymity.ingest.JsonRowReader;
+import com.anonymity.ingest.ValueInterner;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.deidentifier.arx.DataType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 差分隱私請求的資料內容
+ * 支援以下格式：
+ * 1. 舊格式：JSON 字串，例如 "[{\"年齡\":\"25\"}]"
+ * 2. 資料列：[{"年齡": "25", "性別": "男"}, ...]
+ * 3. 標題加資料列：[["年齡", "性別"], ["25", "男"], ...]
+ * 4. 欄位式：{"年齡": ["25", "30"], "性別": ["男", "女"]}
+ * 結構化格式在反序列化時直接轉為 String[]，交給 ARX 時不再複製
+ */
+@JsonDeserialize(using = DatasetPayload.Deserializer.class)
+@JsonSerialize(using = DatasetPayload.Serializer.class)
+@Schema(description = "資料內容：資料列陣列、標題加資料列、欄位式物件，或相容舊版的 JSON 字串")
+public class DatasetPayload {
+
+    private final String json;
+    private final String[] header;
+    private final List<String[]> rows;
+
+    private DatasetPayload(String json, String[] header, List<String[]> rows) {
+        this.json = json;
+        this.header = header;
+        this.rows = rows;
+    }
+
+    /**
+     * 舊格式：資料為 JSON 字串，由服務端串流解析
+     */
+    public static DatasetPayload of(String json) {
+        return new DatasetPayload(json, null, null);
+    }
+
+    public static DatasetPayload of(String[] header, List<String[]> rows) {
+        return new DatasetPayload(null, header, rows);
+    }
+
+    public boolean isJson() {
+        return json != null;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    public String[] getHeader() {
+        return header;
+    }
+
+    public List<String[]> getRows() {
+        return rows;
+    }
+
+    public static class Deserializer extends JsonDeserializer<DatasetPayload> {
+
+        @Override
+        public DatasetPayload deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return DatasetPayload.of(p.getText());
+            }
+            if (token == JsonToken.START_ARRAY) {
+                JsonRowReader reader = new JsonRowReader(p);
+                List<String[]> rows = new ArrayList<>();
+                while (reader.hasNext()) {
+                    rows.add(reader.next());
+                }
+                return DatasetPayload.of(reader.getHeader(), rows);
+            }
+            if (token == JsonToken.START_OBJECT) {
+                return readColumns(p);
+            }
+            throw new IllegalArgumentException("data 必須是 JSON 陣列、物件或字串");
+        }
+
+        private DatasetPayload readColumns(JsonParser p) throws IOException {
+            List<String> names = new ArrayList<>();
+            List<List<String>> columns = new ArrayList<>();
+            ValueInterner interner = new ValueInterner();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.getCurrentName();
+                if (p.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("欄位 '" + name + "' 必須是陣列");
+                }
+                List<String> values = new ArrayList<>();
+                int column = columns.size();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    values.add(p.currentToken() == JsonToken.VALUE_NULL ? DataType.NULL_VALUE : interner.intern(column, p));
+                }
+                if (!columns.isEmpty() && values.size() != columns.get(0).size()) {
+                    throw new IllegalArgumentException("欄位 '" + name + "' 的筆數與其他欄位不一致");
+                }
+                names.add(name);
+                columns.add(values);
+            }
+
+            // 轉成資料列，字串本身沿用
+            int size = columns.isEmpty() ? 0 : columns.get(0).size();
+            List<String[]> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String[] row = new String[columns.size()];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = columns.get(j).get(i);
+                }
+                rows.add(row);
+            }
+            return DatasetPayload.of(names.toArray(new String[0]), rows);
+        }
+    }
+
+    public static class Serializer extends JsonSerializer<DatasetPayload> {
+
+        @Override
+        public void serialize(DatasetPayload value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            if (value.isJson()) {
+                gen.writeString(value.getJson());
+                return;
+            }
+            gen.writeStartArray();
+            gen.writeArray(value.getHeader(), 0, value.getHeader().length);
+            for (String[] row : value.getRows()) {
+                gen.writeArray(row, 0, row.length);
+            }
+            gen.writeEndArray();
+        }
+    }
+}
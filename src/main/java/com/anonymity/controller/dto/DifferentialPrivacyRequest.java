@@ -13,7 +13,7 @@ public class DifferentialPrivacyRequest {
     private Double delta;
     
     @NotNull(message = "數據不能為空")
-    private String data;
+    private DatasetPayload data;
     
     private Boolean isDataIndependent = false; // 預設使用資料相依差分隱私
 
@@ -33,11 +33,11 @@ public class DifferentialPrivacyRequest {
         this.delta = delta;
     }
 
-    public String getData() {
+    public DatasetPayload getData() {
         return data;
     }
 
-    public void setData(String data) {
+    public void setData(DatasetPayload data) {
         this.data = data;
     }
 
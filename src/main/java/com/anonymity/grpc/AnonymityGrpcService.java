@@ -0,0 +1,284 @@
+package com.anonymity.grpc;
+
+import com.anonymity.config.GrpcProperties;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.service.DifferentialPrivacyService;
+import com.anonymity.store.ColumnarTable;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * 以 gRPC 雙向串流提供匿名化與差分隱私
+ * 用戶端逐批上傳資料列，上傳結束後進行匿名化，結果再逐批回傳
+ *
+ * 流量控制：
+ * - 上傳：關閉自動要求，每處理完一個批次才向用戶端要求下一個，尚未讀取的批次由 HTTP/2 流量控制擋在用戶端，
+ *   用戶端應以 isReady 判斷是否繼續送出；上傳的資料列立即編碼成欄式資料表，以 anonymity.grpc.max-rows 為上限，
+ *   存放位置由 anonymity.grpc.storage 決定
+ * - 回傳：只在 isReady 時寫出，傳送緩衝區滿時等 onReady 再繼續，不會把整份結果堆在記憶體中等待送出
+ *
+ * 訊息與服務定義在 src/main/proto/anonymity.proto，建置時由 protobuf-maven-plugin 產生
+ */
+@Service
+public class AnonymityGrpcService extends AnonymityGrpc.AnonymityImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnonymityGrpcService.class);
+
+    private final AnonymityService anonymityService;
+    private final DifferentialPrivacyService differentialPrivacyService;
+    private final GrpcProperties properties;
+
+    @Autowired
+    public AnonymityGrpcService(AnonymityService anonymityService,
+                                DifferentialPrivacyService differentialPrivacyService,
+                                GrpcProperties properties) {
+        this.anonymityService = anonymityService;
+        this.differentialPrivacyService = differentialPrivacyService;
+        this.properties = properties;
+    }
+
+    @Override
+    public StreamObserver<RowBatch> anonymize(StreamObserver<RowBatch> responses) {
+        return new BatchStream(responses, this::anonymizeData, name -> false);
+    }
+
+    @Override
+    public StreamObserver<RowBatch> applyDifferentialPrivacy(StreamObserver<RowBatch> responses) {
+        return new BatchStream(responses, this::applyDifferentialPrivacyData,
+            DifferentialPrivacyService.IDENTIFYING_ATTRIBUTES::contains);
+    }
+
+    private Output anonymizeData(Data data, Parameters parameters) throws Exception {
+        if (!parameters.hasK() || !parameters.hasL()) {
+            throw new IllegalArgumentException("缺少必要參數：k 或 l");
+        }
+        AnonymizationResult result = anonymityService.anonymize(data,
+            names(parameters.getQuasiIdentifiersList(), "quasiIdentifiers"),
+            names(parameters.getSensitiveAttributesList(), "sensitiveAttributes"),
+            parameters.getK(), parameters.getL());
+        return new Output(result.getOutput(), result.getHeader(), result.getColumns(), result.getStatistics());
+    }
+
+    private Output applyDifferentialPrivacyData(Data data, Parameters parameters) throws Exception {
+        if (!parameters.hasEpsilon() || !parameters.hasDelta()) {
+            throw new IllegalArgumentException("缺少必要參數：epsilon 或 delta");
+        }
+        double epsilon = parameters.getEpsilon();
+        double delta = parameters.getDelta();
+        if (epsilon <= 0 || delta <= 0) {
+            throw new IllegalArgumentException("隱私預算與 delta 值必須大於0");
+        }
+        boolean isDataIndependent = parameters.getIsDataIndependent();
+        DataHandle output = differentialPrivacyService.anonymize(data, epsilon, delta, isDataIndependent);
+
+        String[] names = new String[output.getNumColumns()];
+        for (int j = 0; j < names.length; j++) {
+            names[j] = output.getAttributeName(j);
+        }
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("epsilon", epsilon);
+        statistics.put("delta", delta);
+        statistics.put("isDataIndependent", isDataIndependent);
+        statistics.put("rows", output.getNumRows());
+        return new Output(output, names, IntStream.range(0, names.length).toArray(), statistics);
+    }
+
+    private static List<String> names(List<String> values, String name) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("缺少必要參數：" + name);
+        }
+        return values;
+    }
+
+    /**
+     * 統計資訊只有數值、布林與字串，轉成 google.protobuf.Struct 保留型別
+     */
+    private static Struct toStruct(Map<String, Object> statistics) {
+        Struct.Builder struct = Struct.newBuilder();
+        statistics.forEach((name, value) -> {
+            Value.Builder field = Value.newBuilder();
+            if (value instanceof Number) {
+                field.setNumberValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                field.setBoolValue((Boolean) value);
+            } else {
+                field.setStringValue(String.valueOf(value));
+            }
+            struct.putFields(name, field.build());
+        });
+        return struct.build();
+    }
+
+    @FunctionalInterface
+    private interface Processor {
+        Output process(Data data, Parameters parameters) throws Exception;
+    }
+
+    private static final class Output {
+        private final DataHandle handle;
+        private final String[] names;
+        private final int[] columns;
+        private final Map<String, Object> statistics;
+
+        Output(DataHandle handle, String[] names, int[] columns, Map<String, Object> statistics) {
+            this.handle = handle;
+            this.names = names;
+            this.columns = columns;
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * 單次呼叫的狀態
+     * gRPC 依序呼叫同一個呼叫的 onNext、onCompleted、onReady 與取消處理，欄位不需要同步
+     */
+    private final class BatchStream implements StreamObserver<RowBatch> {
+
+        private final ServerCallStreamObserver<RowBatch> responses;
+        private final Processor processor;
+        private final Predicate<String> suppressed;
+        private String[] header;
+        private int[] suppressedColumns;
+        private ColumnarTable.Builder table;
+        private Parameters parameters;
+        private Output output;
+        private int next;
+        private boolean done;
+
+        /**
+         * @param suppressed 存入前就換成 * 的欄位（差分隱私的識別欄位）
+         */
+        BatchStream(StreamObserver<RowBatch> responses, Processor processor, Predicate<String> suppressed) {
+            this.responses = (ServerCallStreamObserver<RowBatch>) responses;
+            this.processor = processor;
+            this.suppressed = suppressed;
+            this.responses.disableAutoRequest();
+            this.responses.setOnReadyHandler(this::drain);
+            this.responses.setOnCancelHandler(this::release);
+            this.responses.request(1);
+        }
+
+        @Override
+        public void onNext(RowBatch batch) {
+            if (done) {
+                return;
+            }
+            try {
+                if (header == null) {
+                    if (batch.getColumnsCount() == 0) {
+                        throw new IllegalArgumentException("第一個批次必須包含 columns");
+                    }
+                    header = batch.getColumnsList().toArray(new String[0]);
+                    suppressedColumns = RowIterators.columnsOf(header, suppressed);
+                    parameters = batch.getParameters();
+                    table = ColumnarTable.builder(header, AnonymityService.COLUMN_KINDS, properties.getStorage());
+                }
+                if ((long) table.getNumRows() + batch.getRowsCount() > properties.getMaxRows()) {
+                    fail(Status.RESOURCE_EXHAUSTED.withDescription("資料列超過上限：" + properties.getMaxRows()));
+                    return;
+                }
+                for (Row row : batch.getRowsList()) {
+                    if (row.getValuesCount() != header.length) {
+                        throw new IllegalArgumentException("資料列的欄位數與 columns 不一致");
+                    }
+                    table.add(RowIterators.suppress(row.getValuesList().toArray(new String[0]), suppressedColumns));
+                }
+                responses.request(1);
+            } catch (IllegalArgumentException e) {
+                fail(Status.INVALID_ARGUMENT.withDescription(e.getMessage()));
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.info("gRPC 用戶端中止上傳: {}", Status.fromThrowable(t));
+            release();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (done) {
+                return;
+            }
+            try {
+                if (header == null) {
+                    throw new IllegalArgumentException("缺少必要參數：columns");
+                }
+                logger.info("gRPC 上傳完成: {} 筆", table.getNumRows());
+                output = processor.process(Data.create(table.build().rowsWithHeader()), parameters);
+                drain();
+            } catch (IllegalArgumentException e) {
+                fail(Status.INVALID_ARGUMENT.withDescription(e.getMessage()));
+            } catch (Exception e) {
+                logger.error("gRPC 匿名化處理失敗", e);
+                fail(Status.INTERNAL.withDescription("匿名化處理失敗：" + e.getMessage()));
+            }
+        }
+
+        /**
+         * 在傳送緩衝區未滿時逐批寫出結果，其餘的等下一次 onReady
+         */
+        private void drain() {
+            if (output == null || done) {
+                return;
+            }
+            int rows = output.handle.getNumRows();
+            int batchRows = properties.getBatchRows();
+            while (next < rows && responses.isReady()) {
+                int end = (int) Math.min(rows, (long) next + batchRows);
+                RowBatch.Builder batch = RowBatch.newBuilder();
+                if (next == 0) {
+                    batch.addAllColumns(Arrays.asList(output.names));
+                }
+                for (int i = next; i < end; i++) {
+                    Row.Builder row = Row.newBuilder();
+                    for (int column : output.columns) {
+                        row.addValues(output.handle.getValue(i, column));
+                    }
+                    batch.addRows(row);
+                }
+                responses.onNext(batch.build());
+                next = end;
+            }
+            if (next >= rows) {
+                RowBatch.Builder last = RowBatch.newBuilder();
+                if (rows == 0) {
+                    last.addAllColumns(Arrays.asList(output.names));
+                }
+                last.setStatistics(toStruct(output.statistics));
+                responses.onNext(last.build());
+                responses.onCompleted();
+                release();
+            }
+        }
+
+        private void fail(Status status) {
+            responses.onError(status.asRuntimeException());
+            release();
+        }
+
+        private void release() {
+            done = true;
+            table = null;
+            output = null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.anonymity.grpc;
+
+import com.anonymity.config.GrpcProperties;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 與 Spring 的 HTTP 服務並行的 gRPC 服務，anonymity.grpc.enabled=true 時啟動
+ */
+@Component
+public class GrpcServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final GrpcProperties properties;
+    private final AnonymityGrpcService service;
+
+    private Server server;
+
+    @Autowired
+    public GrpcServer(GrpcProperties properties, AnonymityGrpcService service) {
+        this.properties = properties;
+        this.service = service;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        server = Grpc.newServerBuilderForPort(properties.getPort(), InsecureServerCredentials.create())
+            .addService(service)
+            .maxInboundMessageSize(properties.getMaxInboundMessageSize())
+            .build()
+            .start();
+        logger.info("gRPC 服務已啟動，port: {}", server.getPort());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        if (!server.awaitTermination(10, TimeUnit.SECONDS)) {
+            server.shutdownNow();
+        }
+    }
+}
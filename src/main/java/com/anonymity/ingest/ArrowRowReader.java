@@ -0,0 +1,174 @@
+package com.anonymity.ingest;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.deidentifier.arx.DataType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * 逐列讀取 Arrow IPC 檔案（file 或 stream 格式）
+ * 只有通過投影條件的欄位會被轉成字串，其餘欄位的 buffer 雖然會載入但不會逐格解碼
+ * 日期欄位轉成 yyyy/MM/dd，整數值的浮點數轉成整數字串，null 視為缺值
+ * 隱藏的欄位保留在標題中，但不解碼，每格一律為 RowIterators.SUPPRESSED
+ */
+public class ArrowRowReader implements Iterator<String[]>, AutoCloseable {
+
+    private static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private final BufferAllocator allocator;
+    private final FileChannel channel;
+    private final ArrowReader reader;
+    private final VectorSchemaRoot root;
+    private final FieldVector[] vectors;
+    private final boolean[] suppressed;
+    private final String[] header;
+
+    private int batchRow;
+    private int batchSize;
+
+    public ArrowRowReader(Path file, Predicate<String> projection) throws IOException {
+        this(file, projection, name -> false);
+    }
+
+    /**
+     * @param projection 讀取的欄位
+     * @param suppressed 讀取的欄位中不解碼、一律輸出 RowIterators.SUPPRESSED 的欄位
+     */
+    public ArrowRowReader(Path file, Predicate<String> projection, Predicate<String> suppressed) throws IOException {
+        this.allocator = new RootAllocator();
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.reader = isFileFormat(channel)
+                ? new ArrowFileReader(channel, allocator)
+                : new ArrowStreamReader(channel, allocator);
+            this.root = reader.getVectorSchemaRoot();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        List<FieldVector> selected = new ArrayList<>();
+        for (FieldVector vector : root.getFieldVectors()) {
+            if (projection.test(vector.getName())) {
+                selected.add(vector);
+            }
+        }
+        if (selected.isEmpty()) {
+            close();
+            throw new IllegalArgumentException("Arrow 檔案中沒有可用的欄位");
+        }
+        this.vectors = selected.toArray(new FieldVector[0]);
+        this.header = new String[vectors.length];
+        this.suppressed = new boolean[vectors.length];
+        for (int j = 0; j < vectors.length; j++) {
+            header[j] = vectors[j].getName();
+            this.suppressed[j] = suppressed.test(header[j]);
+        }
+    }
+
+    /**
+     * 投影後的欄位名稱
+     */
+    public String[] getHeader() {
+        return header;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (batchRow >= batchSize) {
+                if (!reader.loadNextBatch()) {
+                    return false;
+                }
+                batchRow = 0;
+                batchSize = root.getRowCount();
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = new String[vectors.length];
+        for (int j = 0; j < vectors.length; j++) {
+            row[j] = suppressed[j] ? RowIterators.SUPPRESSED : toText(vectors[j], batchRow);
+        }
+        batchRow++;
+        return row;
+    }
+
+    private static String toText(FieldVector vector, int index) {
+        if (vector.isNull(index)) {
+            return DataType.NULL_VALUE;
+        }
+        if (vector instanceof VarCharVector) {
+            return new String(((VarCharVector) vector).get(index), StandardCharsets.UTF_8);
+        }
+        if (vector instanceof DateDayVector) {
+            return LocalDate.ofEpochDay(((DateDayVector) vector).get(index)).format(DATE_FORMAT);
+        }
+        if (vector instanceof DateMilliVector) {
+            return ((DateMilliVector) vector).getObject(index).toLocalDate().format(DATE_FORMAT);
+        }
+        Object value = vector.getObject(index);
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (number == Math.rint(number) && !Double.isInfinite(number)) {
+                return Long.toString((long) number);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * 以開頭的 magic bytes 判斷是否為 Arrow file 格式，判斷後將位置移回檔案開頭
+     */
+    private static boolean isFileFormat(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(FILE_MAGIC.length);
+        while (magic.hasRemaining() && channel.read(magic) >= 0) {
+            // 讀滿 magic 長度或到檔案結尾
+        }
+        channel.position(0);
+        return !magic.hasRemaining() && ByteBuffer.wrap(FILE_MAGIC).equals(magic.flip());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } finally {
+            channel.close();
+            allocator.close();
+        }
+    }
+}
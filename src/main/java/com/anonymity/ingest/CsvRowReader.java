@@ -0,0 +1,244 @@
+package com.anonymity.ingest;
+
+import org.deidentifier.arx.DataType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 以記憶體映射（FileChannel.map）逐列讀取 UTF-8 CSV 檔案
+ * 直接在映射的位元組上切分欄位，只有欄位內容會解碼成 String，
+ * 不會產生整行字串或經過 Reader 的字元緩衝
+ * 支援 RFC 4180 的雙引號欄位、CRLF 換行與 UTF-8 BOM；第一列為標題，空欄位視為缺值
+ * 資料列的值以 ValueInterner 依欄位正規化，重複的值共用同一個 String
+ */
+public class CsvRowReader implements Iterator<String[]>, AutoCloseable {
+
+    /** 每次映射的視窗大小 */
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    /** 單一資料列的最大長度，視窗剩餘空間不足時重新映射 */
+    private static final int MAX_ROW_BYTES = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final byte delimiter;
+    private final String[] header;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] scratch = new byte[256];
+    private final List<String> fields = new ArrayList<>();
+    private final ValueInterner interner = new ValueInterner();
+    private String[] nextRow;
+    private int rowNumber;
+
+    public CsvRowReader(Path file) throws IOException {
+        this(file, ',');
+    }
+
+    public CsvRowReader(Path file, char delimiter) throws IOException {
+        // 欄位直接在位元組上切分，只支援單一位元組的 ASCII 分隔符號
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("分隔符號必須是 ASCII 字元：" + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+
+            // 略過 UTF-8 BOM
+            mapWindow(0);
+            if (fileSize >= 3 && (window.get(0) & 0xFF) == 0xEF && (window.get(1) & 0xFF) == 0xBB && (window.get(2) & 0xFF) == 0xBF) {
+                position = 3;
+            }
+
+            String[] first = readRow();
+            if (first == null) {
+                throw new IllegalArgumentException("CSV 檔案沒有標題列");
+            }
+            this.header = first;
+            this.nextRow = readRow();
+        } catch (IOException | RuntimeException e) {
+            // 讀取標題或第一列失敗時關閉檔案，呼叫端拿不到讀取器也就無法關閉
+            try {
+                channel.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    public String[] getHeader() {
+        return header;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        String[] current = nextRow;
+        try {
+            nextRow = readRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    /**
+     * 讀取下一列，檔案結束時回傳 null
+     */
+    private String[] readRow() throws IOException {
+        // 略過空白行
+        while (position < fileSize) {
+            ensureWindow();
+            byte b = window.get((int) (position - windowStart));
+            if (b == '\r' || b == '\n') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (position >= fileSize) {
+            return null;
+        }
+
+        ensureWindow();
+        rowNumber++;
+        fields.clear();
+        int p = (int) (position - windowStart);
+        int end = window.limit();
+
+        while (true) {
+            if (p < end && window.get(p) == '"') {
+                p = readQuoted(p + 1, end);
+            } else {
+                int start = p;
+                while (p < end) {
+                    byte b = window.get(p);
+                    if (b == delimiter || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    p++;
+                }
+                fields.add(decode(start, p - start));
+            }
+
+            if (p >= end) {
+                break;
+            }
+            byte b = window.get(p);
+            if (b == delimiter) {
+                p++;
+                continue;
+            }
+            if (b == '\r') {
+                p++;
+                if (p < end && window.get(p) == '\n') {
+                    p++;
+                }
+            } else if (b == '\n') {
+                p++;
+            } else {
+                throw new IllegalArgumentException("第 " + rowNumber + " 列的引號欄位格式錯誤");
+            }
+            break;
+        }
+
+        if (p >= end && windowStart + end < fileSize) {
+            throw new IllegalArgumentException("第 " + rowNumber + " 列超過 " + MAX_ROW_BYTES + " bytes");
+        }
+        position = windowStart + p;
+
+        String[] row = fields.toArray(new String[0]);
+        if (header != null && row.length != header.length) {
+            throw new IllegalArgumentException("第 " + rowNumber + " 列的欄位數 " + row.length + " 與標題欄位數 " + header.length + " 不一致");
+        }
+        return row;
+    }
+
+    /**
+     * 讀取雙引號欄位，回傳結束引號之後的位置
+     */
+    private int readQuoted(int p, int end) {
+        int length = 0;
+        while (p < end) {
+            byte b = window.get(p++);
+            if (b == '"') {
+                if (p < end && window.get(p) == '"') {
+                    p++;
+                } else {
+                    fields.add(length == 0 ? DataType.NULL_VALUE : text(length));
+                    return p;
+                }
+            }
+            if (length == scratch.length) {
+                scratch = Arrays.copyOf(scratch, length * 2);
+            }
+            scratch[length++] = b;
+        }
+        throw new IllegalArgumentException("第 " + rowNumber + " 列的引號欄位沒有結束");
+    }
+
+    private String decode(int offset, int length) {
+        if (length == 0) {
+            return DataType.NULL_VALUE;
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        window.get(offset, scratch, 0, length);
+        return text(length);
+    }
+
+    /**
+     * 將 scratch 的內容解碼為欄位值，標題列不正規化
+     */
+    private String text(int length) {
+        String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return header != null ? interner.intern(fields.size(), value) : value;
+    }
+
+    /**
+     * 確保目前位置之後至少有一整列的空間，否則從目前位置重新映射
+     */
+    private void ensureWindow() throws IOException {
+        long windowEnd = windowStart + window.limit();
+        if (position < windowStart || (windowEnd - position < MAX_ROW_BYTES && windowEnd < fileSize)) {
+            mapWindow(position);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,162 @@
+package com.anonymity.ingest;
+
+import org.deidentifier.arx.DataType;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 以 forward-only、唯讀的游標逐列讀取查詢結果
+ * fetch size 決定每次向資料庫取回的列數，整個結果集不會一次載入記憶體
+ * 讀取期間關閉 auto-commit（PostgreSQL 等驅動只有在交易中才會依 fetch size 分批取回），關閉時還原
+ * 日期轉成 yyyy/MM/dd，整數值的小數轉成整數字串，null 視為缺值，重複的值以 ValueInterner 正規化
+ */
+public class JdbcRowReader implements Iterator<String[]>, AutoCloseable {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private final Connection connection;
+    private final boolean autoCommit;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final String[] header;
+    private final ValueInterner interner = new ValueInterner();
+
+    private String[] nextRow;
+
+    public JdbcRowReader(Connection connection, String sql, int fetchSize) throws SQLException {
+        this.connection = connection;
+        this.autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+            this.statement = statement;
+            this.resultSet = resultSet;
+
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            this.header = new String[metaData.getColumnCount()];
+            for (int j = 0; j < header.length; j++) {
+                header[j] = metaData.getColumnLabel(j + 1);
+            }
+            this.nextRow = readRow();
+        } catch (SQLException | RuntimeException e) {
+            // 讀取標題或第一列失敗時，關閉已開啟的游標並還原 auto-commit
+            release(resultSet, statement, e);
+            throw e;
+        }
+    }
+
+    private void release(ResultSet resultSet, PreparedStatement statement, Exception cause) {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        } finally {
+            try {
+                connection.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    public String[] getHeader() {
+        return header;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        String[] current = nextRow;
+        try {
+            nextRow = readRow();
+        } catch (SQLException e) {
+            throw new IllegalStateException("讀取資料庫失敗：" + e.getMessage(), e);
+        }
+        return current;
+    }
+
+    private String[] readRow() throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        String[] row = new String[header.length];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = interner.intern(j, toText(resultSet.getObject(j + 1)));
+        }
+        return row;
+    }
+
+    private static String toText(Object value) {
+        if (value == null) {
+            return DataType.NULL_VALUE;
+        }
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().format(DATE_FORMAT);
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().format(DATE_FORMAT);
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(DATE_FORMAT);
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).format(DATE_FORMAT);
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal number = ((BigDecimal) value).stripTrailingZeros();
+            return number.scale() <= 0 ? number.toBigInteger().toString() : number.toPlainString();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (number == Math.rint(number) && !Double.isInfinite(number)) {
+                return Long.toString((long) number);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * 關閉游標並還原連線的 auto-commit，連線本身由呼叫端關閉
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            resultSet.close();
+            statement.close();
+            connection.rollback();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
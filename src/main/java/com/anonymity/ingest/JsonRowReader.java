@@ -0,0 +1,184 @@
+package com.anonymity.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.deidentifier.arx.DataType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 以 Jackson token 串流逐筆讀取 JSON 陣列中的資料列，直接轉為 String[]，不會建立 Map
+ * 支援兩種資料列格式（由第一個元素決定）：
+ * 1. [{"欄位": "值", ...}, ...]：欄位順序以第一筆資料為準，之後的資料依欄位名稱對應
+ * 2. [["欄位", ...], ["值", ...], ...]：第一列為標題，之後依位置對應
+ * 讀取時以 ValueInterner 依欄位正規化重複的值
+ */
+public class JsonRowReader implements Iterator<String[]> {
+
+    private final JsonParser parser;
+    private final ValueInterner interner;
+    private final String[] header;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final boolean positional;
+    private String[] nextRow;
+    private int rowNumber;
+
+    /**
+     * @param parser 目前位置必須是資料陣列的 START_ARRAY
+     */
+    public JsonRowReader(JsonParser parser) throws IOException {
+        this(parser, new ValueInterner());
+    }
+
+    /**
+     * @param parser   目前位置必須是資料陣列的 START_ARRAY
+     * @param interner 資料值的正規化表
+     */
+    public JsonRowReader(JsonParser parser, ValueInterner interner) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("data 必須是 JSON 陣列");
+        }
+        this.parser = parser;
+        this.interner = interner;
+
+        // 第一筆資料決定欄位順序
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                columnIndex.put(name, names.size());
+                values.add(readValue(names.size(), name));
+                names.add(name);
+            }
+            this.positional = false;
+            this.header = names.toArray(new String[0]);
+            this.nextRow = values.toArray(new String[0]);
+            this.rowNumber = 1;
+        } else if (token == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                names.add(readHeader());
+            }
+            this.positional = true;
+            this.header = names.toArray(new String[0]);
+            this.nextRow = readRow();
+        } else if (token == JsonToken.END_ARRAY) {
+            this.positional = false;
+            this.header = new String[0];
+            this.nextRow = null;
+        } else {
+            throw new IllegalArgumentException("data 的每一筆資料必須是 JSON 物件或陣列");
+        }
+    }
+
+    public String[] getHeader() {
+        return header;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        String[] current = nextRow;
+        try {
+            nextRow = readRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+
+    /**
+     * 讀取下一筆資料，陣列結束時回傳 null
+     */
+    private String[] readRow() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (positional) {
+            return readPositionalRow(token);
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("data 的每一筆資料必須是 JSON 物件");
+        }
+        rowNumber++;
+
+        String[] row = new String[header.length];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            Integer index = columnIndex.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("第 " + rowNumber + " 筆資料包含未定義的欄位 '" + name + "'");
+            }
+            row[index] = readValue(index, name);
+        }
+
+        // 缺少的欄位視為缺值
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] == null) {
+                row[i] = DataType.NULL_VALUE;
+            }
+        }
+        return row;
+    }
+
+    private String[] readPositionalRow(JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("data 的每一筆資料必須是 JSON 陣列");
+        }
+        rowNumber++;
+
+        String[] row = new String[header.length];
+        int column = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (column >= header.length) {
+                throw new IllegalArgumentException("第 " + rowNumber + " 筆資料的欄位數超過標題欄位數 " + header.length);
+            }
+            row[column] = readValue(column, header[column]);
+            column++;
+        }
+        if (column < header.length) {
+            throw new IllegalArgumentException("第 " + rowNumber + " 筆資料的欄位數不足 " + header.length);
+        }
+        return row;
+    }
+
+    private String readHeader() throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return DataType.NULL_VALUE;
+        }
+        if (!token.isScalarValue()) {
+            throw new IllegalArgumentException("欄位 '標題' 的值必須是純量");
+        }
+        return parser.getText();
+    }
+
+    private String readValue(int column, String name) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return DataType.NULL_VALUE;
+        }
+        if (!token.isScalarValue()) {
+            throw new IllegalArgumentException("欄位 '" + name + "' 的值必須是純量");
+        }
+        return interner.intern(column, parser);
+    }
+}
@@ -0,0 +1,164 @@
+package com.anonymity.ingest;
+
+import org.deidentifier.arx.DataType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 提供給 Data.create(Iterator) 的資料列迭代器
+ * ARX 建立 DataHandle 時只會走訪一次輸入並編碼成自己的字典，
+ * 因此已經交給 ARX 的資料列不需要再保留，記憶體中只會有一份資料
+ */
+public final class RowIterators {
+
+    /** ARX 對識別欄位的輸出值 */
+    public static final String SUPPRESSED = "*";
+
+    private RowIterators() {
+    }
+
+    /**
+     * 先回傳標題列，再依序回傳資料列；標題為空時視為沒有資料
+     */
+    public static Iterator<String[]> withHeader(String[] header, Iterator<String[]> rows) {
+        if (header.length == 0) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<String[]>() {
+            private boolean headerReturned;
+
+            @Override
+            public boolean hasNext() {
+                return !headerReturned || rows.hasNext();
+            }
+
+            @Override
+            public String[] next() {
+                if (!headerReturned) {
+                    headerReturned = true;
+                    return header;
+                }
+                return rows.next();
+            }
+        };
+    }
+
+    /**
+     * 依序走訪已緩衝的資料列，每列交出後即從清單中移除參照
+     */
+    public static Iterator<String[]> consuming(List<String[]> rows) {
+        return consuming(rows, Function.identity());
+    }
+
+    /**
+     * 依標題順序將 Map 轉成資料列，缺少的欄位視為缺值，每列轉換後即從清單中移除參照
+     */
+    public static Iterator<String[]> fromMaps(String[] header, List<Map<String, String>> rows) {
+        return withHeader(header, consuming(rows, row -> {
+            String[] values = new String[header.length];
+            for (int j = 0; j < header.length; j++) {
+                String value = row.get(header[j]);
+                values[j] = value != null ? value : DataType.NULL_VALUE;
+            }
+            return values;
+        }));
+    }
+
+    /**
+     * 將指定欄位的值一律換成 SUPPRESSED，第一列為標題
+     * 這些欄位在 ARX 中只剩一個字典值，資料列直接在原陣列上修改
+     */
+    public static Iterator<String[]> suppress(Iterator<String[]> rowsWithHeader, Predicate<String> attributes) {
+        if (!rowsWithHeader.hasNext()) {
+            return rowsWithHeader;
+        }
+        String[] header = rowsWithHeader.next();
+        int[] columns = columnsOf(header, attributes);
+        if (columns.length == 0) {
+            return withHeader(header, rowsWithHeader);
+        }
+        return withHeader(header, new Iterator<String[]>() {
+            @Override
+            public boolean hasNext() {
+                return rowsWithHeader.hasNext();
+            }
+
+            @Override
+            public String[] next() {
+                return suppress(rowsWithHeader.next(), columns);
+            }
+        });
+    }
+
+    /**
+     * 標題中符合條件的欄位位置
+     */
+    public static int[] columnsOf(String[] header, Predicate<String> attributes) {
+        int[] columns = new int[header.length];
+        int count = 0;
+        for (int j = 0; j < header.length; j++) {
+            if (attributes.test(header[j])) {
+                columns[count++] = j;
+            }
+        }
+        return Arrays.copyOf(columns, count);
+    }
+
+    public static String[] suppress(String[] row, int[] columns) {
+        for (int column : columns) {
+            row[column] = SUPPRESSED;
+        }
+        return row;
+    }
+
+    private static <T> Iterator<String[]> consuming(List<T> rows, Function<T, String[]> converter) {
+        return new Iterator<String[]>() {
+            private int index;
+            private boolean releasable = true;
+
+            @Override
+            public boolean hasNext() {
+                if (index < rows.size()) {
+                    return true;
+                }
+                release();
+                return false;
+            }
+
+            @Override
+            public String[] next() {
+                if (index >= rows.size()) {
+                    throw new NoSuchElementException();
+                }
+                T row = rows.get(index);
+                if (releasable) {
+                    try {
+                        rows.set(index, null);
+                    } catch (UnsupportedOperationException e) {
+                        // 不可修改的清單只能等整個請求結束後回收
+                        releasable = false;
+                    }
+                }
+                index++;
+                return converter.apply(row);
+            }
+
+            private void release() {
+                if (releasable && !rows.isEmpty()) {
+                    try {
+                        rows.clear();
+                    } catch (UnsupportedOperationException e) {
+                        releasable = false;
+                    }
+                }
+            }
+        };
+    }
+}
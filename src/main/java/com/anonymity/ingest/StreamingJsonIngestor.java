@@ -0,0 +1,147 @@
+package com.anonymity.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 串流解析匿名化請求
+ * 請求格式與 /api/anonymity/anonymize 相同，但 data 陣列會逐筆解析成資料列，
+ * 不會先建立 List<Map<String, String>>；資料列在 ARX 編碼時交出並釋放
+ */
+@Component
+public class StreamingJsonIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingJsonIngestor.class);
+
+    private final JsonFactory jsonFactory;
+
+    public StreamingJsonIngestor(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public IngestedRequest read(InputStream in) throws IOException {
+        return read(in, jsonFactory);
+    }
+
+    /**
+     * 以指定格式的解析器讀取，CBOR 與 Smile 的請求結構與 JSON 相同
+     */
+    public IngestedRequest read(InputStream in, JsonFactory factory) throws IOException {
+        IngestedRequest request = new IngestedRequest();
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("請求內容必須是物件");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                    // null 視為未提供，由呼叫端回報缺少必要參數
+                    continue;
+                }
+                switch (field) {
+                    case "data":
+                        readData(parser, request);
+                        break;
+                    case "quasiIdentifiers":
+                        request.quasiIdentifiers = readStringList(parser, field);
+                        break;
+                    case "sensitiveAttributes":
+                        request.sensitiveAttributes = readStringList(parser, field);
+                        break;
+                    case "k":
+                        request.k = parser.getValueAsInt();
+                        break;
+                    case "l":
+                        request.l = parser.getValueAsDouble();
+                        break;
+                    default:
+                        // 忽略未使用的欄位
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+        return request;
+    }
+
+    private void readData(JsonParser parser, IngestedRequest request) throws IOException {
+        long start = System.currentTimeMillis();
+        JsonRowReader reader = new JsonRowReader(parser);
+
+        List<String[]> buffer = new ArrayList<>();
+        int rows = 0;
+        while (reader.hasNext()) {
+            buffer.add(reader.next());
+            rows++;
+        }
+
+        // 其他參數可能在 data 之後，解析器無法留給 ARX 走訪，只能先緩衝資料列
+        request.dataSet = Data.create(RowIterators.withHeader(reader.getHeader(), RowIterators.consuming(buffer)));
+        request.header = reader.getHeader();
+        request.rowCount = rows;
+        logger.info("Streamed {} rows in {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    private List<String> readStringList(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException(field + " 必須是字串陣列");
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getText());
+        }
+        return values;
+    }
+
+    /**
+     * 串流解析後的請求內容，未提供的參數為 null
+     */
+    public static class IngestedRequest {
+        private Data dataSet;
+        private String[] header;
+        private int rowCount;
+        private List<String> quasiIdentifiers;
+        private List<String> sensitiveAttributes;
+        private Integer k;
+        private Double l;
+
+        public Data getDataSet() {
+            return dataSet;
+        }
+
+        public String[] getHeader() {
+            return header;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public List<String> getQuasiIdentifiers() {
+            return quasiIdentifiers;
+        }
+
+        public List<String> getSensitiveAttributes() {
+            return sensitiveAttributes;
+        }
+
+        public Integer getK() {
+            return k;
+        }
+
+        public Double getL() {
+            return l;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.anonymity.ingest;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 上傳檔案先寫到暫存檔，讓讀取器以隨機存取或記憶體映射方式開啟，而不是整個讀進記憶體
+ */
+public final class TempFiles {
+
+    private TempFiles() {
+    }
+
+    public static <T> T withTempFile(MultipartFile file, String suffix, TempFileTask<T> task) throws IOException {
+        Path temp = Files.createTempFile("anonymity-", suffix);
+        try {
+            file.transferTo(temp);
+            return task.run(temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TempFileTask<T> {
+        T run(Path file) throws IOException;
+    }
+}
@@ -0,0 +1,162 @@
+package com.anonymity.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 匯入時依欄位將相同內容的值正規化為同一個 String
+ * 性別、縣市、疾病等欄位只有少數幾種值，正規化後一百萬筆資料只會保留幾十個字串，
+ * 不會在交給 ARX 之前每格各自保留一份
+ * 每個欄位最多記錄 maxValues 種值，超過時視為高基數欄位（例如身分證）並停止該欄位的正規化，
+ * 之後直接回傳原本的值
+ * 非執行緒安全，每個讀取器各自建立一個
+ */
+public final class ValueInterner {
+
+    /** 每個欄位預設最多記錄的值種類數 */
+    public static final int DEFAULT_MAX_VALUES = 1024;
+
+    private static final String[] DISABLED = new String[0];
+
+    private final int maxValues;
+    private String[][] tables = new String[8][];
+    private int[] sizes = new int[8];
+
+    public ValueInterner() {
+        this(DEFAULT_MAX_VALUES);
+    }
+
+    /**
+     * @param maxValues 每個欄位最多記錄的值種類數，0 表示不正規化
+     */
+    public ValueInterner(int maxValues) {
+        if (maxValues < 0) {
+            throw new IllegalArgumentException("maxValues 不可為負數");
+        }
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * 欄位是否仍在正規化
+     */
+    public boolean isEnabled(int column) {
+        return maxValues > 0 && (column >= tables.length || tables[column] != DISABLED);
+    }
+
+    public String intern(int column, String value) {
+        if (value == null || !isEnabled(column)) {
+            return value;
+        }
+        String[] table = table(column);
+        int mask = table.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        String existing;
+        while ((existing = table[slot]) != null) {
+            if (existing.equals(value)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        add(column, slot, value);
+        return value;
+    }
+
+    /**
+     * 直接以字元內容查詢，已記錄的值不需要建立新的 String
+     */
+    public String intern(int column, char[] chars, int offset, int length) {
+        if (!isEnabled(column)) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        String[] table = table(column);
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        String existing;
+        while ((existing = table[slot]) != null) {
+            if (matches(existing, chars, offset, length)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        String value = new String(chars, offset, length);
+        add(column, slot, value);
+        return value;
+    }
+
+    /**
+     * 讀取 parser 目前的純量值，字串值直接以 Jackson 的字元緩衝查詢
+     */
+    public String intern(int column, JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING && isEnabled(column)) {
+            return intern(column, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return intern(column, parser.getText());
+    }
+
+    private String[] table(int column) {
+        if (column >= tables.length) {
+            int length = Math.max(column + 1, tables.length * 2);
+            tables = Arrays.copyOf(tables, length);
+            sizes = Arrays.copyOf(sizes, length);
+        }
+        String[] table = tables[column];
+        if (table == null) {
+            table = new String[16];
+            tables[column] = table;
+        }
+        return table;
+    }
+
+    private void add(int column, int slot, String value) {
+        int size = sizes[column];
+        if (size == maxValues) {
+            // 高基數欄位：釋放已記錄的值，之後不再查詢
+            tables[column] = DISABLED;
+            return;
+        }
+        String[] table = tables[column];
+        table[slot] = value;
+        sizes[column] = ++size;
+        if (size * 2 > table.length) {
+            tables[column] = rehash(table);
+        }
+    }
+
+    private static String[] rehash(String[] table) {
+        String[] larger = new String[table.length * 2];
+        int mask = larger.length - 1;
+        for (String value : table) {
+            if (value != null) {
+                int slot = spread(value.hashCode()) & mask;
+                while (larger[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                larger[slot] = value;
+            }
+        }
+        return larger;
+    }
+
+    private static boolean matches(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
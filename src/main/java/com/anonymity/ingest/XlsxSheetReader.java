@@ -0,0 +1,165 @@
+package com.anonymity.ingest;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.deidentifier.arx.DataType;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 以 POI 的 XSSF 事件模型（SAX）逐列讀取 .xlsx 工作表
+ * 不建立整個活頁簿的 DOM，記憶體用量與檔案大小無關
+ * 第一列視為標題；空白儲存格轉為 ARX 缺值 NULL，與 CSV 的空欄位相同，不會被當成一個空字串值參與泛化
+ */
+public class XlsxSheetReader implements AutoCloseable {
+
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<PackagePart> sheetParts = new ArrayList<>();
+
+    public XlsxSheetReader(File file) throws IOException {
+        try {
+            this.pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            this.strings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                sheetNames.add(sheets.getSheetName());
+                sheetParts.add(sheets.getSheetPart());
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("無法開啟 Excel 檔案: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 依活頁簿中的順序列出工作表名稱
+     */
+    public List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * 讀取第一個工作表
+     * @param rowConsumer 依序收到標題列與每一筆資料列
+     */
+    public void readFirstSheet(Consumer<String[]> rowConsumer) throws IOException {
+        readSheet(0, rowConsumer);
+    }
+
+    /**
+     * 讀取指定的工作表
+     * 共用的字串表與樣式表只會被讀取，每次呼叫使用各自的解析器與格式化器，
+     * 因此不同工作表可以在不同執行緒同時讀取
+     * @param rowConsumer 依序收到標題列與每一筆資料列
+     */
+    public void readSheet(int index, Consumer<String[]> rowConsumer) throws IOException {
+        if (index >= sheetParts.size()) {
+            throw new IllegalArgumentException(sheetParts.isEmpty() ? "Excel 檔案沒有工作表" : "工作表不存在: " + index);
+        }
+        try (InputStream sheet = sheetParts.get(index).getInputStream()) {
+            readSheet(sheet, rowConsumer);
+        }
+    }
+
+    private void readSheet(InputStream sheet, Consumer<String[]> rowConsumer) throws IOException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(
+                styles, null, strings, new RowCollector(rowConsumer), new TypedCellFormatter(), false));
+            parser.parse(new InputSource(sheet));
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("解析 Excel 工作表失敗: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        pkg.revert();
+    }
+
+    /**
+     * 將 SAX 事件組成資料列
+     */
+    private static class RowCollector implements SheetContentsHandler {
+
+        private final Consumer<String[]> rowConsumer;
+        private final ValueInterner interner = new ValueInterner();
+        private final List<String> headerCells = new ArrayList<>();
+        private String[] header;
+        private String[] current;
+        private int column;
+        private boolean hasValue;
+
+        RowCollector(Consumer<String[]> rowConsumer) {
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            column = -1;
+            hasValue = false;
+            if (header != null) {
+                current = new String[header.length];
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            column = cellReference != null ? new CellReference(cellReference).getCol() : column + 1;
+            if (formattedValue == null || formattedValue.isEmpty()) {
+                return;
+            }
+            hasValue = true;
+            if (header == null) {
+                while (headerCells.size() < column) {
+                    headerCells.add("");
+                }
+                headerCells.add(formattedValue);
+            } else if (column < current.length) {
+                current[column] = interner.intern(column, formattedValue);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!hasValue) {
+                return;
+            }
+            if (header == null) {
+                header = headerCells.toArray(new String[0]);
+                rowConsumer.accept(header);
+                return;
+            }
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == null) {
+                    current[i] = DataType.NULL_VALUE;
+                }
+            }
+            rowConsumer.accept(current);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.anonymity.output;
+
+import org.deidentifier.arx.DataHandle;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 將 ARX 的輸出資料寫成 RFC 4180 格式的 CSV
+ * 含有分隔字元、雙引號或換行的欄位會加上雙引號
+ */
+public final class CsvResultWriter {
+
+    private CsvResultWriter() {
+    }
+
+    /**
+     * @param handle  ARX 輸出資料
+     * @param names   輸出欄位名稱
+     * @param columns 每個輸出欄位在 handle 中的位置
+     */
+    public static void write(DataHandle handle, String[] names, int[] columns, Writer out) throws IOException {
+        for (int j = 0; j < names.length; j++) {
+            if (j > 0) {
+                out.write(',');
+            }
+            writeField(names[j], out);
+        }
+        out.write("\r\n");
+
+        int rows = handle.getNumRows();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns.length; j++) {
+                if (j > 0) {
+                    out.write(',');
+                }
+                writeField(handle.getValue(i, columns[j]), out);
+            }
+            out.write("\r\n");
+        }
+        out.flush();
+    }
+
+    private static void writeField(String value, Writer out) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
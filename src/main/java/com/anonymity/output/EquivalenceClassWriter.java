@@ -0,0 +1,156 @@
+package com.anonymity.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.DataHandle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 依概化後的準識別符組合將 ARX 的輸出資料分組，每個等價類輸出一筆，
+ * 內容為準識別符的值、筆數與各敏感屬性的值分布
+ * 記憶體用量與等價類數量成正比，不保留個別資料列
+ */
+public final class EquivalenceClassWriter {
+
+    private static final int FLUSH_CLASSES = 1000;
+
+    private static final SerializedString VALUES = new SerializedString("values");
+    private static final SerializedString COUNT = new SerializedString("count");
+    private static final SerializedString HISTOGRAMS = new SerializedString("histograms");
+
+    private EquivalenceClassWriter() {
+    }
+
+    /**
+     * 一個等價類
+     */
+    public static final class EquivalenceClass {
+        private final String[] values;
+        private final List<Map<String, Integer>> histograms;
+        private int count;
+
+        EquivalenceClass(String[] values, int sensitiveAttributes) {
+            this.values = values;
+            this.histograms = new ArrayList<>(sensitiveAttributes);
+            for (int j = 0; j < sensitiveAttributes; j++) {
+                histograms.add(new LinkedHashMap<>());
+            }
+        }
+
+        public String[] getValues() {
+            return values;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * 各敏感屬性的值與出現次數，順序與分組時的敏感屬性相同
+         */
+        public List<Map<String, Integer>> getHistograms() {
+            return histograms;
+        }
+    }
+
+    /**
+     * 依準識別符分組，等價類依第一次出現的順序排列
+     *
+     * @param handle      ARX 輸出資料
+     * @param qiColumns   準識別符在 handle 中的位置
+     * @param saColumns   敏感屬性在 handle 中的位置
+     */
+    public static List<EquivalenceClass> group(DataHandle handle, int[] qiColumns, int[] saColumns) {
+        Map<List<String>, EquivalenceClass> classes = new LinkedHashMap<>();
+        int rows = handle.getNumRows();
+        for (int i = 0; i < rows; i++) {
+            String[] values = new String[qiColumns.length];
+            for (int j = 0; j < qiColumns.length; j++) {
+                values[j] = handle.getValue(i, qiColumns[j]);
+            }
+            EquivalenceClass equivalenceClass = classes.computeIfAbsent(Arrays.asList(values),
+                key -> new EquivalenceClass(values, saColumns.length));
+            equivalenceClass.count++;
+            for (int j = 0; j < saColumns.length; j++) {
+                equivalenceClass.histograms.get(j).merge(handle.getValue(i, saColumns[j]), 1, Integer::sum);
+            }
+        }
+        return new ArrayList<>(classes.values());
+    }
+
+    /**
+     * 輸出一個 JSON 物件：先寫入 fields 中的各欄位，最後以 classes 為名寫出等價類陣列
+     */
+    public static void writeDocument(ObjectMapper mapper, Map<String, ?> fields, List<EquivalenceClass> classes,
+                                     String[] qiNames, String[] saNames, OutputStream out) throws IOException {
+        SerializedString[] qiFields = JsonResultWriter.fieldNames(qiNames);
+        SerializedString[] saFields = JsonResultWriter.fieldNames(saNames);
+        try (JsonGenerator generator = JsonResultWriter.createGenerator(mapper, out)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                generator.writeObjectField(field.getKey(), field.getValue());
+            }
+            generator.writeArrayFieldStart("classes");
+            for (int i = 0; i < classes.size(); i++) {
+                writeClass(generator, classes.get(i), qiFields, saFields);
+                if ((i + 1) % FLUSH_CLASSES == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 每個等價類輸出一行 JSON 物件（NDJSON）
+     */
+    public static void writeNdjson(ObjectMapper mapper, List<EquivalenceClass> classes,
+                                   String[] qiNames, String[] saNames, OutputStream out) throws IOException {
+        SerializedString[] qiFields = JsonResultWriter.fieldNames(qiNames);
+        SerializedString[] saFields = JsonResultWriter.fieldNames(saNames);
+        try (JsonGenerator generator = JsonResultWriter.createGenerator(mapper, out)) {
+            for (int i = 0; i < classes.size(); i++) {
+                writeClass(generator, classes.get(i), qiFields, saFields);
+                generator.writeRaw('\n');
+                if ((i + 1) % FLUSH_CLASSES == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private static void writeClass(JsonGenerator generator, EquivalenceClass equivalenceClass,
+                                   SerializedString[] qiFields, SerializedString[] saFields) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(VALUES);
+        generator.writeStartObject();
+        for (int j = 0; j < qiFields.length; j++) {
+            generator.writeFieldName(qiFields[j]);
+            generator.writeString(equivalenceClass.values[j]);
+        }
+        generator.writeEndObject();
+        generator.writeFieldName(COUNT);
+        generator.writeNumber(equivalenceClass.count);
+        generator.writeFieldName(HISTOGRAMS);
+        generator.writeStartObject();
+        for (int j = 0; j < saFields.length; j++) {
+            generator.writeFieldName(saFields[j]);
+            generator.writeStartObject();
+            for (Map.Entry<String, Integer> entry : equivalenceClass.histograms.get(j).entrySet()) {
+                generator.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}
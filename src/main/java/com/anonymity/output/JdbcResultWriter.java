@@ -0,0 +1,73 @@
+package com.anonymity.output;
+
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * 以 JDBC 批次 INSERT 將 ARX 的輸出資料寫入既有的資料表
+ * 資料列直接從 handle 逐列取值，每 batchSize 筆執行一次批次，全部寫入後才提交，失敗時整批回滾
+ * 概化後的值（例如 20-39、*）都是字串，目標欄位應為文字型態；ARX 的缺值寫成 SQL NULL
+ * 資料表與欄位名稱由呼叫端驗證
+ */
+public final class JdbcResultWriter {
+
+    private JdbcResultWriter() {
+    }
+
+    /**
+     * @param handle    ARX 輸出資料
+     * @param names     目標資料表的欄位名稱
+     * @param columns   每個輸出欄位在 handle 中的位置
+     * @param batchSize 每次批次執行的列數
+     * @return 寫入的列數
+     */
+    public static int write(DataHandle handle, String[] names, int[] columns,
+                            Connection connection, String table, int batchSize) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+            .append(String.join(", ", names)).append(") VALUES (");
+        for (int j = 0; j < names.length; j++) {
+            sql.append(j > 0 ? ", ?" : "?");
+        }
+        sql.append(')');
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        int rows = handle.getNumRows();
+        try (PreparedStatement insert = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns.length; j++) {
+                    String value = handle.getValue(i, columns[j]);
+                    if (DataType.NULL_VALUE.equals(value)) {
+                        insert.setNull(j + 1, Types.VARCHAR);
+                    } else {
+                        insert.setString(j + 1, value);
+                    }
+                }
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    insert.executeBatch();
+                }
+            }
+            if (rows % batchSize != 0) {
+                insert.executeBatch();
+            }
+            connection.commit();
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            // 讀取輸出資料的錯誤也要回滾，避免已執行的批次留在交易中
+            try {
+                connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.anonymity.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.DataHandle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 將 ARX 的輸出資料逐列寫成 JSON
+ * 直接從 DataHandle 取值交給 JsonGenerator，不先組成 List<Map>，
+ * 每 FLUSH_ROWS 筆送出一次，回應的第一個位元組不必等整份資料序列化完
+ */
+public final class JsonResultWriter {
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_ROWS = 1000;
+
+    /**
+     * 資料列的輸出形式
+     */
+    public enum RowShape {
+        /** 以欄位名稱為鍵的物件 */
+        OBJECT("objects"),
+        /** 依欄位順序排列的字串陣列 */
+        ARRAY("compact"),
+        /** 依欄位順序排列的字典編號，各欄位的字典寫在資料陣列之前的 dictionaries 欄位 */
+        DICTIONARY("dictionary");
+
+        private final String format;
+
+        RowShape(String format) {
+            this.format = format;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        /**
+         * 依請求參數 format 取得輸出形式，未指定時為 OBJECT
+         */
+        public static RowShape forFormat(String format) {
+            if (format == null || format.isEmpty()) {
+                return OBJECT;
+            }
+            for (RowShape shape : values()) {
+                if (shape.format.equalsIgnoreCase(format)) {
+                    return shape;
+                }
+            }
+            throw new IllegalArgumentException("不支援的輸出格式：" + format + "（可用 objects、compact、dictionary）");
+        }
+
+        /**
+         * 同 {@link #forFormat(String)}，Accept 為 NDJSON 時每列固定輸出物件，只接受 OBJECT
+         */
+        public static RowShape forFormat(String format, String accept) {
+            RowShape shape = forFormat(format);
+            if (shape != OBJECT && isNdjson(accept)) {
+                throw new IllegalArgumentException("NDJSON 輸出每列皆為物件，不支援 format=" + format);
+            }
+            return shape;
+        }
+    }
+
+    private JsonResultWriter() {
+    }
+
+    /**
+     * Accept 標頭是否要求 NDJSON
+     */
+    public static boolean isNdjson(String accept) {
+        return accept != null && accept.contains(NDJSON_MEDIA_TYPE);
+    }
+
+    /**
+     * 每列輸出一個 JSON 物件並換行（NDJSON）
+     *
+     * @param handle  ARX 輸出資料
+     * @param names   輸出欄位名稱
+     * @param columns 每個輸出欄位在 handle 中的位置
+     */
+    public static void writeNdjson(ObjectMapper mapper, DataHandle handle, String[] names, int[] columns,
+                                   OutputStream out) throws IOException {
+        SerializedString[] fieldNames = fieldNames(names);
+        try (JsonGenerator generator = createGenerator(mapper, out)) {
+            int rows = handle.getNumRows();
+            for (int i = 0; i < rows; i++) {
+                writeRow(generator, RowShape.OBJECT, fieldNames, handle, i, columns);
+                generator.writeRaw('\n');
+                if ((i + 1) % FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * 輸出一個 JSON 物件：先寫入 fields 中的各欄位，最後以 rowsField 為名逐列寫出資料陣列
+     * DICTIONARY 形式會先走訪一次資料建立各欄位的字典，字典依值第一次出現的順序編號
+     */
+    public static void writeDocument(ObjectMapper mapper, Map<String, ?> fields, String rowsField, RowShape shape,
+                                     DataHandle handle, String[] names, int[] columns,
+                                     OutputStream out) throws IOException {
+        SerializedString[] fieldNames = fieldNames(names);
+        try (JsonGenerator generator = createGenerator(mapper, out)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                generator.writeObjectField(field.getKey(), field.getValue());
+            }
+            List<Map<String, Integer>> dictionaries = null;
+            if (shape == RowShape.DICTIONARY) {
+                dictionaries = buildDictionaries(handle, columns);
+                generator.writeArrayFieldStart("dictionaries");
+                for (Map<String, Integer> dictionary : dictionaries) {
+                    generator.writeStartArray();
+                    for (String value : dictionary.keySet()) {
+                        generator.writeString(value);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeArrayFieldStart(rowsField);
+            int rows = handle.getNumRows();
+            for (int i = 0; i < rows; i++) {
+                if (dictionaries != null) {
+                    writeCodes(generator, dictionaries, handle, i, columns);
+                } else {
+                    writeRow(generator, shape, fieldNames, handle, i, columns);
+                }
+                if ((i + 1) % FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeRow(JsonGenerator generator, RowShape shape, SerializedString[] fieldNames,
+                                 DataHandle handle, int row, int[] columns) throws IOException {
+        if (shape == RowShape.ARRAY) {
+            generator.writeStartArray();
+            for (int column : columns) {
+                generator.writeString(handle.getValue(row, column));
+            }
+            generator.writeEndArray();
+            return;
+        }
+        generator.writeStartObject();
+        for (int j = 0; j < columns.length; j++) {
+            generator.writeFieldName(fieldNames[j]);
+            generator.writeString(handle.getValue(row, columns[j]));
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeCodes(JsonGenerator generator, List<Map<String, Integer>> dictionaries,
+                                   DataHandle handle, int row, int[] columns) throws IOException {
+        generator.writeStartArray();
+        for (int j = 0; j < columns.length; j++) {
+            generator.writeNumber(dictionaries.get(j).get(handle.getValue(row, columns[j])));
+        }
+        generator.writeEndArray();
+    }
+
+    private static List<Map<String, Integer>> buildDictionaries(DataHandle handle, int[] columns) {
+        List<Map<String, Integer>> dictionaries = new ArrayList<>(columns.length);
+        for (int j = 0; j < columns.length; j++) {
+            dictionaries.add(new LinkedHashMap<>());
+        }
+        int rows = handle.getNumRows();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns.length; j++) {
+                Map<String, Integer> dictionary = dictionaries.get(j);
+                String value = handle.getValue(i, columns[j]);
+                if (!dictionary.containsKey(value)) {
+                    dictionary.put(value, dictionary.size());
+                }
+            }
+        }
+        return dictionaries;
+    }
+
+    static JsonGenerator createGenerator(ObjectMapper mapper, OutputStream out) throws IOException {
+        // 回應串流由容器關閉
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * 欄位名稱預先編碼，避免每列重新跳脫
+     */
+    static SerializedString[] fieldNames(String[] names) {
+        SerializedString[] fieldNames = new SerializedString[names.length];
+        for (int j = 0; j < names.length; j++) {
+            fieldNames[j] = new SerializedString(names[j]);
+        }
+        return fieldNames;
+    }
+}
@@ -0,0 +1,101 @@
+package com.anonymity.output;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.deidentifier.arx.DataHandle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 將 ARX 的輸出資料寫成 .xlsx
+ * 使用 SXSSFWorkbook，記憶體中只保留最近 ROW_WINDOW 列，較早的列寫到壓縮的暫存檔，
+ * 資料筆數超過每個工作表的筆數時自動接續到下一個工作表
+ */
+public final class XlsxResultWriter {
+
+    public static final String MEDIA_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int ROW_WINDOW = 100;
+
+    /** 扣除標題列後單一工作表可容納的資料筆數 */
+    public static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private XlsxResultWriter() {
+    }
+
+    /**
+     * @param handle   ARX 輸出資料
+     * @param names    輸出欄位名稱
+     * @param columns  每個輸出欄位在 handle 中的位置
+     * @param original 原始資料，不為 null 時另外寫入「原始資料」工作表
+     */
+    public static void write(DataHandle handle, String[] names, int[] columns, DataHandle original,
+                             OutputStream out) throws IOException {
+        write(handle, names, columns, original, MAX_ROWS_PER_SHEET, out);
+    }
+
+    /**
+     * @param rowsPerSheet 每個工作表的資料筆數（不含標題列），介於 1 與 {@link #MAX_ROWS_PER_SHEET} 之間
+     */
+    public static void write(DataHandle handle, String[] names, int[] columns, DataHandle original,
+                             int rowsPerSheet, OutputStream out) throws IOException {
+        if (rowsPerSheet < 1 || rowsPerSheet > MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("每個工作表的筆數必須介於 1 與 " + MAX_ROWS_PER_SHEET + " 之間");
+        }
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+
+            writeSheets(workbook, "匿名化結果", headerStyle, handle, names, columns, rowsPerSheet);
+            if (original != null) {
+                String[] originalNames = new String[original.getNumColumns()];
+                int[] originalColumns = new int[originalNames.length];
+                for (int j = 0; j < originalNames.length; j++) {
+                    originalNames[j] = original.getAttributeName(j);
+                    originalColumns[j] = j;
+                }
+                writeSheets(workbook, "原始資料", headerStyle, original, originalNames, originalColumns, rowsPerSheet);
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
+    }
+
+    private static void writeSheets(SXSSFWorkbook workbook, String name, CellStyle headerStyle,
+                                    DataHandle handle, String[] names, int[] columns, int rowsPerSheet) {
+        int rows = handle.getNumRows();
+        int part = 1;
+        int start = 0;
+        do {
+            Sheet sheet = workbook.createSheet(part == 1 ? name : name + " (" + part + ")");
+            sheet.createFreezePane(0, 1);
+            Row header = sheet.createRow(0);
+            for (int j = 0; j < names.length; j++) {
+                header.createCell(j).setCellValue(names[j]);
+                header.getCell(j).setCellStyle(headerStyle);
+            }
+
+            int end = (int) Math.min(rows, (long) start + rowsPerSheet);
+            for (int i = start; i < end; i++) {
+                Row row = sheet.createRow(i - start + 1);
+                for (int j = 0; j < columns.length; j++) {
+                    row.createCell(j).setCellValue(handle.getValue(i, columns[j]));
+                }
+            }
+            start = end;
+            part++;
+        } while (start < rows);
+    }
+}
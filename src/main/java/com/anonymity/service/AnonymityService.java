@@ -1,8 +1,10 @@
 package com.anonymity.service;
 
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.store.ColumnKind;
+import com.anonymity.store.ColumnarTable;
 import com.anonymity.validation.DataValidator;
 import org.deidentifier.arx.*;
-import org.deidentifier.arx.Data.DefaultData;
 import org.deidentifier.arx.criteria.KAnonymity;
 import org.deidentifier.arx.criteria.EntropyLDiversity;
 import org.deidentifier.arx.metric.Metric;
@@ -56,6 +58,15 @@ public class AnonymityService {
     @Autowired
     private DataValidator dataValidator;
     
+    private volatile Map<String, String[][]> hierarchies;
+    
+    /**
+     * 請求資料編碼成欄式資料表時各欄位的儲存方式，與 runAnonymization 設定的資料型態一致
+     */
+    public static final Map<String, ColumnKind> COLUMN_KINDS = Map.of(
+        "年齡", ColumnKind.INTEGER,
+        "通報日期", ColumnKind.DATE);
+    
     // 縣市列表
     private static final String[] CITIES = {
         "台北市", "新北市", "桃園市", "台中市", "台南市", "高雄市",
@@ -93,244 +104,347 @@ public class AnonymityService {
         */
     }
     
+    /**
+     * 對 List<Map> 格式的資料進行匿名化
+     * 傳入的清單會在編碼時被消耗：已轉換的元素換成 null，編碼完成後清空清單，
+     * 呼叫端之後不可再讀取；需要保留原始資料時請傳入副本
+     */
     public Map<String, Object> anonymizeData(List<Map<String, String>> data, 
                             List<String> quasiIdentifiers,
                             List<String> sensitiveAttributes,
                             int k,
                             double l) throws IOException {
+        return toResponse(anonymize(data, quasiIdentifiers, sensitiveAttributes, k, l));
+    }
+    
+    /**
+     * 對 List<Map> 格式的資料進行匿名化，回傳 ARX 的輸出資料，供串流輸出使用
+     * 與 {@link #anonymizeData(List, List, List, int, double)} 相同，傳入的清單會被消耗
+     */
+    public AnonymizationResult anonymize(List<Map<String, String>> data,
+                            List<String> quasiIdentifiers,
+                            List<String> sensitiveAttributes,
+                            int k,
+                            double l) throws IOException {
         
         try {
             logger.info("start anonymizeData, count: {}, k: {}, l: {}", data.size(), k, l);
             
-            // 驗證數據
-            dataValidator.validateRequest(data, quasiIdentifiers, sensitiveAttributes, k, l);
-            
             // 記錄前三筆資料
             logger.info("First 3 rows of data:");
             for (int i = 0; i < Math.min(3, data.size()); i++) {
                 logger.info("Row {}: {}", i + 1, data.get(i));
             }
             
-            // 創建數據集
-            DefaultData dataSet = Data.create();
+            // 編碼成欄式資料表：逐筆將 Map 轉成資料列並編碼，轉換過的 Map 從 data 中移除參照，結束後 data 為空清單
+            // 呼叫端仍持有 data 本身，Map 只有在沒有其他參照時才會被回收
+            String[] attributes = data.isEmpty() ? new String[0] : data.get(0).keySet().toArray(new String[0]);
+            logger.debug("Added attributes: {}", Arrays.toString(attributes));
+            ColumnarTable table = ColumnarTable.encode(RowIterators.fromMaps(attributes, data), COLUMN_KINDS);
             
-            // 添加屬性
-            if (!data.isEmpty()) {
-                Map<String, String> firstRow = data.get(0);
-                String[] attributes = firstRow.keySet().toArray(new String[0]);
-                dataSet.add(attributes);
-                logger.debug("Added attributes: {}", Arrays.toString(attributes));
-            }
+            // 驗證數據
+            dataValidator.validateTable(table, quasiIdentifiers, sensitiveAttributes, k, l);
+            checkHierarchies(table);
+            
+            // 創建數據集：字典編碼欄位交給 ARX 的是共用的字串
+            Data dataSet = Data.create(table.rowsWithHeader());
+            
+            return runAnonymization(dataSet, sensitiveAttributes, k, l);
             
-            // 添加數據
-            for (Map<String, String> row : data) {
-                String[] values = new String[row.size()];
-                int i = 0;
-                for (String value : row.values()) {
-                    values[i++] = value;
+        } catch (IllegalArgumentException e) {
+            logger.error("Data validation failed", e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Anonymization process failed", e);
+            throw new IOException("Anonymization process failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 對已載入的 ARX 資料集進行匿名化（串流匯入使用）
+     * 資料已由匯入端直接寫入資料集，驗證改由 ARX 的資料字典進行
+     */
+    public Map<String, Object> anonymizeData(Data dataSet,
+                            List<String> quasiIdentifiers,
+                            List<String> sensitiveAttributes,
+                            int k,
+                            double l) throws IOException {
+        return toResponse(anonymize(dataSet, quasiIdentifiers, sensitiveAttributes, k, l));
+    }
+    
+    /**
+     * 對已載入的 ARX 資料集進行匿名化，回傳 ARX 的輸出資料，供不經過 List<Map> 的輸出格式使用
+     */
+    public AnonymizationResult anonymize(Data dataSet,
+                            List<String> quasiIdentifiers,
+                            List<String> sensitiveAttributes,
+                            int k,
+                            double l) throws IOException {
+        
+        try {
+            DataHandle input = dataSet.getHandle();
+            logger.info("start anonymizeData (streamed), count: {}, k: {}, l: {}", input.getNumRows(), k, l);
+            
+            // 驗證數據
+            dataValidator.validateDataset(input, quasiIdentifiers, sensitiveAttributes, k, l);
+            
+            return runAnonymization(dataSet, sensitiveAttributes, k, l);
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("Data validation failed", e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("Anonymization process failed", e);
+            throw new IOException("Anonymization process failed: " + e.getMessage(), e);
+        }
+    }
+    
+    private AnonymizationResult runAnonymization(Data dataSet,
+                            List<String> sensitiveAttributes,
+                            int k,
+                            double l) throws IOException {
+        
+        // 概化層級與資料內容無關，所有資料集（含同一活頁簿的各工作表）共用同一份
+        Map<String, String[][]> hierarchies = getHierarchies();
+        
+        // 設定資料型態
+        dataSet.getDefinition().setDataType("年齡", DataType.INTEGER);
+        //dataSet.getDefinition().setDataType("郵遞區號", DataType.DECIMAL);
+        dataSet.getDefinition().setDataType("通報日期", DataType.DATE);
+
+        // 設定屬性型態
+        dataSet.getDefinition().setAttributeType("年齡", Hierarchy.create(hierarchies.get("年齡")));
+        dataSet.getDefinition().setAttributeType("性別", Hierarchy.create(hierarchies.get("性別")));
+        //dataSet.getDefinition().setAttributeType("郵遞區號", Hierarchy.create(hierarchies.get("郵遞區號")));
+        dataSet.getDefinition().setAttributeType("縣市", Hierarchy.create(hierarchies.get("縣市")));
+        dataSet.getDefinition().setAttributeType("通報日期", Hierarchy.create(hierarchies.get("通報日期")));
+        
+        // 設置敏感屬性
+        for (String attribute : sensitiveAttributes) {
+            dataSet.getDefinition().setAttributeType(attribute, AttributeType.SENSITIVE_ATTRIBUTE);
+            logger.debug("Set sensitive attribute: {}", attribute);
+        }
+        
+        // 創建ARX配置
+        ARXConfiguration config = ARXConfiguration.create();
+        config.addPrivacyModel(new KAnonymity(k));
+        
+        // 為每個敏感屬性添加 l-Diversity 隱私模型
+        for (String sensitiveAttribute : sensitiveAttributes) {
+            config.addPrivacyModel(new EntropyLDiversity(sensitiveAttribute, l));
+        }
+        
+        // 設置隱私模型參數
+        config.setSuppressionLimit(1.0d);
+        config.setQualityModel(Metric.createLossMetric(0.5d));
+        
+        // 設定日期泛化層級
+        config.setMaxOutliers(0.0d);
+        
+        logger.info("ARX configuration completed: k={}, l={}, suppression limit={}", k, l, config.getSuppressionLimit());
+        
+        // 執行匿名化
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXResult result = anonymizer.anonymize(dataSet, config);
+        
+        // 檢查結果
+        if (result == null || result.getOutput() == null) {
+            logger.error("Anonymization failed: Unable to find solution satisfying k={}, l={}", k, l);
+            throw new IOException("Unable to find anonymization solution satisfying k=" + k + " and l=" + l + ", please try adjusting parameters or increasing data volume");
+        }
+        
+        DataHandle output = result.getOutput();
+        
+        // 獲取所有欄位名稱
+        String[] header = dataSet.getDefinition().getQuasiIdentifyingAttributes().toArray(new String[0]);
+        String[] sensitiveHeader = dataSet.getDefinition().getSensitiveAttributes().toArray(new String[0]);
+        
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("k", k);
+        statistics.put("l", l);
+        statistics.put("rows", output.getNumRows());
+        statistics.put("columns", header.length);
+        statistics.put("informationLoss", calculateInformationLoss(output, header));
+        
+        logger.info("Anonymization completed, total rows: {}", output.getNumRows());
+        
+        return new AnonymizationResult(dataSet.getHandle(), output, header, sensitiveHeader, statistics);
+    }
+    
+    /**
+     * 以欄位中的唯一值查詢概化層級，每個值只查一次，記錄不在層級中的值
+     */
+    private void checkHierarchies(ColumnarTable table) {
+        for (Map.Entry<String, String[][]> entry : getHierarchies().entrySet()) {
+            int column = table.getColumnIndexOf(entry.getKey());
+            if (column < 0) {
+                continue;
+            }
+            Set<String> leaves = new HashSet<>();
+            for (String[] row : entry.getValue()) {
+                leaves.add(row[0]);
+            }
+            ColumnarTable.ValueCounts counts = table.getValueCounts(column);
+            List<String> missing = new ArrayList<>();
+            int missingRows = 0;
+            for (int i = 0; i < counts.size(); i++) {
+                String value = counts.getValue(i);
+                if (!DataType.NULL_VALUE.equals(value) && !leaves.contains(value)) {
+                    missing.add(value);
+                    missingRows += counts.getCount(i);
                 }
-                dataSet.add(values);
             }
-            logger.debug("Data addition completed, total rows: {}", data.size());
-            
-            // 定義年齡層級
-            DefaultHierarchy ageHierarchy = Hierarchy.create();
-            for (int age = 0; age <= 99; age++) {
-                int decade = (age / 10) * 10;
-                int halfDecade = (age / 5) * 5;
-                
-                String ageStr = String.valueOf(age);
-                String decadeRange = String.format("%d-%d", decade, decade + 9);
-                String halfDecadeRange = String.format("%d-%d", halfDecade, halfDecade + 4);
-                String ageGroup;
-                
-                if (age < 20) {
-                    ageGroup = "0-19";
-                } else if (age < 40) {
-                    ageGroup = "20-39";
-                } else if (age < 60) {
-                    ageGroup = "40-59";
-                } else if (age < 80) {
-                    ageGroup = "60-79";
-                } else {
-                    ageGroup = "80-99";
+            if (!missing.isEmpty()) {
+                logger.warn("Attribute {} has {} rows with values not in hierarchy: {}", entry.getKey(), missingRows,
+                    missing.subList(0, Math.min(10, missing.size())));
+            }
+        }
+    }
+    
+    /**
+     * 取得各準識別符的概化層級，第一次使用時建立，之後重複使用
+     */
+    private Map<String, String[][]> getHierarchies() {
+        Map<String, String[][]> result = hierarchies;
+        if (result == null) {
+            synchronized (this) {
+                result = hierarchies;
+                if (result == null) {
+                    result = buildHierarchies();
+                    hierarchies = result;
                 }
-                
-                ageHierarchy.add(ageStr, halfDecadeRange, decadeRange, ageGroup, "*");
             }
+        }
+        return result;
+    }
+    
+    private Map<String, String[][]> buildHierarchies() {
+        // 定義年齡層級
+        DefaultHierarchy ageHierarchy = Hierarchy.create();
+        for (int age = 0; age <= 99; age++) {
+            int decade = (age / 10) * 10;
+            int halfDecade = (age / 5) * 5;
+            
+            String ageStr = String.valueOf(age);
+            String decadeRange = String.format("%d-%d", decade, decade + 9);
+            String halfDecadeRange = String.format("%d-%d", halfDecade, halfDecade + 4);
+            String ageGroup;
+            
+            if (age < 20) {
+                ageGroup = "0-19";
+            } else if (age < 40) {
+                ageGroup = "20-39";
+            } else if (age < 60) {
+                ageGroup = "40-59";
+            } else if (age < 80) {
+                ageGroup = "60-79";
+            } else {
+                ageGroup = "80-99";
+            }
+            
+            ageHierarchy.add(ageStr, halfDecadeRange, decadeRange, ageGroup, "*");
+        }
 
-            // 定義性別層級
-            DefaultHierarchy genderHierarchy = Hierarchy.create();
-            genderHierarchy.add("男", "*");
-            genderHierarchy.add("女", "*");
+        // 定義性別層級
+        DefaultHierarchy genderHierarchy = Hierarchy.create();
+        genderHierarchy.add("男", "*");
+        genderHierarchy.add("女", "*");
 
-            // 定義郵遞區號層級
-            /*
-            DefaultHierarchy zipHierarchy = Hierarchy.create();
-            
-            // 為每個縣市建立郵遞區號層級
-            for (String city : CITIES) {
-                int[] zipRange = cityZipRanges.get(city);
-                if (zipRange != null) {
-                    for (int zip = zipRange[0]; zip <= zipRange[1]; zip++) {
-                        String zipStr = String.format("%03d", zip);
-                        // 保持郵遞區號為數字格式
-                        String hundredRange = String.format("%d00-%d99", zip/100, zip/100);
-                        zipHierarchy.add(zipStr, hundredRange, "*");
-                    }
+        // 定義郵遞區號層級
+        /*
+        DefaultHierarchy zipHierarchy = Hierarchy.create();
+        
+        // 為每個縣市建立郵遞區號層級
+        for (String city : CITIES) {
+            int[] zipRange = cityZipRanges.get(city);
+            if (zipRange != null) {
+                for (int zip = zipRange[0]; zip <= zipRange[1]; zip++) {
+                    String zipStr = String.format("%03d", zip);
+                    // 保持郵遞區號為數字格式
+                    String hundredRange = String.format("%d00-%d99", zip/100, zip/100);
+                    zipHierarchy.add(zipStr, hundredRange, "*");
                 }
             }
-            */
+        }
+        */
 
-            // 定義縣市層級
-            DefaultHierarchy cityHierarchy = Hierarchy.create();
-            // 北區
-            cityHierarchy.add("台北市", "北區", "台灣", "*");
-            cityHierarchy.add("新北市", "北區", "台灣", "*");
-            cityHierarchy.add("桃園市", "北區", "台灣", "*");
-            cityHierarchy.add("基隆市", "北區", "台灣", "*");
-            cityHierarchy.add("新竹市", "北區", "台灣", "*");
-            cityHierarchy.add("新竹縣", "北區", "台灣", "*");
-            cityHierarchy.add("宜蘭縣", "北區", "台灣", "*");
+        // 定義縣市層級
+        DefaultHierarchy cityHierarchy = Hierarchy.create();
+        // 北區
+        cityHierarchy.add("台北市", "北區", "台灣", "*");
+        cityHierarchy.add("新北市", "北區", "台灣", "*");
+        cityHierarchy.add("桃園市", "北區", "台灣", "*");
+        cityHierarchy.add("基隆市", "北區", "台灣", "*");
+        cityHierarchy.add("新竹市", "北區", "台灣", "*");
+        cityHierarchy.add("新竹縣", "北區", "台灣", "*");
+        cityHierarchy.add("宜蘭縣", "北區", "台灣", "*");
 
-            // 中區
-            cityHierarchy.add("台中市", "中區", "台灣", "*");
-            cityHierarchy.add("彰化縣", "中區", "台灣", "*");
-            cityHierarchy.add("南投縣", "中區", "台灣", "*");
-            cityHierarchy.add("苗栗縣", "中區", "台灣", "*");
-            cityHierarchy.add("雲林縣", "中區", "台灣", "*");
-            cityHierarchy.add("嘉義市", "中區", "台灣", "*");
-            cityHierarchy.add("嘉義縣", "中區", "台灣", "*");
+        // 中區
+        cityHierarchy.add("台中市", "中區", "台灣", "*");
+        cityHierarchy.add("彰化縣", "中區", "台灣", "*");
+        cityHierarchy.add("南投縣", "中區", "台灣", "*");
+        cityHierarchy.add("苗栗縣", "中區", "台灣", "*");
+        cityHierarchy.add("雲林縣", "中區", "台灣", "*");
+        cityHierarchy.add("嘉義市", "中區", "台灣", "*");
+        cityHierarchy.add("嘉義縣", "中區", "台灣", "*");
 
-            // 南區
-            cityHierarchy.add("高雄市", "南區", "台灣", "*");
-            cityHierarchy.add("台南市", "南區", "台灣", "*");
-            cityHierarchy.add("屏東縣", "南區", "台灣", "*");
-            cityHierarchy.add("澎湖縣", "南區", "台灣", "*");
+        // 南區
+        cityHierarchy.add("高雄市", "南區", "台灣", "*");
+        cityHierarchy.add("台南市", "南區", "台灣", "*");
+        cityHierarchy.add("屏東縣", "南區", "台灣", "*");
+        cityHierarchy.add("澎湖縣", "南區", "台灣", "*");
 
-            // 東區
-            cityHierarchy.add("花蓮縣", "東區", "台灣", "*");
-            cityHierarchy.add("台東縣", "東區", "台灣", "*");
+        // 東區
+        cityHierarchy.add("花蓮縣", "東區", "台灣", "*");
+        cityHierarchy.add("台東縣", "東區", "台灣", "*");
 
-            // 離島
-            cityHierarchy.add("金門縣", "離島", "台灣", "*");
-            cityHierarchy.add("連江縣", "離島", "台灣", "*");
+        // 離島
+        cityHierarchy.add("金門縣", "離島", "台灣", "*");
+        cityHierarchy.add("連江縣", "離島", "台灣", "*");
 
-            // 定義日期層級
-            DefaultHierarchy dateHierarchy = Hierarchy.create();
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd");
-            Calendar cal = Calendar.getInstance();
-            
-            int startYear = 2020;
-            int endYear = 2025;
-            
-            for (int year = startYear; year <= endYear; year++) {
-                for (int month = 1; month <= 12; month++) {
-                    cal.set(year, month, 0);
-                    int lastDay = cal.get(Calendar.DAY_OF_MONTH);
+        // 定義日期層級
+        DefaultHierarchy dateHierarchy = Hierarchy.create();
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd");
+        Calendar cal = Calendar.getInstance();
+        
+        int startYear = 2020;
+        int endYear = 2025;
+        
+        for (int year = startYear; year <= endYear; year++) {
+            for (int month = 1; month <= 12; month++) {
+                cal.set(year, month, 0);
+                int lastDay = cal.get(Calendar.DAY_OF_MONTH);
+                
+                for (int day = 1; day <= lastDay; day++) {
+                    cal.set(year, month - 1, day);
+                    String dateStr = sdf.format(cal.getTime());
                     
-                    for (int day = 1; day <= lastDay; day++) {
-                        cal.set(year, month - 1, day);
-                        String dateStr = sdf.format(cal.getTime());
-                        
-                        String monthStr = String.format("%04d/%02d", year, month);
-                        String quarterStr = String.format("%04d-Q%d", year, (month-1)/3 + 1);
-                        String yearStr = String.format("%04d", year);
-                        String decadeStr = String.format("%d0s", year/10);
-                        
-                        dateHierarchy.add(dateStr, monthStr, quarterStr, yearStr, decadeStr, "*");
-                    }
-                }
-            }
-
-            // 設定資料型態
-            dataSet.getDefinition().setDataType("年齡", DataType.INTEGER);
-            //dataSet.getDefinition().setDataType("郵遞區號", DataType.DECIMAL);
-            dataSet.getDefinition().setDataType("通報日期", DataType.DATE);
-
-            // 設定屬性型態
-            dataSet.getDefinition().setAttributeType("年齡", ageHierarchy);
-            dataSet.getDefinition().setAttributeType("性別", genderHierarchy);
-            //dataSet.getDefinition().setAttributeType("郵遞區號", zipHierarchy);
-            dataSet.getDefinition().setAttributeType("縣市", cityHierarchy);
-            dataSet.getDefinition().setAttributeType("通報日期", dateHierarchy);
-            
-            // 設置敏感屬性
-            for (String attribute : sensitiveAttributes) {
-                dataSet.getDefinition().setAttributeType(attribute, AttributeType.SENSITIVE_ATTRIBUTE);
-                logger.debug("Set sensitive attribute: {}", attribute);
-            }
-            
-            // 創建ARX配置
-            ARXConfiguration config = ARXConfiguration.create();
-            config.addPrivacyModel(new KAnonymity(k));
-            
-            // 為每個敏感屬性添加 l-Diversity 隱私模型
-            for (String sensitiveAttribute : sensitiveAttributes) {
-                config.addPrivacyModel(new EntropyLDiversity(sensitiveAttribute, l));
-            }
-            
-            // 設置隱私模型參數
-            config.setSuppressionLimit(1.0d);
-            config.setQualityModel(Metric.createLossMetric(0.5d));
-            
-            // 設定日期泛化層級
-            config.setMaxOutliers(0.0d);
-            
-            logger.info("ARX configuration completed: k={}, l={}, suppression limit={}", k, l, config.getSuppressionLimit());
-            
-            // 執行匿名化
-            ARXAnonymizer anonymizer = new ARXAnonymizer();
-            ARXResult result = anonymizer.anonymize(dataSet, config);
-            
-            // 檢查結果
-            if (result == null || result.getOutput() == null) {
-                logger.error("Anonymization failed: Unable to find solution satisfying k={}, l={}", k, l);
-                throw new IOException("Unable to find anonymization solution satisfying k=" + k + " and l=" + l + ", please try adjusting parameters or increasing data volume");
-            }
-            
-            // 轉換結果為易於理解的格式
-            DataHandle output = result.getOutput();
-            List<Map<String, String>> anonymizedData = new ArrayList<>();
-            
-            // 獲取所有欄位名稱
-            String[] header = dataSet.getDefinition().getQuasiIdentifyingAttributes().toArray(new String[0]);
-            String[] sensitiveHeader = dataSet.getDefinition().getSensitiveAttributes().toArray(new String[0]);
-            
-            for (int i = 0; i < output.getNumRows(); i++) {
-                Map<String, String> row = new HashMap<>();
-                // 添加準識別符
-                for (int j = 0; j < header.length; j++) {
-                    row.put(header[j], output.getValue(i, j));
-                }
-                // 添加敏感屬性
-                for (int j = 0; j < sensitiveHeader.length; j++) {
-                    row.put(sensitiveHeader[j], output.getValue(i, header.length + j));
+                    String monthStr = String.format("%04d/%02d", year, month);
+                    String quarterStr = String.format("%04d-Q%d", year, (month-1)/3 + 1);
+                    String yearStr = String.format("%04d", year);
+                    String decadeStr = String.format("%d0s", year/10);
+                    
+                    dateHierarchy.add(dateStr, monthStr, quarterStr, yearStr, decadeStr, "*");
                 }
-                anonymizedData.add(row);
             }
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("data", anonymizedData);
-            response.put("statistics", new HashMap<String, Object>() {{
-                put("k", k);
-                put("l", l);
-                put("rows", output.getNumRows());
-                put("columns", header.length);
-                put("informationLoss", calculateInformationLoss(output, header));
-            }});
-            
-            logger.info("Anonymization completed, total rows: {}", output.getNumRows());
-            
-            return response;
-            
-        } catch (IllegalArgumentException e) {
-            logger.error("Data validation failed", e);
-            throw e;
-        } catch (Exception e) {
-            logger.error("Anonymization process failed", e);
-            throw new IOException("Anonymization process failed: " + e.getMessage(), e);
         }
+
+        Map<String, String[][]> result = new HashMap<>();
+        result.put("年齡", ageHierarchy.getHierarchy());
+        result.put("性別", genderHierarchy.getHierarchy());
+        result.put("縣市", cityHierarchy.getHierarchy());
+        result.put("通報日期", dateHierarchy.getHierarchy());
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * 轉換結果為易於理解的格式，資料列以多執行緒轉換
+     */
+    private Map<String, Object> toResponse(AnonymizationResult result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", result.toRows());
+        response.put("statistics", result.getStatistics());
+        return response;
     }
 
     private double calculateInformationLoss(DataHandle output, String[] header) {
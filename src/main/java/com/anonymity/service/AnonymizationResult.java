@@ -0,0 +1,149 @@
+package com.anonymity.service;
+
+import com.anonymity.output.EquivalenceClassWriter;
+import com.anonymity.output.EquivalenceClassWriter.EquivalenceClass;
+import org.deidentifier.arx.DataHandle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 匿名化結果
+ * 直接包裝 ARX 的輸出資料，輸出欄位依序為準識別符、敏感屬性，
+ * 並依欄位名稱對應到 DataHandle 中的實際欄位位置
+ */
+public class AnonymizationResult {
+
+    /** 平行轉換時每個區段的列數上限，列數較少時直接在呼叫端執行緒轉換 */
+    private static final int CONVERSION_CHUNK_ROWS = 16384;
+
+    private final DataHandle input;
+    private final DataHandle output;
+    private final int quasiIdentifierCount;
+    private final String[] header;
+    private final int[] columns;
+    private final Map<String, Object> statistics;
+
+    public AnonymizationResult(DataHandle input, DataHandle output, String[] quasiIdentifiers,
+                               String[] sensitiveAttributes, Map<String, Object> statistics) {
+        this.input = input;
+        this.output = output;
+        this.quasiIdentifierCount = quasiIdentifiers.length;
+        this.header = new String[quasiIdentifiers.length + sensitiveAttributes.length];
+        System.arraycopy(quasiIdentifiers, 0, header, 0, quasiIdentifiers.length);
+        System.arraycopy(sensitiveAttributes, 0, header, quasiIdentifiers.length, sensitiveAttributes.length);
+        this.columns = new int[header.length];
+        for (int j = 0; j < header.length; j++) {
+            columns[j] = output.getColumnIndexOf(header[j]);
+        }
+        this.statistics = statistics;
+    }
+
+    /**
+     * 匿名化前的原始資料，列順序與輸出資料相同
+     */
+    public DataHandle getInput() {
+        return input;
+    }
+
+    public DataHandle getOutput() {
+        return output;
+    }
+
+    /**
+     * 輸出欄位名稱
+     */
+    public String[] getHeader() {
+        return header;
+    }
+
+    /**
+     * 每個輸出欄位在 DataHandle 中的位置
+     */
+    public int[] getColumns() {
+        return columns;
+    }
+
+    public String[] getQuasiIdentifiers() {
+        return Arrays.copyOfRange(header, 0, quasiIdentifierCount);
+    }
+
+    public String[] getSensitiveAttributes() {
+        return Arrays.copyOfRange(header, quasiIdentifierCount, header.length);
+    }
+
+    /**
+     * 依概化後的準識別符組合分組，每個等價類包含筆數與敏感屬性的值分布
+     */
+    public List<EquivalenceClass> groupEquivalenceClasses() {
+        return EquivalenceClassWriter.group(output,
+            Arrays.copyOfRange(columns, 0, quasiIdentifierCount),
+            Arrays.copyOfRange(columns, quasiIdentifierCount, columns.length));
+    }
+
+    /**
+     * 轉換為每列一個 Map（欄位名稱對應值）的列表
+     * 列範圍切成區段在 fork-join pool 上平行轉換，各區段直接寫入預先配置的陣列中屬於自己的位置，不需要合併
+     *
+     * ARX 3.9 的 DataHandle 沒有宣告執行緒安全，這裡依其實作確認多執行緒同時呼叫 getValue 是安全的：
+     * 輸出資料的 getValue 只檢查 registry 與索引範圍，再以 inverseMap 找到欄位所在的 DataMatrix，
+     * 從整數陣列讀出編碼、到字典的 String[][] 取值，過程中不寫入任何欄位，也沒有延遲建立的快取；
+     * DataMatrix 的 iterator 游標狀態只有 ARX 內部計算等價類時使用，getValue 不會用到
+     * 輸出資料與 ARXResult 共用同一份輸出緩衝區，ARXResult 以其他轉換再次 getOutput、
+     * 或 DataHandle 的 sort、swap、release 會改寫或釋放這份緩衝區；AnonymityService 只取得最佳解的輸出，
+     * 之後不再持有 ARXResult，本專案也不使用會改變列順序的操作，因此匿名化完成後輸出資料不會再變動，
+     * 各區段可以共用同一個 DataHandle，不需要另外建立 view 或複製資料
+     */
+    public List<Map<String, String>> toRows() {
+        @SuppressWarnings("unchecked")
+        Map<String, String>[] rows = new Map[output.getNumRows()];
+        ForkJoinPool.commonPool().invoke(new RowConversion(rows, 0, rows.length));
+        return Arrays.asList(rows);
+    }
+
+    private final class RowConversion extends RecursiveAction {
+
+        private final Map<String, String>[] rows;
+        private final int from;
+        private final int to;
+
+        RowConversion(Map<String, String>[] rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CONVERSION_CHUNK_ROWS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowConversion(rows, from, middle), new RowConversion(rows, middle, to));
+                return;
+            }
+            int capacity = header.length * 4 / 3 + 1;
+            for (int i = from; i < to; i++) {
+                Map<String, String> row = new HashMap<>(capacity);
+                for (int j = 0; j < header.length; j++) {
+                    row.put(header[j], output.getValue(i, columns[j]));
+                }
+                rows[i] = row;
+            }
+        }
+    }
+
+    public int getNumRows() {
+        return output.getNumRows();
+    }
+
+    public String getValue(int row, int column) {
+        return output.getValue(row, columns[column]);
+    }
+
+    public Map<String, Object> getStatistics() {
+        return statistics;
+    }
+}
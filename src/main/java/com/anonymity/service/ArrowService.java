@@ -0,0 +1,56 @@
+package com.anonymity.service;
+
+import com.anonymity.ingest.ArrowRowReader;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.ingest.TempFiles;
+import org.deidentifier.arx.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Service
+public class ArrowService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowService.class);
+
+    /**
+     * 讀取上傳的 Arrow IPC 檔案，只保留通過投影條件的欄位並寫入 ARX 資料集
+     */
+    public Data readArrowFile(MultipartFile file, Predicate<String> projection) throws IOException {
+        return readArrowFile(file, projection, name -> false);
+    }
+
+    /**
+     * 同上，suppressed 欄位不解碼，值一律為 *
+     */
+    public Data readArrowFile(MultipartFile file, Predicate<String> projection, Predicate<String> suppressed) throws IOException {
+        return TempFiles.withTempFile(file, ".arrow", temp -> readArrowFile(temp, projection, suppressed));
+    }
+
+    public Data readArrowFile(Path file, Predicate<String> projection) throws IOException {
+        return readArrowFile(file, projection, name -> false);
+    }
+
+    public Data readArrowFile(Path file, Predicate<String> projection, Predicate<String> suppressed) throws IOException {
+        long start = System.currentTimeMillis();
+        List<String[]> buffer = new ArrayList<>();
+        int rows = 0;
+        try (ArrowRowReader reader = new ArrowRowReader(file, projection, suppressed)) {
+            buffer.add(reader.getHeader());
+            while (reader.hasNext()) {
+                buffer.add(reader.next());
+                rows++;
+            }
+            logger.info("讀取 Arrow 完成: {} 筆, 欄位 {}, {} 毫秒",
+                rows, String.join(",", reader.getHeader()), System.currentTimeMillis() - start);
+        }
+        return Data.create(RowIterators.consuming(buffer));
+    }
+}
@@ -0,0 +1,181 @@
+package com.anonymity.service;
+
+import com.anonymity.config.UploadProperties;
+import com.anonymity.ingest.TempFiles.TempFileTask;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分段上傳
+ * 每個分段以 FileChannel 的指定位置寫入（positional write），不同分段可以由不同請求同時寫入同一個檔案，
+ * 資料直接從請求串流寫到磁碟，不會整段留在記憶體中
+ * 上傳狀態只保存在記憶體，服務重新啟動後需要重新上傳
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final UploadProperties properties;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChunkedUploadService(UploadProperties properties) {
+        this.properties = properties;
+    }
+
+    public UploadSession create(String fileName, long totalSize, Integer chunkSize) throws IOException {
+        expireIdleSessions();
+
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("缺少必要參數：fileName");
+        }
+        if (totalSize <= 0 || totalSize > properties.getMaxFileSize()) {
+            throw new IllegalArgumentException("檔案大小必須介於 1 與 " + properties.getMaxFileSize() + " bytes 之間");
+        }
+        int size = chunkSize != null ? chunkSize : properties.getDefaultChunkSize();
+        if (size <= 0 || size > properties.getMaxChunkSize()) {
+            throw new IllegalArgumentException("分段大小必須介於 1 與 " + properties.getMaxChunkSize() + " bytes 之間");
+        }
+        if ((totalSize - 1) / size + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("分段數超過上限 " + Integer.MAX_VALUE + "，請加大分段大小");
+        }
+
+        Path dir = Paths.get(properties.getDir());
+        Files.createDirectories(dir);
+        String id = UUID.randomUUID().toString();
+        Path file = dir.resolve(id + ".part");
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        UploadSession session = new UploadSession(id, fileName, totalSize, size, file, channel);
+        sessions.put(id, session);
+        logger.info("建立分段上傳 {}: {} ({} bytes, {} 段)", id, fileName, totalSize, session.getTotalChunks());
+        return session;
+    }
+
+    public UploadSession get(String id) {
+        UploadSession session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("上傳不存在或已過期：" + id);
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * 將分段內容寫入檔案中對應的位置，重複上傳同一段會覆寫
+     */
+    public UploadSession writeChunk(String id, int index, InputStream in) throws IOException {
+        UploadSession session = get(id);
+        long expected = session.getChunkLength(index);
+        long position = (long) index * session.getChunkSize();
+        FileChannel channel = session.getChannel();
+
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long written = 0;
+        int n;
+        // 多讀一個位元組以偵測超過預期大小的分段
+        while ((n = in.read(buffer, 0, (int) Math.min(buffer.length, expected - written + 1))) > 0) {
+            if (written + n > expected) {
+                throw new IllegalArgumentException("第 " + index + " 段超過預期大小 " + expected + " bytes");
+            }
+            ByteBuffer src = ByteBuffer.wrap(buffer, 0, n);
+            while (src.hasRemaining()) {
+                written += channel.write(src, position + written);
+            }
+        }
+        if (written != expected) {
+            throw new IllegalArgumentException("第 " + index + " 段大小 " + written + " bytes 與預期 " + expected + " bytes 不符");
+        }
+
+        session.markReceived(index);
+        session.touch();
+        return session;
+    }
+
+    /**
+     * 所有分段都上傳後將檔案交給 task 處理，處理成功才刪除檔案
+     * task 失敗時（例如參數或資料驗證不通過）保留上傳，可修正參數後重新完成或取消上傳
+     */
+    public <T> T complete(String id, TempFileTask<T> task) throws IOException {
+        UploadSession session = get(id);
+        if (!session.isComplete()) {
+            throw new IllegalArgumentException("尚有 " + session.getMissingChunks().size() + " 段未上傳");
+        }
+        if (!sessions.remove(id, session)) {
+            throw new IllegalArgumentException("上傳已在處理中：" + id);
+        }
+        T result;
+        try {
+            session.getChannel().force(false);
+            result = task.run(session.getFile());
+        } catch (IOException | RuntimeException e) {
+            session.touch();
+            sessions.put(id, session);
+            throw e;
+        }
+        discard(session);
+        return result;
+    }
+
+    public void abort(String id) throws IOException {
+        UploadSession session = sessions.remove(id);
+        if (session == null) {
+            throw new IllegalArgumentException("上傳不存在或已過期：" + id);
+        }
+        discard(session);
+    }
+
+    private void expireIdleSessions() {
+        long deadline = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(properties.getSessionTimeoutMinutes());
+        for (UploadSession session : sessions.values()) {
+            if (session.getLastAccess() < deadline && sessions.remove(session.getId(), session)) {
+                logger.info("清除逾時的分段上傳 {}: {}", session.getId(), session.getFileName());
+                try {
+                    discard(session);
+                } catch (IOException e) {
+                    logger.warn("無法刪除逾時的上傳檔案: {}", session.getFile(), e);
+                }
+            }
+        }
+    }
+
+    private void discard(UploadSession session) throws IOException {
+        try {
+            session.close();
+        } finally {
+            Files.deleteIfExists(session.getFile());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (UploadSession session : sessions.values()) {
+            try {
+                discard(session);
+            } catch (IOException e) {
+                logger.warn("無法刪除上傳檔案: {}", session.getFile(), e);
+            }
+        }
+        sessions.clear();
+    }
+}
@@ -1,6 +1,10 @@
 package com.anonymity.service;
 
+import com.anonymity.controller.dto.DatasetPayload;
 import com.anonymity.controller.dto.DifferentialPrivacyRequest;
+import com.anonymity.ingest.JsonRowReader;
+import com.anonymity.ingest.RowIterators;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.deidentifier.arx.*;
 import org.deidentifier.arx.criteria.EDDifferentialPrivacy;
@@ -9,9 +13,12 @@ import org.deidentifier.arx.criteria.DistinctLDiversity;
 import org.deidentifier.arx.AttributeType.Hierarchy;
 import org.deidentifier.arx.AttributeType.Hierarchy.DefaultHierarchy;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import org.deidentifier.arx.DataGeneralizationScheme.GeneralizationDegree;
@@ -25,7 +32,30 @@ public class DifferentialPrivacyService {
         this.objectMapper = objectMapper;
     }
     
-    private void setupHierarchies(Data.DefaultData arxData, String[] attributes) {
+    /**
+     * setupHierarchies 有明確分類的欄位，其他欄位一律設為非敏感欄位
+     * 欄位式檔案匯入時只讀取這些欄位
+     */
+    public static final Set<String> CLASSIFIED_ATTRIBUTES = Set.of(
+        "身分證", "手機", "姓名",
+        "年齡", "性別", "縣市", "郵遞區號", "通報日期",
+        "是否確診", "疾病", "檢驗結果"
+    );
+    
+    /**
+     * setupHierarchies 設為識別欄位的欄位，ARX 輸出時一律為 *
+     * 載入 ARX 前就將值換成 *，身分證等每列不同的值不會進入 ARX 的字典，輸出的欄位不變
+     */
+    public static final Set<String> IDENTIFYING_ATTRIBUTES = Set.of("身分證", "手機", "姓名");
+
+    /**
+     * 將識別欄位的值換成 *，第一列為標題
+     */
+    public static Iterator<String[]> suppressIdentifiers(Iterator<String[]> rowsWithHeader) {
+        return RowIterators.suppress(rowsWithHeader, IDENTIFYING_ATTRIBUTES::contains);
+    }
+
+    private void setupHierarchies(Data arxData, String[] attributes) {
         // System.out.println("\n=== 開始設定欄位類型與泛化層級 ===");
         // System.out.println("總欄位數：" + attributes.length);
         
@@ -143,15 +173,14 @@ public class DifferentialPrivacyService {
             //準識別欄位:年齡/性別/縣市/通報日期/郵遞區號
             //敏感欄位:是否確診/疾病/檢驗結果
             //非敏感欄位:其他
+            if (IDENTIFYING_ATTRIBUTES.contains(attribute)) {
+                arxData.getDefinition().setAttributeType(attribute, AttributeType.IDENTIFYING_ATTRIBUTE);
+                arxData.getDefinition().setDataType(attribute, DataType.STRING);
+                // System.out.println("  - 類型：識別欄位");
+                // System.out.println("  - 資料型態：字串");
+                continue;
+            }
             switch (attribute) {
-                case "身分證":
-                case "手機":
-                case "姓名":
-                    arxData.getDefinition().setAttributeType(attribute, AttributeType.IDENTIFYING_ATTRIBUTE);
-                    arxData.getDefinition().setDataType(attribute, DataType.STRING);
-                    // System.out.println("  - 類型：識別欄位");
-                    // System.out.println("  - 資料型態：字串");
-                    break;
                 case "年齡":
                     arxData.getDefinition().setAttributeType(attribute, AttributeType.QUASI_IDENTIFYING_ATTRIBUTE);
                     arxData.getDefinition().setDataType(attribute, DataType.INTEGER);
@@ -226,85 +255,106 @@ public class DifferentialPrivacyService {
         // System.out.println("\n=== 欄位設定完成 ===");
     }
 
+    /**
+     * 建立 ARX 數據集，資料列在 ARX 編碼時才從 JSON 解析或從請求中取出，不會另外複製一份
+     * 識別欄位在交給 ARX 前換成 *
+     */
+    private Data createData(DatasetPayload data) throws IOException {
+        if (data.isJson()) {
+            // 以字串為來源的解析器不持有外部資源，ARX 走訪完即可回收
+            JsonParser parser = objectMapper.getFactory().createParser(data.getJson());
+            parser.nextToken();
+            JsonRowReader reader = new JsonRowReader(parser);
+            return Data.create(suppressIdentifiers(RowIterators.withHeader(reader.getHeader(), reader)));
+        }
+        return Data.create(suppressIdentifiers(RowIterators.withHeader(data.getHeader(), RowIterators.consuming(data.getRows()))));
+    }
+
     public Map<String, Object> applyDifferentialPrivacy(String data, double epsilon, double delta, boolean isDataIndependent) {
-        try {
-            // 解析輸入數據
-            List<Map<String, String>> inputData = objectMapper.readValue(data, List.class);
-            
-            // 創建 ARX 數據集
-            Data.DefaultData arxData = Data.create();
-            
-            // 添加屬性
-            if (!inputData.isEmpty()) {
-                Map<String, String> firstRow = inputData.get(0);
-                String[] attributes = firstRow.keySet().toArray(new String[0]);
-                arxData.add(attributes);
-                
-                // 設定泛化層級
-                setupHierarchies(arxData, attributes);
-            }
-            
-            // 添加數據
-            for (Map<String, String> row : inputData) {
-                String[] values = new String[row.size()];
-                int i = 0;
-                for (String value : row.values()) {
-                    values[i++] = value;
-                }
-                arxData.add(values);
-            }
-            
-            // 配置差分隱私
-            ARXConfiguration config = ARXConfiguration.create();
-            config.setSuppressionLimit(0.1d);
-            config.setHeuristicSearchTimeLimit(60); // 設定 60 秒超時
-            
-            // 為直接標記為敏感屬性的欄位添加隱私模型
-            for (String attribute : arxData.getDefinition().getSensitiveAttributes()) {
-                //比較寬鬆的設定,適用於測試與開發
-                config.addPrivacyModel(new DistinctLDiversity(attribute, 2));
+        return applyDifferentialPrivacy(DatasetPayload.of(data), epsilon, delta, isDataIndependent);
+    }
 
-                //照理說第二參數應該是在2~10之間,但是可以設定1/1.4這樣
-                //config.addPrivacyModel(new EntropyLDiversity(attribute, 1.4));
-            }
-            
-            if (isDataIndependent) {
-                // 資料獨立差分隱私
-                DataGeneralizationScheme scheme = DataGeneralizationScheme.create(arxData, GeneralizationDegree.MEDIUM);
-                config.addPrivacyModel(new EDDifferentialPrivacy(epsilon, delta, scheme));
-            } else {
-                // 資料相依差分隱私
-                config.addPrivacyModel(new EDDifferentialPrivacy(epsilon, delta));
-                config.setDPSearchBudget(0.1d);  // double dpSearchBudget = Additional epsilon for search process
-                config.setHeuristicSearchStepLimit(160);
-            }
-            
-            // 執行匿名化
-            ARXAnonymizer anonymizer = new ARXAnonymizer();
-            ARXResult result = anonymizer.anonymize(arxData, config);
-            
-            // 處理結果
-            List<List<String>> anonymizedResult = new ArrayList<>();
-            DataHandle handle = result.getOutput();
-            for (int i = 0; i < handle.getNumRows(); i++) {
-                List<String> row = new ArrayList<>();
-                for (int j = 0; j < handle.getNumColumns(); j++) {
-                    row.add(handle.getValue(i, j));
-                }
-                anonymizedResult.add(row);
+    public Map<String, Object> applyDifferentialPrivacy(DatasetPayload data, double epsilon, double delta, boolean isDataIndependent) {
+        DataHandle handle = anonymize(data, epsilon, delta, isDataIndependent);
+        
+        // 處理結果
+        List<List<String>> anonymizedResult = new ArrayList<>();
+        for (int i = 0; i < handle.getNumRows(); i++) {
+            List<String> row = new ArrayList<>();
+            for (int j = 0; j < handle.getNumColumns(); j++) {
+                row.add(handle.getValue(i, j));
             }
-            
-            return Map.of(
-                "epsilon", epsilon,
-                "delta", delta,
-                "isDataIndependent", isDataIndependent,
-                "result", anonymizedResult
-            );
-            
+            anonymizedResult.add(row);
+        }
+        
+        return Map.of(
+            "epsilon", epsilon,
+            "delta", delta,
+            "isDataIndependent", isDataIndependent,
+            "result", anonymizedResult
+        );
+    }
+
+    /**
+     * 對請求資料套用差分隱私，回傳 ARX 的輸出資料，供串流輸出使用
+     */
+    public DataHandle anonymize(DatasetPayload data, double epsilon, double delta, boolean isDataIndependent) {
+        try {
+            // 創建 ARX 數據集
+            return anonymize(createData(data), epsilon, delta, isDataIndependent);
         } catch (Exception e) {
             // 只輸出錯誤訊息，不包含資料內容
             throw new RuntimeException(String.format("差分隱私處理失敗 (epsilon=%.2f, delta=%.5f): %s", 
                 epsilon, delta, e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 對已載入的 ARX 數據集套用差分隱私，回傳 ARX 的輸出資料（欄位名稱取自資料集本身）
+     */
+    public DataHandle anonymize(Data arxData, double epsilon, double delta, boolean isDataIndependent) throws IOException {
+        DataHandle input = arxData.getHandle();
+        String[] attributes = new String[input.getNumColumns()];
+        for (int j = 0; j < attributes.length; j++) {
+            attributes[j] = input.getAttributeName(j);
+        }
+        return anonymize(arxData, attributes, epsilon, delta, isDataIndependent);
+    }
+
+    private DataHandle anonymize(Data arxData, String[] attributes, double epsilon, double delta, boolean isDataIndependent) throws IOException {
+        // 設定泛化層級
+        if (attributes.length > 0) {
+            setupHierarchies(arxData, attributes);
+        }
+        
+        // 配置差分隱私
+        ARXConfiguration config = ARXConfiguration.create();
+        config.setSuppressionLimit(0.1d);
+        config.setHeuristicSearchTimeLimit(60); // 設定 60 秒超時
+        
+        // 為直接標記為敏感屬性的欄位添加隱私模型
+        for (String attribute : arxData.getDefinition().getSensitiveAttributes()) {
+            //比較寬鬆的設定,適用於測試與開發
+            config.addPrivacyModel(new DistinctLDiversity(attribute, 2));
+
+            //照理說第二參數應該是在2~10之間,但是可以設定1/1.4這樣
+            //config.addPrivacyModel(new EntropyLDiversity(attribute, 1.4));
+        }
+        
+        if (isDataIndependent) {
+            // 資料獨立差分隱私
+            DataGeneralizationScheme scheme = DataGeneralizationScheme.create(arxData, GeneralizationDegree.MEDIUM);
+            config.addPrivacyModel(new EDDifferentialPrivacy(epsilon, delta, scheme));
+        } else {
+            // 資料相依差分隱私
+            config.addPrivacyModel(new EDDifferentialPrivacy(epsilon, delta));
+            config.setDPSearchBudget(0.1d);  // double dpSearchBudget = Additional epsilon for search process
+            config.setHeuristicSearchStepLimit(160);
+        }
+        
+        // 執行匿名化
+        ARXAnonymizer anonymizer = new ARXAnonymizer();
+        ARXResult result = anonymizer.anonymize(arxData, config);
+        return result.getOutput();
+    }
+}
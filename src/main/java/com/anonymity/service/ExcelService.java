@@ -1,70 +1,164 @@
 package com.anonymity.service;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.ingest.TempFiles;
+import com.anonymity.ingest.XlsxSheetReader;
+import org.deidentifier.arx.Data;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ExcelService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(ExcelService.class);
-    
+
+    /** 同時處理的工作表數，每個工作表的匿名化都會佔用一份資料的記憶體 */
+    private static final int SHEET_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final AtomicInteger sheetThreads = new AtomicInteger();
+
+    private final ExecutorService sheetExecutor = Executors.newFixedThreadPool(SHEET_WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "excel-sheet-" + sheetThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private AnonymityService anonymityService;
+
     public Map<String, Object> processExcelFile(MultipartFile file, int k, int l) throws IOException {
-        Workbook workbook = null;
-        try {
-            workbook = new XSSFWorkbook(file.getInputStream());
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            // 讀取標題行
-            Row headerRow = sheet.getRow(0);
-            List<String> headers = new ArrayList<>();
-            for (Cell cell : headerRow) {
-                headers.add(cell.getStringCellValue());
+        List<Map<String, String>> data = new ArrayList<>();
+        TempFiles.withTempFile(file, ".xlsx", temp -> {
+            try (XlsxSheetReader reader = new XlsxSheetReader(temp.toFile())) {
+                String[][] headers = new String[1][];
+                reader.readFirstSheet(values -> {
+                    if (headers[0] == null) {
+                        headers[0] = values;
+                        return;
+                    }
+                    Map<String, String> rowData = new LinkedHashMap<>();
+                    for (int j = 0; j < headers[0].length; j++) {
+                        rowData.put(headers[0][j], values[j]);
+                    }
+                    data.add(rowData);
+                });
             }
-            
-            // 讀取數據
-            List<Map<String, String>> data = new ArrayList<>();
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                Map<String, String> rowData = new HashMap<>();
-                for (int j = 0; j < headers.size(); j++) {
-                    Cell cell = row.getCell(j);
-                    String value = getCellValueAsString(cell);
-                    rowData.put(headers.get(j), value);
+            return null;
+        });
+
+        // 準備匿名化請求
+        Map<String, Object> request = new HashMap<>();
+        request.put("data", data);
+        request.put("quasiIdentifiers", Arrays.asList("年齡", "性別", "縣市", "通報日期"));
+        request.put("sensitiveAttributes", Arrays.asList("疾病", "檢驗結果", "是否確診"));
+        request.put("k", k);
+        request.put("l", l);
+
+        return request;
+    }
+
+    /**
+     * 以事件模型串流讀取第一個工作表，資料列直接寫入 ARX 資料集
+     */
+    public Data readExcelFile(MultipartFile file) throws IOException {
+        return TempFiles.withTempFile(file, ".xlsx", temp -> readExcelFile(temp.toFile()));
+    }
+
+    public Data readExcelFile(File file) throws IOException {
+        long start = System.currentTimeMillis();
+        List<String[]> buffer = new ArrayList<>();
+        int[] rows = new int[1];
+        try (XlsxSheetReader reader = new XlsxSheetReader(file)) {
+            reader.readFirstSheet(values -> {
+                buffer.add(values);
+                rows[0]++;
+            });
+        }
+        logger.info("讀取 Excel 完成: {} 列（含標題）, {} 毫秒", rows[0], System.currentTimeMillis() - start);
+        return Data.create(RowIterators.consuming(buffer));
+    }
+
+    /**
+     * 匿名化活頁簿中的每個工作表
+     * 各工作表在有上限的執行緒池中同時解析與匿名化，概化層級由所有工作表共用，
+     * 單一工作表失敗（例如資料不足以滿足 k 值）只會記錄在該工作表的結果中
+     */
+    public List<Map<String, Object>> anonymizeWorkbook(MultipartFile file,
+                                                       List<String> quasiIdentifiers,
+                                                       List<String> sensitiveAttributes,
+                                                       int k,
+                                                       double l) throws IOException {
+        return TempFiles.withTempFile(file, ".xlsx", temp -> {
+            try (XlsxSheetReader reader = new XlsxSheetReader(temp.toFile())) {
+                List<String> sheetNames = reader.getSheetNames();
+                if (sheetNames.isEmpty()) {
+                    throw new IllegalArgumentException("Excel 檔案沒有工作表");
+                }
+
+                // anonymizeSheet 會捕捉工作表本身的錯誤並記錄在結果中，join 不會因單一工作表失敗而拋出
+                List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+                for (int i = 0; i < sheetNames.size(); i++) {
+                    int index = i;
+                    futures.add(CompletableFuture.supplyAsync(() ->
+                        anonymizeSheet(reader, index, quasiIdentifiers, sensitiveAttributes, k, l), sheetExecutor));
+                }
+
+                List<Map<String, Object>> results = new ArrayList<>();
+                for (CompletableFuture<Map<String, Object>> future : futures) {
+                    results.add(future.join());
                 }
-                data.add(rowData);
+                return results;
             }
-            
-            // 準備匿名化請求
-            Map<String, Object> request = new HashMap<>();
-            request.put("data", data);
-            request.put("quasiIdentifiers", Arrays.asList("年齡", "性別", "縣市", "通報日期"));
-            request.put("sensitiveAttributes", Arrays.asList("疾病", "檢驗結果", "是否確診"));
-            request.put("k", k);
-            request.put("l", l);
-            
-            return request;
-        } finally {
-            
-        }
+        });
     }
-    
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return "";
-        
+
+    private Map<String, Object> anonymizeSheet(XlsxSheetReader reader, int index,
+                                               List<String> quasiIdentifiers,
+                                               List<String> sensitiveAttributes,
+                                               int k,
+                                               double l) {
+        String sheetName = reader.getSheetNames().get(index);
+        Map<String, Object> sheetResult = new LinkedHashMap<>();
+        sheetResult.put("sheet", sheetName);
         try {
-            return cell.getStringCellValue();
+            long start = System.currentTimeMillis();
+            List<String[]> buffer = new ArrayList<>();
+            reader.readSheet(index, buffer::add);
+            Data dataSet = Data.create(RowIterators.consuming(buffer));
+            long parseMillis = System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            Map<String, Object> result = anonymityService.anonymizeData(dataSet, quasiIdentifiers, sensitiveAttributes, k, l);
+            long anonymizeMillis = System.currentTimeMillis() - start;
+
+            sheetResult.put("success", true);
+            sheetResult.put("parseMillis", parseMillis);
+            sheetResult.put("anonymizeMillis", anonymizeMillis);
+            sheetResult.put("data", result.get("data"));
+            sheetResult.put("statistics", result.get("statistics"));
+            logger.info("工作表 {} 處理完成: 解析 {} 毫秒, 匿名化 {} 毫秒", sheetName, parseMillis, anonymizeMillis);
         } catch (Exception e) {
-            logger.error("轉換單元格值時發生錯誤", e);
-            return "";
+            logger.error("工作表 {} 處理失敗", sheetName, e);
+            sheetResult.put("success", false);
+            sheetResult.put("error", e.getMessage());
         }
+        return sheetResult;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sheetExecutor.shutdownNow();
     }
-} 
\ No newline at end of file
+}
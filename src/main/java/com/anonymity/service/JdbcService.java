@@ -0,0 +1,143 @@
+package com.anonymity.service;
+
+import com.anonymity.config.JdbcSourceProperties;
+import com.anonymity.ingest.JdbcRowReader;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.output.JdbcResultWriter;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service
+public class JdbcService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcService.class);
+
+    /** 資料表與欄位名稱只允許文字、數字與底線（資料表可加上 schema），避免 SQL 注入 */
+    private static final Pattern TABLE_NAME = Pattern.compile("[\\p{L}\\p{N}_]+(\\.[\\p{L}\\p{N}_]+)?");
+    private static final Pattern COLUMN_NAME = Pattern.compile("[\\p{L}\\p{N}_]+");
+
+    private final JdbcSourceProperties properties;
+
+    @Autowired
+    public JdbcService(JdbcSourceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 從設定檔中的資料來源讀取資料表的指定欄位
+     */
+    public Data readTable(String source, String table, List<String> columns, Integer fetchSize) throws SQLException {
+        JdbcSourceProperties.Source config = properties.getSources().get(source);
+        if (config == null) {
+            throw new IllegalArgumentException("未定義的資料來源：" + source);
+        }
+        try (Connection connection = DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword())) {
+            connection.setReadOnly(true);
+            return readTable(connection, table, columns, fetchSize != null ? fetchSize : properties.getFetchSize());
+        }
+    }
+
+    public Data readTable(Connection connection, String table, List<String> columns, int fetchSize) throws SQLException {
+        validateIdentifiers(table, columns);
+        // 依請求的欄位名稱命名，不受資料庫大小寫轉換影響
+        return read(connection, "SELECT " + String.join(", ", columns) + " FROM " + table, fetchSize,
+            columns.toArray(new String[0]));
+    }
+
+    /**
+     * 將匿名化結果以批次 INSERT 寫入設定檔中目標資料庫的既有資料表，欄位名稱與結果欄位相同
+     *
+     * @return 寫入的列數
+     */
+    public int writeTable(String target, String table, AnonymizationResult result, Integer batchSize) throws SQLException {
+        JdbcSourceProperties.Source config = target(target);
+        try (Connection connection = DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword())) {
+            return writeTable(connection, table, result.getOutput(), result.getHeader(), result.getColumns(),
+                batchSize != null ? batchSize : properties.getBatchSize());
+        }
+    }
+
+    /**
+     * 在匿名化之前檢查寫入目標、資料表名稱與批次大小，避免處理完才發現參數錯誤
+     */
+    public void validateTarget(String target, String table, Integer batchSize) {
+        target(target);
+        if (table == null || table.isBlank()) {
+            throw new IllegalArgumentException("缺少必要參數：targetTable");
+        }
+        validateTableName(table);
+        if (batchSize != null && batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必須大於 0");
+        }
+    }
+
+    private JdbcSourceProperties.Source target(String target) {
+        JdbcSourceProperties.Source config = properties.getTargets().get(target);
+        if (config == null) {
+            throw new IllegalArgumentException("未定義的寫入目標：" + target);
+        }
+        return config;
+    }
+
+    public int writeTable(Connection connection, String table, DataHandle handle, String[] names, int[] columns,
+                          int batchSize) throws SQLException {
+        validateIdentifiers(table, Arrays.asList(names));
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必須大於 0");
+        }
+        long start = System.currentTimeMillis();
+        int rows = JdbcResultWriter.write(handle, names, columns, connection, table, batchSize);
+        logger.info("寫入資料庫完成: {} 筆, batch size {}, {} 毫秒", rows, batchSize, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private static void validateIdentifiers(String table, List<String> columns) {
+        validateTableName(table);
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一個欄位");
+        }
+        for (String column : columns) {
+            if (column == null || !COLUMN_NAME.matcher(column).matches()) {
+                throw new IllegalArgumentException("欄位名稱不合法：" + column);
+            }
+        }
+    }
+
+    private static void validateTableName(String table) {
+        if (table == null || !TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("資料表名稱不合法：" + table);
+        }
+    }
+
+    /**
+     * 以 forward-only 游標逐列讀取查詢結果並寫入 ARX 資料集
+     */
+    public Data readQuery(Connection connection, String sql, int fetchSize) throws SQLException {
+        return read(connection, sql, fetchSize, null);
+    }
+
+    private Data read(Connection connection, String sql, int fetchSize, String[] header) throws SQLException {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize 必須大於 0");
+        }
+        long start = System.currentTimeMillis();
+        try (JdbcRowReader reader = new JdbcRowReader(connection, sql, fetchSize)) {
+            Data data = Data.create(RowIterators.withHeader(header != null ? header : reader.getHeader(), reader));
+            // ARX 在建立 handle 時才逐列走訪游標，必須在游標關閉前完成，資料列不另外緩衝
+            int rows = data.getHandle().getNumRows();
+            logger.info("讀取資料庫完成: {} 筆, fetch size {}, {} 毫秒", rows, fetchSize, System.currentTimeMillis() - start);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.anonymity.service;
+
+import com.anonymity.config.ResultProperties;
+import com.anonymity.store.ColumnarTable;
+import org.deidentifier.arx.DataHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在伺服器端保存匿名化結果，讓前端分頁查詢，不必一次下載整份結果
+ * 只保存在記憶體，數量與閒置時間有上限，服務重新啟動後需要重新執行匿名化
+ * 保存時將輸出複製成欄式資料表（依 anonymity.results.storage 放在 heap 或堆外），不再保留 ARX 的資料與搜尋結果
+ */
+@Service
+public class ResultStore {
+
+    /** 保存後的結果編號放在此回應標頭 */
+    public static final String RESULT_ID_HEADER = "X-Anonymity-Result-Id";
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultStore.class);
+
+    private final ResultProperties properties;
+    private final Map<String, StoredResult> results = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResultStore(ResultProperties properties) {
+        this.properties = properties;
+    }
+
+    public String save(AnonymizationResult result) {
+        return save(result.getOutput(), result.getHeader(), result.getColumns());
+    }
+
+    /**
+     * @param handle  ARX 輸出資料
+     * @param names   輸出欄位名稱
+     * @param columns 每個輸出欄位在 handle 中的位置
+     * @return 結果編號，設定為不保存時為 null
+     */
+    public String save(DataHandle handle, String[] names, int[] columns) {
+        if (properties.getMaxResults() <= 0) {
+            return null;
+        }
+        expireIdleResults();
+
+        String id = UUID.randomUUID().toString();
+        ColumnarTable table = ColumnarTable.fromHandle(handle, names, columns, properties.getStorage());
+        results.put(id, new StoredResult(id, table));
+        while (results.size() > properties.getMaxResults()) {
+            results.values().stream()
+                .min(Comparator.comparingLong(StoredResult::getLastAccess))
+                .ifPresent(oldest -> {
+                    if (results.remove(oldest.getId(), oldest)) {
+                        logger.info("結果數量超過上限，移除最久未使用的結果 {}", oldest.getId());
+                    }
+                });
+        }
+        logger.info("保存匿名化結果 {}（{} 筆，約 {} KB）", id, table.getNumRows(), table.getEstimatedBytes() / 1024);
+        return id;
+    }
+
+    public StoredResult get(String id) {
+        expireIdleResults();
+        StoredResult result = results.get(id);
+        if (result == null) {
+            throw new IllegalArgumentException("結果不存在或已過期：" + id);
+        }
+        result.touch();
+        return result;
+    }
+
+    public void remove(String id) {
+        if (results.remove(id) == null) {
+            throw new IllegalArgumentException("結果不存在或已過期：" + id);
+        }
+    }
+
+    private void expireIdleResults() {
+        long now = System.nanoTime();
+        long ttl = TimeUnit.MINUTES.toNanos(properties.getTtlMinutes());
+        for (StoredResult result : results.values()) {
+            if (now - result.getLastAccess() > ttl && results.remove(result.getId(), result)) {
+                logger.info("移除逾時的結果 {}", result.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.anonymity.service;
+
+import com.anonymity.store.ColumnarTable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 保存在伺服器端的匿名化結果
+ * 資料列只在查詢時從欄式資料表取出指定範圍，排序時建立各欄位的列順序並保留，
+ * 之後以同一欄位排序的分頁查詢不需要重新排序
+ * 排序建立的列順序快取不是執行緒安全的，查詢以物件鎖依序進行
+ */
+public class StoredResult {
+
+    private final String id;
+    private final ColumnarTable table;
+    private final String[] names;
+    private final Map<Integer, int[]> orders = new HashMap<>();
+    private volatile long lastAccess;
+
+    StoredResult(String id, ColumnarTable table) {
+        this.id = id;
+        this.table = table;
+        this.names = table.getHeader();
+        touch();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String[] getColumnNames() {
+        return names;
+    }
+
+    public int getNumRows() {
+        return table.getNumRows();
+    }
+
+    /**
+     * 取出排序後第 offset 列起最多 limit 列
+     *
+     * @param sortColumn 排序欄位名稱，null 時依原本順序
+     * @param descending 是否遞減排序，未指定排序欄位時忽略
+     */
+    public synchronized List<Map<String, String>> getRows(int offset, int limit, String sortColumn, boolean descending) {
+        int rows = table.getNumRows();
+        int from = Math.min(offset, rows);
+        int to = (int) Math.min(rows, (long) from + limit);
+        int[] order = sortColumn != null ? order(columnOf(sortColumn)) : null;
+
+        List<Map<String, String>> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int row = order == null ? i : order[descending ? rows - 1 - i : i];
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int j = 0; j < names.length; j++) {
+                values.put(names[j], table.getValue(row, j));
+            }
+            page.add(values);
+        }
+        return page;
+    }
+
+    private int columnOf(String name) {
+        for (int j = 0; j < names.length; j++) {
+            if (names[j].equals(name)) {
+                return j;
+            }
+        }
+        throw new IllegalArgumentException("結果中沒有欄位：" + name);
+    }
+
+    /**
+     * 依欄位值排序後的列順序
+     * 匿名化後每個欄位只剩少數不同的值，先為不同的值排序，再以計數排序排列各列，值相同的列保持原本順序
+     */
+    private int[] order(int column) {
+        int[] order = orders.get(column);
+        if (order != null) {
+            return order;
+        }
+        int rows = table.getNumRows();
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] codeOfRow = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            String value = table.getValue(i, column);
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            codeOfRow[i] = code;
+        }
+
+        Integer[] sorted = new Integer[values.size()];
+        for (int c = 0; c < sorted.length; c++) {
+            sorted[c] = c;
+        }
+        Arrays.sort(sorted, (a, b) -> compareValues(values.get(a), values.get(b)));
+        int[] rank = new int[sorted.length];
+        for (int r = 0; r < sorted.length; r++) {
+            rank[sorted[r]] = r;
+        }
+
+        int[] start = new int[sorted.length + 1];
+        for (int code : codeOfRow) {
+            start[rank[code] + 1]++;
+        }
+        for (int r = 1; r < start.length; r++) {
+            start[r] += start[r - 1];
+        }
+        order = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            order[start[rank[codeOfRow[i]]]++] = i;
+        }
+        orders.put(column, order);
+        return order;
+    }
+
+    /**
+     * 數字依數值比較並排在其他值之前，其他值依字串比較
+     */
+    private static int compareValues(String a, String b) {
+        BigDecimal x = toNumber(a);
+        BigDecimal y = toNumber(b);
+        if (x != null && y != null) {
+            return x.compareTo(y);
+        }
+        if (x != null || y != null) {
+            return x != null ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static BigDecimal toNumber(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+}
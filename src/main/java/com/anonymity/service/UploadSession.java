@@ -0,0 +1,110 @@
+package com.anonymity.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 進行中的分段上傳
+ * 各分段依編號寫入檔案中的固定位置，可以不依順序、同時上傳，失敗的分段重新上傳即可
+ */
+public class UploadSession {
+
+    private final String id;
+    private final String fileName;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final Path file;
+    private final FileChannel channel;
+    private final BitSet received;
+    private volatile long lastAccess;
+
+    UploadSession(String id, String fileName, long totalSize, int chunkSize, Path file, FileChannel channel) {
+        this.id = id;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.file = file;
+        this.channel = channel;
+        this.received = new BitSet(totalChunks);
+        touch();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * 指定分段的位元組數，最後一段可能小於分段大小
+     */
+    long getChunkLength(int index) {
+        if (index < 0 || index >= totalChunks) {
+            throw new IllegalArgumentException("分段編號超出範圍：" + index + "（共 " + totalChunks + " 段）");
+        }
+        return Math.min(chunkSize, totalSize - (long) index * chunkSize);
+    }
+
+    synchronized void markReceived(int index) {
+        received.set(index);
+    }
+
+    public synchronized int getReceivedChunks() {
+        return received.cardinality();
+    }
+
+    public synchronized boolean isComplete() {
+        return received.cardinality() == totalChunks;
+    }
+
+    /**
+     * 尚未上傳的分段編號，供中斷後續傳
+     */
+    public synchronized List<Integer> getMissingChunks() {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = received.nextClearBit(0); i < totalChunks; i = received.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return missing;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
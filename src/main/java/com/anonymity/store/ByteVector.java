@@ -0,0 +1,82 @@
+package com.anonymity.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 只能附加的位元組區段，存放未字典編碼的文字欄位內容
+ * 區段配置方式與 IntVector.Segmented 相同，一個值可以跨兩個區段
+ */
+final class ByteVector {
+
+    private static final int SEGMENT_SHIFT = 22;
+    private static final int SEGMENT_BYTES = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_BYTES - 1;
+
+    private final ColumnStorage storage;
+    private ByteBuffer[] segments;
+    private long capacity;
+    private long size;
+
+    ByteVector(ColumnStorage storage) {
+        this.storage = storage;
+        this.segments = new ByteBuffer[]{storage.allocate(4096)};
+        this.capacity = 4096;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long bytes() {
+        return capacity;
+    }
+
+    /**
+     * 附加內容，回傳附加後的總長度
+     */
+    long append(byte[] value) {
+        while (size + value.length > capacity) {
+            grow();
+        }
+        int written = 0;
+        while (written < value.length) {
+            ByteBuffer segment = segments[(int) (size >>> SEGMENT_SHIFT)];
+            int position = (int) (size & SEGMENT_MASK);
+            int length = Math.min(value.length - written, segment.capacity() - position);
+            segment.put(position, value, written, length);
+            written += length;
+            size += length;
+        }
+        return size;
+    }
+
+    byte[] read(long offset, int length) {
+        byte[] value = new byte[length];
+        int read = 0;
+        while (read < length) {
+            ByteBuffer segment = segments[(int) (offset >>> SEGMENT_SHIFT)];
+            int position = (int) (offset & SEGMENT_MASK);
+            int chunk = Math.min(length - read, segment.capacity() - position);
+            segment.get(position, value, read, chunk);
+            read += chunk;
+            offset += chunk;
+        }
+        return value;
+    }
+
+    private void grow() {
+        if (capacity < SEGMENT_BYTES) {
+            ByteBuffer first = storage.allocate((int) capacity * 2);
+            ByteBuffer old = segments[0].duplicate();
+            old.clear();
+            first.put(old).clear();
+            segments[0] = first;
+            capacity *= 2;
+        } else {
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = storage.allocate(SEGMENT_BYTES);
+            capacity += SEGMENT_BYTES;
+        }
+    }
+}
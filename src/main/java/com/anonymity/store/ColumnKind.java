@@ -0,0 +1,19 @@
+package com.anonymity.store;
+
+/**
+ * 欄式資料表中欄位的儲存方式
+ */
+public enum ColumnKind {
+
+    /** 分類欄位，以字典編碼成 int 代碼 */
+    CATEGORICAL,
+
+    /** 整數欄位，例如年齡 */
+    INTEGER,
+
+    /** yyyy/MM/dd 日期欄位，以 epoch-day 儲存，例如通報日期 */
+    DATE,
+
+    /** 不編碼的文字欄位，每格存放 UTF-8 內容，用於唯一值過多的欄位，例如身分證 */
+    TEXT
+}
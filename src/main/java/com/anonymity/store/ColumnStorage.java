@@ -0,0 +1,75 @@
+package com.anonymity.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 欄式資料表的代碼、數值與文字內容存放的位置
+ *
+ * 堆外的區段在對應的 ByteBuffer 被回收時才釋放；DIRECT 受 -XX:MaxDirectMemorySize 限制，
+ * MAPPED 由作業系統的分頁快取承擔，容器記憶體不足時可以寫回暫存檔
+ */
+public enum ColumnStorage {
+
+    /** 一般的 Java 陣列 */
+    HEAP,
+
+    /** 以 ByteBuffer.allocateDirect 配置的堆外記憶體 */
+    DIRECT,
+
+    /** 記憶體映射的暫存檔，映射後暫存檔即刪除，只留下映射 */
+    MAPPED;
+
+    IntVector newIntVector() {
+        return this == HEAP ? new IntVector.Heap() : new IntVector.Segmented(this);
+    }
+
+    ByteVector newByteVector() {
+        return new ByteVector(this);
+    }
+
+    /**
+     * 配置一個區段，位元組順序為本機順序
+     */
+    ByteBuffer allocate(int bytes) {
+        ByteBuffer buffer;
+        switch (this) {
+            case DIRECT:
+                buffer = ByteBuffer.allocateDirect(bytes);
+                break;
+            case MAPPED:
+                buffer = map(bytes);
+                break;
+            default:
+                buffer = ByteBuffer.allocate(bytes);
+        }
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer map(int bytes) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("anonymity-store-", ".bin");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立記憶體映射暫存檔", e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // DELETE_ON_CLOSE 已刪除或由作業系統回收
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.anonymity.store;
+
+import com.anonymity.ingest.RowIterators;
+import org.deidentifier.arx.DataHandle;
+import org.deidentifier.arx.DataType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 欄式資料表，請求資料在驗證與交給 ARX 之前的內部表示
+ * - 分類欄位（縣市、性別、疾病…）以字典編碼，每格只存 int 代碼，相同的值共用同一個 String
+ * - 整數欄位（年齡）與日期欄位（通報日期，以 epoch-day 儲存）直接存成 int[]
+ * - 唯一值超過 MAX_DICTIONARY_SIZE 的欄位（身分證）不編碼，以 UTF-8 依序存放
+ *
+ * 整數或日期欄位遇到無法原樣還原的值（例如 "025"、非 yyyy/MM/dd 的日期）時，整個欄位改用字典編碼，
+ * 因此 getValue 一定回傳原本的字串；缺值以 DataType.NULL_VALUE 表示
+ *
+ * 代碼、數值與文字內容依 ColumnStorage 放在 heap、堆外記憶體或記憶體映射的暫存檔，
+ * heap 上只保留字典與各區段的參照；getValue 與 rowsWithHeader 是讀取時才建立字串的 heap 端檢視
+ *
+ * 建立後內容不再變動，可由多個執行緒同時讀取
+ */
+public final class ColumnarTable {
+
+    /** 整數與日期欄位的缺值標記 */
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    /** 值域不超過此範圍時，整數與日期欄位以陣列索引快取字串與計數 */
+    private static final int MAX_DENSE_RANGE = 1 << 16;
+
+    /** 分類欄位的字典大小上限，超過時改為不編碼的文字欄位 */
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final String[] header;
+    private final Column[] columns;
+    private final int rows;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    private ColumnarTable(String[] header, Column[] columns, int rows) {
+        this.header = header;
+        this.columns = columns;
+        this.rows = rows;
+        for (int j = 0; j < header.length; j++) {
+            columnIndex.putIfAbsent(header[j], j);
+        }
+    }
+
+    public static Builder builder(String[] header, Map<String, ColumnKind> kinds) {
+        return builder(header, kinds, ColumnStorage.HEAP);
+    }
+
+    public static Builder builder(String[] header, Map<String, ColumnKind> kinds, ColumnStorage storage) {
+        return new Builder(header, kinds, storage);
+    }
+
+    /**
+     * 編碼資料列迭代器，第一列為標題；可直接使用 RowIterators 的迭代器，已編碼的資料列不會被保留
+     *
+     * @param kinds 各欄位的儲存方式，未列出的欄位視為分類欄位
+     */
+    public static ColumnarTable encode(Iterator<String[]> rows, Map<String, ColumnKind> kinds) {
+        if (!rows.hasNext()) {
+            return builder(new String[0], kinds).build();
+        }
+        Builder builder = builder(rows.next(), kinds);
+        while (rows.hasNext()) {
+            builder.add(rows.next());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 編碼 List<Map> 格式的資料，欄位順序取第一筆的 keySet，不修改傳入的清單
+     */
+    public static ColumnarTable fromMaps(List<Map<String, String>> rows, Map<String, ColumnKind> kinds) {
+        String[] header = rows.isEmpty() ? new String[0] : rows.get(0).keySet().toArray(new String[0]);
+        Builder builder = builder(header, kinds);
+        String[] values = new String[header.length];
+        for (Map<String, String> row : rows) {
+            for (int j = 0; j < header.length; j++) {
+                values[j] = row.get(header[j]);
+            }
+            builder.add(values);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 將 ARX 的輸出資料複製成欄式資料表，之後不需要再保留 ARX 的資料與搜尋結果
+     *
+     * @param names   輸出欄位名稱
+     * @param columns 每個輸出欄位在 handle 中的位置
+     */
+    public static ColumnarTable fromHandle(DataHandle handle, String[] names, int[] columns, ColumnStorage storage) {
+        Builder builder = builder(names, Map.of(), storage);
+        String[] values = new String[columns.length];
+        int rows = handle.getNumRows();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns.length; j++) {
+                values[j] = handle.getValue(i, columns[j]);
+            }
+            builder.add(values);
+        }
+        return builder.build();
+    }
+
+    public int getNumRows() {
+        return rows;
+    }
+
+    public int getNumColumns() {
+        return header.length;
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    public String getAttributeName(int column) {
+        return header[column];
+    }
+
+    /**
+     * 欄位名稱重複時取第一個，不存在時回傳 -1
+     */
+    public int getColumnIndexOf(String name) {
+        Integer index = columnIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 欄位實際的儲存方式，整數或日期欄位改用字典編碼時回傳 CATEGORICAL，字典超過上限時回傳 TEXT
+     */
+    public ColumnKind getKind(int column) {
+        return columns[column].kind();
+    }
+
+    public String getValue(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    public String[] getRow(int row) {
+        String[] values = new String[columns.length];
+        for (int j = 0; j < values.length; j++) {
+            values[j] = columns[j].get(row);
+        }
+        return values;
+    }
+
+    /**
+     * 欄位中各個值出現的次數，字典編碼欄位只需走訪一次代碼陣列，文字欄位需要在 heap 上逐一計數
+     */
+    public ValueCounts getValueCounts(int column) {
+        return columns[column].count(rows);
+    }
+
+    public int getDistinctCount(int column) {
+        return getValueCounts(column).size();
+    }
+
+    /**
+     * 先回傳標題列，再依序回傳資料列，供 Data.create(Iterator) 使用
+     * 字典編碼欄位回傳共用的 String，不會為每一格建立新的字串
+     */
+    public Iterator<String[]> rowsWithHeader() {
+        return RowIterators.withHeader(header.clone(), new Iterator<String[]>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rows;
+            }
+
+            @Override
+            public String[] next() {
+                if (next >= rows) {
+                    throw new NoSuchElementException();
+                }
+                return getRow(next++);
+            }
+        });
+    }
+
+    /**
+     * 估計資料表佔用的位元組數（代碼陣列、數值陣列、文字內容與字典字串），堆外的部分也計算在內
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Column column : columns) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        // String 物件與其 byte[]，中文字以 UTF-16 儲存
+        return 40L + 2L * value.length();
+    }
+
+    /**
+     * 欄位的值與出現次數，依值在資料中第一次出現或數值大小排序
+     */
+    public static final class ValueCounts {
+
+        private final String[] values;
+        private final int[] counts;
+
+        ValueCounts(String[] values, int[] counts) {
+            this.values = values;
+            this.counts = counts;
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        public String getValue(int index) {
+            return values[index];
+        }
+
+        public int getCount(int index) {
+            return counts[index];
+        }
+    }
+
+    /**
+     * 逐列加入資料並編碼，加入的陣列不會被保留，可重複使用
+     */
+    public static final class Builder {
+
+        private final String[] header;
+        private final ColumnBuilder[] columns;
+        private int rows;
+
+        private Builder(String[] header, Map<String, ColumnKind> kinds, ColumnStorage storage) {
+            this.header = header.clone();
+            this.columns = new ColumnBuilder[header.length];
+            for (int j = 0; j < header.length; j++) {
+                columns[j] = new ColumnBuilder(kinds.getOrDefault(header[j], ColumnKind.CATEGORICAL), storage);
+            }
+        }
+
+        public Builder add(String[] row) {
+            if (row.length != columns.length) {
+                throw new IllegalArgumentException("資料列的欄位數與標題不一致");
+            }
+            for (int j = 0; j < columns.length; j++) {
+                columns[j].add(rows, row[j]);
+            }
+            rows++;
+            return this;
+        }
+
+        public int getNumRows() {
+            return rows;
+        }
+
+        public ColumnarTable build() {
+            Column[] built = new Column[columns.length];
+            for (int j = 0; j < columns.length; j++) {
+                built[j] = columns[j].build(rows);
+            }
+            return new ColumnarTable(header, built, rows);
+        }
+    }
+
+    private static final class ColumnBuilder {
+
+        private final ColumnStorage storage;
+        private ColumnKind kind;
+        private final IntVector data;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+        private Map<String, Integer> codes = new HashMap<>();
+        private List<String> dictionary = new ArrayList<>();
+        private ByteVector text;
+
+        ColumnBuilder(ColumnKind kind, ColumnStorage storage) {
+            this.storage = storage;
+            this.kind = kind;
+            this.data = storage.newIntVector();
+            if (kind == ColumnKind.TEXT) {
+                text = storage.newByteVector();
+            }
+        }
+
+        void add(int row, String value) {
+            if (value == null) {
+                value = DataType.NULL_VALUE;
+            }
+            if (kind == ColumnKind.TEXT) {
+                appendText(row, value);
+                return;
+            }
+            if (kind != ColumnKind.CATEGORICAL) {
+                if (value.equals(DataType.NULL_VALUE)) {
+                    data.set(row, MISSING);
+                    return;
+                }
+                int parsed = parse(kind, value);
+                if (parsed != MISSING) {
+                    data.set(row, parsed);
+                    min = Math.min(min, parsed);
+                    max = Math.max(max, parsed);
+                    return;
+                }
+                toDictionary(row);
+            }
+            data.set(row, code(value));
+            if (dictionary.size() > MAX_DICTIONARY_SIZE) {
+                toText(row + 1);
+            }
+        }
+
+        /**
+         * 遇到無法原樣還原的值時，將已加入的數值轉回字串並改用字典編碼
+         */
+        private void toDictionary(int rows) {
+            ColumnKind previous = kind;
+            kind = ColumnKind.CATEGORICAL;
+            for (int i = 0; i < rows; i++) {
+                int value = data.get(i);
+                data.set(i, code(value == MISSING ? DataType.NULL_VALUE : format(previous, value)));
+            }
+        }
+
+        /**
+         * 字典超過上限時改為依序存放內容，原本的字典不再保留
+         */
+        private void toText(int rows) {
+            kind = ColumnKind.TEXT;
+            text = storage.newByteVector();
+            for (int i = 0; i < rows; i++) {
+                appendText(i, dictionary.get(data.get(i)));
+            }
+            codes = null;
+            dictionary = null;
+        }
+
+        private void appendText(int row, String value) {
+            long end = text.append(value.getBytes(StandardCharsets.UTF_8));
+            if (end > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("單一文字欄位的內容超過 2GB");
+            }
+            data.set(row, (int) end);
+        }
+
+        private int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codes.put(value, code);
+                dictionary.add(value);
+            }
+            return code;
+        }
+
+        Column build(int rows) {
+            data.trim(rows);
+            switch (kind) {
+                case CATEGORICAL:
+                    return new DictionaryColumn(data, dictionary.toArray(new String[0]));
+                case TEXT:
+                    return new TextColumn(data, text);
+                default:
+                    return new PrimitiveColumn(kind, data, min, max);
+            }
+        }
+    }
+
+    private abstract static class Column {
+
+        abstract ColumnKind kind();
+
+        abstract String get(int row);
+
+        abstract ValueCounts count(int rows);
+
+        abstract long estimatedBytes();
+    }
+
+    private static final class DictionaryColumn extends Column {
+
+        private final IntVector codes;
+        private final String[] dictionary;
+
+        DictionaryColumn(IntVector codes, String[] dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        ColumnKind kind() {
+            return ColumnKind.CATEGORICAL;
+        }
+
+        @Override
+        String get(int row) {
+            return dictionary[codes.get(row)];
+        }
+
+        @Override
+        ValueCounts count(int rows) {
+            int[] counts = new int[dictionary.length];
+            for (int i = 0; i < rows; i++) {
+                counts[codes.get(i)]++;
+            }
+            return new ValueCounts(dictionary.clone(), counts);
+        }
+
+        @Override
+        long estimatedBytes() {
+            long bytes = codes.bytes();
+            for (String value : dictionary) {
+                bytes += stringBytes(value);
+            }
+            return bytes;
+        }
+    }
+
+    private static final class TextColumn extends Column {
+
+        private final IntVector ends;
+        private final ByteVector text;
+
+        TextColumn(IntVector ends, ByteVector text) {
+            this.ends = ends;
+            this.text = text;
+        }
+
+        @Override
+        ColumnKind kind() {
+            return ColumnKind.TEXT;
+        }
+
+        @Override
+        String get(int row) {
+            int start = row == 0 ? 0 : ends.get(row - 1);
+            return new String(text.read(start, ends.get(row) - start), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        ValueCounts count(int rows) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int i = 0; i < rows; i++) {
+                counts.merge(get(i), 1, Integer::sum);
+            }
+            return new ValueCounts(counts.keySet().toArray(new String[0]),
+                counts.values().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        @Override
+        long estimatedBytes() {
+            return ends.bytes() + text.bytes();
+        }
+    }
+
+    private static final class PrimitiveColumn extends Column {
+
+        private final ColumnKind kind;
+        private final IntVector values;
+        private final int min;
+        private final int max;
+
+        /** 值域夠小時快取各值的字串，多個執行緒同時寫入同一格時結果相同，不需要同步 */
+        private final String[] labels;
+
+        PrimitiveColumn(ColumnKind kind, IntVector values, int min, int max) {
+            this.kind = kind;
+            this.values = values;
+            this.min = min;
+            this.max = max;
+            this.labels = min <= max && (long) max - min < MAX_DENSE_RANGE ? new String[max - min + 1] : null;
+        }
+
+        @Override
+        ColumnKind kind() {
+            return kind;
+        }
+
+        @Override
+        String get(int row) {
+            return label(values.get(row));
+        }
+
+        private String label(int value) {
+            if (value == MISSING) {
+                return DataType.NULL_VALUE;
+            }
+            if (labels == null) {
+                return format(kind, value);
+            }
+            String label = labels[value - min];
+            if (label == null) {
+                label = format(kind, value);
+                labels[value - min] = label;
+            }
+            return label;
+        }
+
+        @Override
+        ValueCounts count(int rows) {
+            int missing = 0;
+            List<String> distinct = new ArrayList<>();
+            List<Integer> counts = new ArrayList<>();
+            if (labels != null) {
+                int[] dense = new int[labels.length];
+                for (int i = 0; i < rows; i++) {
+                    int value = values.get(i);
+                    if (value == MISSING) {
+                        missing++;
+                    } else {
+                        dense[value - min]++;
+                    }
+                }
+                for (int v = 0; v < dense.length; v++) {
+                    if (dense[v] > 0) {
+                        distinct.add(label(v + min));
+                        counts.add(dense[v]);
+                    }
+                }
+            } else {
+                int[] sorted = values.toArray(rows);
+                Arrays.sort(sorted);
+                for (int i = 0; i < sorted.length; ) {
+                    int j = i;
+                    while (j < sorted.length && sorted[j] == sorted[i]) {
+                        j++;
+                    }
+                    if (sorted[i] == MISSING) {
+                        missing = j - i;
+                    } else {
+                        distinct.add(label(sorted[i]));
+                        counts.add(j - i);
+                    }
+                    i = j;
+                }
+            }
+            if (missing > 0) {
+                distinct.add(DataType.NULL_VALUE);
+                counts.add(missing);
+            }
+            return new ValueCounts(distinct.toArray(new String[0]), counts.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        @Override
+        long estimatedBytes() {
+            return values.bytes();
+        }
+    }
+
+    /**
+     * 解析整數或 yyyy/MM/dd 日期，無法原樣還原時回傳 MISSING
+     */
+    private static int parse(ColumnKind kind, String value) {
+        if (kind == ColumnKind.INTEGER) {
+            try {
+                int parsed = Integer.parseInt(value);
+                return Integer.toString(parsed).equals(value) ? parsed : MISSING;
+            } catch (NumberFormatException e) {
+                return MISSING;
+            }
+        }
+        if (value.length() != 10 || value.charAt(4) != '/' || value.charAt(7) != '/') {
+            return MISSING;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return MISSING;
+        }
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return MISSING;
+        }
+    }
+
+    private static int digits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static String format(ColumnKind kind, int value) {
+        if (kind == ColumnKind.INTEGER) {
+            return Integer.toString(value);
+        }
+        LocalDate date = LocalDate.ofEpochDay(value);
+        char[] chars = new char[10];
+        pad(chars, 0, 4, date.getYear());
+        chars[4] = '/';
+        pad(chars, 5, 7, date.getMonthValue());
+        chars[7] = '/';
+        pad(chars, 8, 10, date.getDayOfMonth());
+        return new String(chars);
+    }
+
+    private static void pad(char[] chars, int start, int end, int value) {
+        for (int i = end - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
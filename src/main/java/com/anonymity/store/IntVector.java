@@ -0,0 +1,122 @@
+package com.anonymity.store;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * 可依序增長的 int 陣列，寫入位置等於容量時自動擴充
+ */
+abstract class IntVector {
+
+    abstract int get(int index);
+
+    abstract void set(int index, int value);
+
+    /** 已配置的位元組數 */
+    abstract long bytes();
+
+    int[] toArray(int length) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * 建立完成後去掉多配置的容量
+     */
+    void trim(int length) {
+    }
+
+    static final class Heap extends IntVector {
+
+        private int[] values = new int[1024];
+
+        @Override
+        int get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, int value) {
+            if (index == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[index] = value;
+        }
+
+        @Override
+        long bytes() {
+            return 16L + 4L * values.length;
+        }
+
+        @Override
+        int[] toArray(int length) {
+            return Arrays.copyOf(values, length);
+        }
+
+        @Override
+        void trim(int length) {
+            values = Arrays.copyOf(values, length);
+        }
+    }
+
+    /**
+     * 以固定大小的區段存放，第一個區段從小容量倍增到區段大小，之後每次增加一個完整區段，
+     * 擴充時不需要搬移已寫入的區段
+     */
+    static final class Segmented extends IntVector {
+
+        private static final int SEGMENT_SHIFT = 20;
+        private static final int SEGMENT_INTS = 1 << SEGMENT_SHIFT;
+        private static final int SEGMENT_MASK = SEGMENT_INTS - 1;
+
+        private final ColumnStorage storage;
+        private IntBuffer[] segments;
+        private int capacity;
+
+        Segmented(ColumnStorage storage) {
+            this.storage = storage;
+            this.segments = new IntBuffer[]{allocate(1024)};
+            this.capacity = 1024;
+        }
+
+        private IntBuffer allocate(int ints) {
+            return storage.allocate(ints * 4).asIntBuffer();
+        }
+
+        @Override
+        int get(int index) {
+            return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+        }
+
+        @Override
+        void set(int index, int value) {
+            if (index == capacity) {
+                grow();
+            }
+            segments[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, value);
+        }
+
+        private void grow() {
+            if (capacity < SEGMENT_INTS) {
+                IntBuffer first = allocate(capacity * 2);
+                IntBuffer old = segments[0].duplicate();
+                old.clear();
+                first.put(old).clear();
+                segments[0] = first;
+                capacity *= 2;
+            } else {
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                segments[segments.length - 1] = allocate(SEGMENT_INTS);
+                capacity += SEGMENT_INTS;
+            }
+        }
+
+        @Override
+        long bytes() {
+            return 4L * capacity;
+        }
+    }
+}
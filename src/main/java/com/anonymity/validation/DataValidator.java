@@ -1,69 +1,123 @@
 package com.anonymity.validation;
 
+import com.anonymity.store.ColumnarTable;
+import org.deidentifier.arx.DataHandle;
 import org.springframework.stereotype.Component;
 import java.util.List;
-import java.util.Map;
 
 @Component
 public class DataValidator {
     
-    public void validateRequest(List<Map<String, String>> data,
+    /**
+     * 驗證已編碼成欄式資料表的請求資料，唯一值數量直接取自欄位字典
+     */
+    public void validateTable(ColumnarTable table,
                               List<String> quasiIdentifiers,
                               List<String> sensitiveAttributes,
                               int k,
                               double l) throws IllegalArgumentException {
         
         // 驗證數據不為空
-        if (data == null || data.isEmpty()) {
+        if (table == null || table.getNumRows() == 0) {
             throw new IllegalArgumentException("數據不能為空");
         }
         
-        // 驗證準識別符
-        if (quasiIdentifiers == null || quasiIdentifiers.isEmpty()) {
-            throw new IllegalArgumentException("準識別符不能為空");
+        validateParameters(quasiIdentifiers, sensitiveAttributes, k, l);
+        
+        // 驗證數據格式
+        for (String identifier : quasiIdentifiers) {
+            if (table.getColumnIndexOf(identifier) < 0) {
+                throw new IllegalArgumentException("準識別符 '" + identifier + "' 在數據中不存在");
+            }
         }
         
-        // 驗證敏感屬性
-        if (sensitiveAttributes == null || sensitiveAttributes.isEmpty()) {
-            throw new IllegalArgumentException("敏感屬性不能為空");
+        for (String attribute : sensitiveAttributes) {
+            if (table.getColumnIndexOf(attribute) < 0) {
+                throw new IllegalArgumentException("敏感屬性 '" + attribute + "' 在數據中不存在");
+            }
         }
         
-        // 驗證k和l值
-        if (k < 2) {
-            throw new IllegalArgumentException("k值必須大於等於2");
+        // 驗證數據量是否足夠
+        if (table.getNumRows() < k) {
+            throw new IllegalArgumentException("數據量必須大於等於k值");
         }
-        if (l < 1.0) {
-            throw new IllegalArgumentException("l值必須大於等於1.0");
+        
+        // 驗證敏感屬性的唯一值數量
+        for (String attribute : sensitiveAttributes) {
+            int uniqueValues = table.getDistinctCount(table.getColumnIndexOf(attribute));
+            if (uniqueValues < l) {
+                throw new IllegalArgumentException("敏感屬性 '" + attribute + "' 的唯一值數量必須大於等於l值");
+            }
         }
+    }
+    
+    /**
+     * 驗證已載入 ARX 的資料集（串流匯入時使用，不需要 List<Map>）
+     */
+    public void validateDataset(DataHandle handle,
+                              List<String> quasiIdentifiers,
+                              List<String> sensitiveAttributes,
+                              int k,
+                              double l) throws IllegalArgumentException {
+        
+        // 驗證數據不為空
+        if (handle == null || handle.getNumRows() == 0) {
+            throw new IllegalArgumentException("數據不能為空");
+        }
+        
+        validateParameters(quasiIdentifiers, sensitiveAttributes, k, l);
         
         // 驗證數據格式
-        Map<String, String> firstRow = data.get(0);
         for (String identifier : quasiIdentifiers) {
-            if (!firstRow.containsKey(identifier)) {
+            if (handle.getColumnIndexOf(identifier) < 0) {
                 throw new IllegalArgumentException("準識別符 '" + identifier + "' 在數據中不存在");
             }
         }
         
         for (String attribute : sensitiveAttributes) {
-            if (!firstRow.containsKey(attribute)) {
+            if (handle.getColumnIndexOf(attribute) < 0) {
                 throw new IllegalArgumentException("敏感屬性 '" + attribute + "' 在數據中不存在");
             }
         }
         
         // 驗證數據量是否足夠
-        if (data.size() < k) {
+        if (handle.getNumRows() < k) {
             throw new IllegalArgumentException("數據量必須大於等於k值");
         }
         
-        // 驗證敏感屬性的唯一值數量
+        // 驗證敏感屬性的唯一值數量（直接使用 ARX 字典）
         for (String attribute : sensitiveAttributes) {
-            long uniqueValues = data.stream()
-                .map(row -> row.get(attribute))
-                .distinct()
-                .count();
+            int uniqueValues = handle.getDistinctValues(handle.getColumnIndexOf(attribute)).length;
             if (uniqueValues < l) {
                 throw new IllegalArgumentException("敏感屬性 '" + attribute + "' 的唯一值數量必須大於等於l值");
             }
         }
     }
+    
+    /**
+     * 只驗證匿名化參數，不需要資料，可在讀取資料前先檢查
+     */
+    public void validateParameters(List<String> quasiIdentifiers,
+                                  List<String> sensitiveAttributes,
+                                  int k,
+                                  double l) {
+        
+        // 驗證準識別符
+        if (quasiIdentifiers == null || quasiIdentifiers.isEmpty()) {
+            throw new IllegalArgumentException("準識別符不能為空");
+        }
+        
+        // 驗證敏感屬性
+        if (sensitiveAttributes == null || sensitiveAttributes.isEmpty()) {
+            throw new IllegalArgumentException("敏感屬性不能為空");
+        }
+        
+        // 驗證k和l值
+        if (k < 2) {
+            throw new IllegalArgumentException("k值必須大於等於2");
+        }
+        if (l < 1.0) {
+            throw new IllegalArgumentException("l值必須大於等於1.0");
+        }
+    }
 } 
\ No newline at end of file
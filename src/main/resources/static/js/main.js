@@ -16,9 +16,12 @@ const gridOptions = {
         minWidth: 100,
         resizable: true
     },
+    // 資料列依頁向伺服器查詢（/api/results），排序也在伺服器端進行
+    rowModelType: 'infinite',
+    cacheBlockSize: 100,
+    maxBlocksInCache: 10,
     pagination: true,
-    paginationPageSize: 10,
-    domLayout: 'autoHeight'
+    paginationPageSize: 10
 };
 
 // 圖表實例
@@ -110,11 +113,13 @@ async function handleFormSubmit(event) {
         k: parseInt(document.getElementById('kValue').value),
         l: parseFloat(document.getElementById('lValue').value),
         epsilon: parseFloat(document.getElementById('epsilon').value),
-        delta: parseFloat(document.getElementById('delta').value)
+        delta: parseFloat(document.getElementById('delta').value),
+        data: window.testData
     };
 
     try {
-        const response = await fetch('/api/differential-privacy/apply', {
+        // 結果保存在伺服器端，回應只包含 resultId 與欄位資訊
+        const response = await fetch('/api/differential-privacy/apply?includeRows=false&store=true', {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json'
@@ -136,6 +141,13 @@ async function handleFormSubmit(event) {
 
 // 更新儀表板
 function updateDashboard(data) {
+    // 更新資料表格
+    loadResult(data.resultId, data.columns);
+
+    if (data.privacyUtilityData === undefined) {
+        return;
+    }
+
     // 更新關鍵指標
     document.getElementById('privacyScore').textContent = (data.privacyScore * 100).toFixed(1) + '%';
     document.getElementById('utilityScore').textContent = (data.utilityScore * 100).toFixed(1) + '%';
@@ -156,9 +168,34 @@ function updateDashboard(data) {
         data.notAnonymized
     ];
     anonymizationDistributionChart.update();
+}
 
-    // 更新資料表格
-    gridApi.setRowData(data.result);
+// 以伺服器端分頁顯示保存的結果，每次只取回目前需要的區塊
+function loadResult(resultId, columns) {
+    gridApi.setGridOption('columnDefs', columns.map(name => ({ field: name, sortable: true })));
+    gridApi.setGridOption('datasource', {
+        getRows: async function(params) {
+            const query = new URLSearchParams({
+                offset: params.startRow,
+                limit: params.endRow - params.startRow
+            });
+            if (params.sortModel.length > 0) {
+                query.set('sort', params.sortModel[0].colId);
+                query.set('order', params.sortModel[0].sort);
+            }
+            try {
+                const response = await fetch(`/api/results/${encodeURIComponent(resultId)}/rows?${query}`);
+                if (!response.ok) {
+                    throw new Error('查詢結果失敗');
+                }
+                const page = await response.json();
+                params.successCallback(page.rows, page.totalRows);
+            } catch (error) {
+                console.error('查詢結果時發生錯誤:', error);
+                params.failCallback();
+            }
+        }
+    });
 }
 
 // 生成測試資料
@@ -0,0 +1,130 @@
+package com.anonymity;
+
+import com.anonymity.config.UploadProperties;
+import com.anonymity.service.ChunkedUploadService;
+import com.anonymity.service.UploadSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分段上傳：不依順序、同時寫入的分段需組合回原始檔案
+ */
+public class ChunkedUploadTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    public void setUp() {
+        UploadProperties properties = new UploadProperties();
+        properties.setDir(dir.toString());
+        service = new ChunkedUploadService(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testParallelChunksAndResume() throws Exception {
+        byte[] content = new byte[CHUNK_SIZE * 37 + 123];
+        new Random(42).nextBytes(content);
+
+        UploadSession session = service.create("cases.csv", content.length, CHUNK_SIZE);
+        assertEquals(38, session.getTotalChunks());
+
+        // 先只上傳偶數分段，模擬中斷
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < session.getTotalChunks(); i += 2) {
+            indexes.add(i);
+        }
+        upload(session.getId(), content, indexes);
+        assertFalse(session.isComplete());
+        assertEquals(session.getTotalChunks() / 2, session.getMissingChunks().size());
+
+        // 續傳缺少的分段
+        upload(session.getId(), content, session.getMissingChunks());
+        assertTrue(session.isComplete());
+
+        byte[] assembled = service.complete(session.getId(), Files::readAllBytes);
+        assertArrayEquals(content, assembled);
+        assertThrows(IllegalArgumentException.class, () -> service.get(session.getId()));
+    }
+
+    @Test
+    public void testRejectsWrongChunkSize() throws Exception {
+        UploadSession session = service.create("cases.csv", CHUNK_SIZE * 2L, CHUNK_SIZE);
+        byte[] tooLong = new byte[CHUNK_SIZE + 1];
+        assertThrows(IllegalArgumentException.class,
+            () -> service.writeChunk(session.getId(), 0, new ByteArrayInputStream(tooLong)));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.writeChunk(session.getId(), 2, new ByteArrayInputStream(new byte[1])));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.complete(session.getId(), Files::size));
+    }
+
+    @Test
+    public void testFailedCompletionKeepsUpload() throws Exception {
+        byte[] content = new byte[CHUNK_SIZE + 10];
+        new Random(42).nextBytes(content);
+        UploadSession session = service.create("cases.csv", content.length, CHUNK_SIZE);
+        upload(session.getId(), content, Arrays.asList(0, 1));
+
+        // 處理失敗（例如 k 值不合法）時保留已上傳的檔案
+        assertThrows(IllegalArgumentException.class, () -> service.complete(session.getId(), file -> {
+            throw new IllegalArgumentException("k值必須大於等於2");
+        }));
+        assertSame(session, service.get(session.getId()));
+
+        byte[] assembled = service.complete(session.getId(), Files::readAllBytes);
+        assertArrayEquals(content, assembled);
+        assertThrows(IllegalArgumentException.class, () -> service.get(session.getId()));
+    }
+
+    @Test
+    public void testRejectsTooManyChunks() {
+        // 分段數超過 int 範圍時直接拒絕，不建立上傳
+        assertThrows(IllegalArgumentException.class,
+            () -> service.create("cases.csv", (long) Integer.MAX_VALUE + 1, 1));
+    }
+
+    private void upload(String id, byte[] content, List<Integer> indexes) throws Exception {
+        List<Integer> shuffled = new ArrayList<>(indexes);
+        Collections.shuffle(shuffled, new Random(7));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : shuffled) {
+                int from = index * CHUNK_SIZE;
+                byte[] chunk = Arrays.copyOfRange(content, from, Math.min(content.length, from + CHUNK_SIZE));
+                futures.add(executor.submit(() -> service.writeChunk(id, index, new ByteArrayInputStream(chunk))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.anonymity;
+
+import com.anonymity.service.AnonymityService;
+import com.anonymity.store.ColumnKind;
+import com.anonymity.store.ColumnStorage;
+import com.anonymity.store.ColumnarTable;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.util.HeapUsage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 欄式資料表與 List<Map> 的比較
+ * 以相同資料比較每筆資料佔用的 heap 與掃描（值分布、平均年齡）速度，
+ * 並比較欄式資料表放在 heap、堆外記憶體與記憶體映射暫存檔時留在 heap 上的大小
+ */
+@Tag("benchmark")
+public class ColumnarStoreBenchmarkTest {
+
+    private static final int DATA_SIZE = 200000;
+    private static final int SCAN_ROUNDS = 10;
+    private static final int STORAGE_SIZE = 2000000;
+
+    private static final String[] STORAGE_HEADER = {"身分證", "年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果"};
+
+    private static final String[] CITIES = {"台北市", "新北市", "桃園市", "台中市", "台南市", "高雄市"};
+    private static final String[] DISEASES = {"新冠肺炎", "流感", "登革熱", "腸病毒", "結核病"};
+    private static final String[] RESULTS = {"陽性", "陰性", "待確認"};
+
+    @Test
+    public void testRoundTrip() {
+        List<Map<String, String>> rows = DpTestDataGenerator.generateTestData(1000);
+        rows.get(0).put("年齡", "025");
+        rows.get(1).put("通報日期", "2024-01-01");
+        rows.get(2).put("性別", null);
+        ColumnarTable table = ColumnarTable.fromMaps(rows, AnonymityService.COLUMN_KINDS);
+
+        // 無法原樣還原的值讓欄位改用字典編碼，其餘欄位維持原本的儲存方式
+        assertEquals(ColumnKind.CATEGORICAL, table.getKind(table.getColumnIndexOf("年齡")));
+        assertEquals(ColumnKind.CATEGORICAL, table.getKind(table.getColumnIndexOf("通報日期")));
+        rows.get(0).put("年齡", "25");
+        rows.get(1).put("通報日期", "2024/01/01");
+        table = ColumnarTable.fromMaps(rows, AnonymityService.COLUMN_KINDS);
+        assertEquals(ColumnKind.INTEGER, table.getKind(table.getColumnIndexOf("年齡")));
+        assertEquals(ColumnKind.DATE, table.getKind(table.getColumnIndexOf("通報日期")));
+
+        for (int i = 0; i < rows.size(); i++) {
+            for (Map.Entry<String, String> entry : rows.get(i).entrySet()) {
+                String expected = entry.getValue() != null ? entry.getValue() : "NULL";
+                assertEquals(expected, table.getValue(i, table.getColumnIndexOf(entry.getKey())));
+            }
+        }
+    }
+
+    @Test
+    public void testMapVsColumnar() {
+        // 每筆資料佔用的 heap
+        long base = HeapUsage.used();
+        List<Map<String, String>> rows = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        long mapBytes = HeapUsage.used() - base;
+
+        ColumnarTable table = ColumnarTable.fromMaps(rows, AnonymityService.COLUMN_KINDS);
+        long bothBytes = HeapUsage.used() - base;
+
+        // 掃描：縣市的值分布與平均年齡
+        int cityColumn = table.getColumnIndexOf("縣市");
+        int ageColumn = table.getColumnIndexOf("年齡");
+        Map<String, Integer> mapCounts = null;
+        double mapAge = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < SCAN_ROUNDS; round++) {
+            mapCounts = new HashMap<>();
+            long ageSum = 0;
+            for (Map<String, String> row : rows) {
+                mapCounts.merge(row.get("縣市"), 1, Integer::sum);
+                ageSum += Integer.parseInt(row.get("年齡"));
+            }
+            mapAge = (double) ageSum / rows.size();
+        }
+        double mapMillis = (System.nanoTime() - start) / 1e6 / SCAN_ROUNDS;
+
+        Map<String, Integer> tableCounts = null;
+        double tableAge = 0;
+        start = System.nanoTime();
+        for (int round = 0; round < SCAN_ROUNDS; round++) {
+            tableCounts = new HashMap<>();
+            ColumnarTable.ValueCounts cities = table.getValueCounts(cityColumn);
+            for (int i = 0; i < cities.size(); i++) {
+                tableCounts.put(cities.getValue(i), cities.getCount(i));
+            }
+            ColumnarTable.ValueCounts ages = table.getValueCounts(ageColumn);
+            long ageSum = 0;
+            for (int i = 0; i < ages.size(); i++) {
+                ageSum += (long) Integer.parseInt(ages.getValue(i)) * ages.getCount(i);
+            }
+            tableAge = (double) ageSum / table.getNumRows();
+        }
+        double tableMillis = (System.nanoTime() - start) / 1e6 / SCAN_ROUNDS;
+
+        assertEquals(mapCounts, tableCounts);
+        assertEquals(mapAge, tableAge, 1e-9);
+
+        // 釋放 Map 後只剩欄式資料表
+        rows = null;
+        long tableBytes = HeapUsage.used() - base;
+        assertTrue(bothBytes > tableBytes);
+
+        System.out.println("\n=== List<Map> 與欄式資料表比較 (" + DATA_SIZE + " 筆) ===");
+        System.out.printf("List<Map>  : %.0f bytes/筆, 掃描 %.1f 毫秒%n", (double) mapBytes / DATA_SIZE, mapMillis);
+        System.out.printf("欄式資料表 : %.0f bytes/筆 (估計 %.0f bytes/筆), 掃描 %.1f 毫秒%n",
+            (double) tableBytes / DATA_SIZE, (double) table.getEstimatedBytes() / DATA_SIZE, tableMillis);
+    }
+
+    @Test
+    public void testStorage() {
+        System.out.println("\n=== 欄式資料表存放位置比較 (" + STORAGE_SIZE + " 筆) ===");
+        ColumnarTable expected = null;
+        for (ColumnStorage storage : ColumnStorage.values()) {
+            long base = HeapUsage.used();
+            long start = System.nanoTime();
+            ColumnarTable.Builder builder = ColumnarTable.builder(STORAGE_HEADER, AnonymityService.COLUMN_KINDS, storage);
+            Random random = new Random(42);
+            String[] row = new String[STORAGE_HEADER.length];
+            for (int i = 0; i < STORAGE_SIZE; i++) {
+                fillRow(row, i, random);
+                builder.add(row);
+            }
+            ColumnarTable table = builder.build();
+            long buildMillis = (System.nanoTime() - start) / 1000000;
+            long heapBytes = HeapUsage.used() - base;
+
+            // 以 heap 端檢視走訪全部資料列，與交給 ARX 時相同
+            start = System.nanoTime();
+            Iterator<String[]> rows = table.rowsWithHeader();
+            int count = -1;
+            while (rows.hasNext()) {
+                rows.next();
+                count++;
+            }
+            long scanMillis = (System.nanoTime() - start) / 1000000;
+            assertEquals(STORAGE_SIZE, count);
+            assertEquals(ColumnKind.TEXT, table.getKind(table.getColumnIndexOf("身分證")));
+
+            if (expected == null) {
+                expected = table;
+            } else {
+                for (int i = 0; i < STORAGE_SIZE; i += 9973) {
+                    assertArrayEquals(expected.getRow(i), table.getRow(i));
+                }
+            }
+            System.out.printf("%-6s: heap %.1f bytes/筆, 總計 %.1f bytes/筆, 編碼 %d 毫秒, 走訪 %d 毫秒%n",
+                storage, (double) heapBytes / STORAGE_SIZE, (double) table.getEstimatedBytes() / STORAGE_SIZE,
+                buildMillis, scanMillis);
+            table = null;
+        }
+    }
+
+    private static void fillRow(String[] row, int index, Random random) {
+        row[0] = "A" + (100000000 + index);
+        row[1] = String.valueOf(5 + random.nextInt(41));
+        row[2] = random.nextBoolean() ? "男" : "女";
+        row[3] = CITIES[random.nextInt(CITIES.length)];
+        row[4] = String.format("2024/%02d/%02d", 1 + random.nextInt(12), 1 + random.nextInt(28));
+        row[5] = DISEASES[random.nextInt(DISEASES.length)];
+        row[6] = RESULTS[random.nextInt(RESULTS.length)];
+    }
+}
@@ -0,0 +1,76 @@
+package com.anonymity;
+
+import com.anonymity.store.ColumnKind;
+import com.anonymity.store.ColumnarTable;
+import org.deidentifier.arx.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 欄式資料表的欄位型別轉換與缺值
+ */
+public class ColumnarTableTest {
+
+    private static final Map<String, ColumnKind> KINDS = Map.of(
+        "年齡", ColumnKind.INTEGER,
+        "通報日期", ColumnKind.DATE);
+
+    @Test
+    public void testNumericColumnsKeepKind() {
+        ColumnarTable table = ColumnarTable.builder(new String[]{"年齡", "通報日期"}, KINDS)
+            .add(new String[]{"25", "2025/03/07"})
+            .add(new String[]{DataType.NULL_VALUE, null})
+            .add(new String[]{"40", "2024/12/31"})
+            .build();
+
+        assertEquals(ColumnKind.INTEGER, table.getKind(0));
+        assertEquals(ColumnKind.DATE, table.getKind(1));
+        assertArrayEquals(new String[]{"25", "2025/03/07"}, table.getRow(0));
+        // 缺值與 null 都以 NULL 表示
+        assertArrayEquals(new String[]{DataType.NULL_VALUE, DataType.NULL_VALUE}, table.getRow(1));
+        assertArrayEquals(new String[]{"40", "2024/12/31"}, table.getRow(2));
+    }
+
+    @Test
+    public void testNumericColumnsFallBackToDictionary() {
+        ColumnarTable table = ColumnarTable.builder(new String[]{"年齡", "通報日期"}, KINDS)
+            .add(new String[]{"25", "2025/03/07"})
+            .add(new String[]{DataType.NULL_VALUE, DataType.NULL_VALUE})
+            .add(new String[]{"025", "2025-03-08"})
+            .add(new String[]{"25", "2025/03/07"})
+            .build();
+
+        // 無法原樣還原的值讓整個欄位改用字典編碼，先前的數值與缺值都轉回原本的字串
+        assertEquals(ColumnKind.CATEGORICAL, table.getKind(0));
+        assertEquals(ColumnKind.CATEGORICAL, table.getKind(1));
+        assertArrayEquals(new String[]{"25", "2025/03/07"}, table.getRow(0));
+        assertArrayEquals(new String[]{DataType.NULL_VALUE, DataType.NULL_VALUE}, table.getRow(1));
+        assertArrayEquals(new String[]{"025", "2025-03-08"}, table.getRow(2));
+        assertArrayEquals(new String[]{"25", "2025/03/07"}, table.getRow(3));
+        assertEquals(3, table.getDistinctCount(0));
+        assertEquals(3, table.getDistinctCount(1));
+    }
+
+    @Test
+    public void testLargeDictionaryBecomesText() {
+        int rows = (1 << 16) + 10;
+        ColumnarTable.Builder builder = ColumnarTable.builder(new String[]{"身分證", "性別"}, KINDS);
+        for (int i = 0; i < rows; i++) {
+            String id = i == 1 ? null : String.format("A%09d", i);
+            builder.add(new String[]{id, i % 2 == 0 ? "男" : "女"});
+        }
+        ColumnarTable table = builder.build();
+
+        assertEquals(ColumnKind.TEXT, table.getKind(0));
+        assertEquals(ColumnKind.CATEGORICAL, table.getKind(1));
+        assertEquals(rows, table.getNumRows());
+        assertEquals("A000000000", table.getValue(0, 0));
+        assertEquals(DataType.NULL_VALUE, table.getValue(1, 0));
+        assertEquals(String.format("A%09d", rows - 1), table.getValue(rows - 1, 0));
+        assertEquals(rows, table.getDistinctCount(0));
+        assertEquals(2, table.getDistinctCount(1));
+    }
+}
@@ -0,0 +1,102 @@
+package com.anonymity;
+
+import com.anonymity.config.ContentCodec;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 壓縮編碼的 CPU 與傳輸量比較
+ * 以 5000 筆 anonymizeTest 回應與同樣筆數的上傳資料，比較 gzip、zstd 各壓縮等級的壓縮率與速度
+ */
+@Tag("benchmark")
+public class CompressionBenchmarkTest {
+
+    private static final int DATA_SIZE = 5000;
+    private static final int ITERATIONS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testResponseCompression() throws Exception {
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        Map<String, Object> response = anonymityService.generateAndAnonymizeTestData(DATA_SIZE, 3, 2);
+        byte[] body = objectMapper.writeValueAsBytes(response);
+
+        System.out.println("\n=== anonymizeTest 回應壓縮 (" + DATA_SIZE + " 筆) ===");
+        compareCodecs(body);
+    }
+
+    @Test
+    public void testRequestCompression() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+            "data", DpTestDataGenerator.generateTestData(DATA_SIZE),
+            "k", 3,
+            "l", 2
+        ));
+
+        System.out.println("\n=== 上傳資料壓縮 (" + DATA_SIZE + " 筆) ===");
+        compareCodecs(body);
+    }
+
+    private void compareCodecs(byte[] body) throws Exception {
+        System.out.printf("原始大小: %.1f KB%n", body.length / 1024d);
+        System.out.println("編碼    等級  壓縮後(KB)  壓縮率   壓縮(毫秒)  解壓縮(毫秒)");
+        int[][] levels = {{1, 6, 9}, {1, 3, 9, 19}};
+        ContentCodec[] codecs = {ContentCodec.GZIP, ContentCodec.ZSTD};
+        for (int c = 0; c < codecs.length; c++) {
+            for (int level : levels[c]) {
+                measure(codecs[c], level, body);
+            }
+        }
+    }
+
+    private void measure(ContentCodec codec, int level, byte[] body) throws Exception {
+        byte[] compressed = compress(codec, level, body);
+        assertArrayEquals(body, decompress(codec, compressed));
+
+        // 暖機後取平均
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            compress(codec, level, body);
+        }
+        double compressMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decompress(codec, compressed);
+        }
+        double decompressMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        System.out.printf("%-6s %4d %11.1f %7.1f%% %11.2f %13.2f%n",
+            codec.getToken(), level, compressed.length / 1024d,
+            compressed.length * 100.0 / body.length, compressMillis, decompressMillis);
+    }
+
+    private static byte[] compress(ContentCodec codec, int level, byte[] body) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = codec.encode(buffer, level)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] decompress(ContentCodec codec, byte[] compressed) throws Exception {
+        try (InputStream in = codec.decode(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
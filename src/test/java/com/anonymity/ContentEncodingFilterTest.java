@@ -0,0 +1,96 @@
+package com.anonymity;
+
+import com.anonymity.config.ContentEncodingFilter;
+import com.anonymity.config.RequestBodyTooLargeException;
+import com.anonymity.output.XlsxResultWriter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 回應壓縮：一般回應依 Accept-Encoding 壓縮，本身已壓縮的格式原樣輸出
+ * 請求解壓縮：超過大小上限時停止讀取
+ */
+public class ContentEncodingFilterTest {
+
+    private static final byte[] BODY = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testCompressesJson() throws Exception {
+        MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(BODY, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testSkipsPrecompressedTypes() throws Exception {
+        MockHttpServletResponse response = filter(XlsxResultWriter.MEDIA_TYPE);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testFinishesCompressionWhenHandlerFails() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/anonymity/anonymize");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(BODY);
+            throw new IOException("處理失敗");
+        };
+
+        assertThrows(IOException.class, () -> new ContentEncodingFilter().doFilter(request, response, chain));
+        // 例外發生後壓縮串流仍寫出結尾，回應可以完整解壓縮
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(BODY, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testRejectsOversizeDecodedBody() throws Exception {
+        // 1MB 的 0 壓縮後只有約 1KB
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(new byte[1024 * 1024]);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/anonymity/anonymize");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(compressed.toByteArray());
+        FilterChain chain = (req, res) -> {
+            InputStream in = req.getInputStream();
+            assertEquals(64 * 1024, in.readNBytes(64 * 1024).length);
+            assertThrows(RequestBodyTooLargeException.class, in::readAllBytes);
+        };
+        new ContentEncodingFilter(64 * 1024).doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private static MockHttpServletResponse filter(String contentType) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/anonymity/anonymize");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(contentType);
+            res.getOutputStream().write(BODY);
+        };
+        new ContentEncodingFilter().doFilter(request, response, chain);
+        return response;
+    }
+}
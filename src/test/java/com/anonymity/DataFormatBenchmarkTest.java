@@ -0,0 +1,106 @@
+package com.anonymity;
+
+import com.anonymity.config.DataFormats;
+import com.anonymity.ingest.StreamingJsonIngestor;
+import com.anonymity.ingest.StreamingJsonIngestor.IngestedRequest;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON、CBOR、Smile 的大小與編解碼時間比較
+ * 回應使用 anonymizeTest 的結果，請求使用同樣筆數的上傳資料並以串流匯入解析
+ */
+@Tag("benchmark")
+public class DataFormatBenchmarkTest {
+
+    private static final int DATA_SIZE = 50000;
+    private static final int ITERATIONS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataFormats dataFormats = new DataFormats(objectMapper);
+
+    @Test
+    public void testNegotiation() {
+        assertEquals(MediaType.APPLICATION_JSON, dataFormats.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, dataFormats.negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, dataFormats.negotiate("application/*"));
+        assertEquals(MediaType.APPLICATION_JSON, dataFormats.negotiate("application/json, application/cbor"));
+        assertEquals(MediaType.APPLICATION_CBOR, dataFormats.negotiate("application/cbor"));
+        assertEquals(DataFormats.SMILE, dataFormats.negotiate("text/html, application/x-jackson-smile;q=0.9"));
+        assertSame(dataFormats.getCborMapper(), dataFormats.mapperFor("application/cbor"));
+        assertSame(objectMapper, dataFormats.mapperFor("application/json;charset=UTF-8"));
+    }
+
+    @Test
+    public void testResponseFormats() throws Exception {
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        Map<String, Object> response = anonymityService.generateAndAnonymizeTestData(DATA_SIZE, 3, 2);
+        Map<?, ?> expected = objectMapper.readValue(objectMapper.writeValueAsBytes(response), Map.class);
+
+        System.out.println("\n=== anonymizeTest 回應格式 (" + DATA_SIZE + " 筆) ===");
+        System.out.println("格式    大小(KB)   編碼(毫秒)  解碼(毫秒)");
+        measure("json", objectMapper, response, expected);
+        measure("cbor", dataFormats.getCborMapper(), response, expected);
+        measure("smile", dataFormats.getSmileMapper(), response, expected);
+    }
+
+    @Test
+    public void testRequestFormats() throws Exception {
+        Map<String, Object> request = Map.of(
+            "data", DpTestDataGenerator.generateTestData(DATA_SIZE),
+            "k", 3,
+            "l", 2
+        );
+
+        System.out.println("\n=== 上傳資料格式，串流匯入 (" + DATA_SIZE + " 筆) ===");
+        System.out.println("格式    大小(KB)   解析(毫秒)");
+        for (ObjectMapper mapper : new ObjectMapper[]{
+                objectMapper, dataFormats.getCborMapper(), dataFormats.getSmileMapper()}) {
+            byte[] body = mapper.writeValueAsBytes(request);
+            StreamingJsonIngestor ingestor = new StreamingJsonIngestor(objectMapper);
+            IngestedRequest ingested = ingestor.read(new ByteArrayInputStream(body), mapper.getFactory());
+            assertEquals(DATA_SIZE, ingested.getRowCount());
+            assertEquals(3, ingested.getK());
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                ingestor.read(new ByteArrayInputStream(body), mapper.getFactory());
+            }
+            double parseMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+            System.out.printf("%-6s %9.1f %12.2f%n", mapper.getFactory().getFormatName(), body.length / 1024d, parseMillis);
+        }
+    }
+
+    private void measure(String name, ObjectMapper mapper, Map<String, Object> response, Map<?, ?> expected)
+            throws Exception {
+        byte[] body = mapper.writeValueAsBytes(response);
+        assertEquals(expected, mapper.readValue(body, Map.class));
+
+        // 暖機後取平均
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(response);
+        }
+        double encodeMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(body, Map.class);
+        }
+        double decodeMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        System.out.printf("%-6s %9.1f %12.2f %11.2f%n", name, body.length / 1024d, encodeMillis, decodeMillis);
+    }
+}
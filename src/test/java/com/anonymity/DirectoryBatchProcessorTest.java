@@ -0,0 +1,105 @@
+package com.anonymity;
+
+import com.anonymity.batch.DirectoryBatchProcessor;
+import com.anonymity.config.WatchProperties;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.CsvService;
+import com.anonymity.service.ExcelService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 監看目錄批次匿名化：同名的 CSV 與 XLSX 各自輸出結果，處理完的來源檔移到 processed
+ */
+public class DirectoryBatchProcessorTest {
+
+    private static final int DATA_SIZE = 300;
+    private static final String[] COLUMNS = {"年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診"};
+
+    @Test
+    public void testProcessesCsvAndXlsxWithSameBaseName(@TempDir Path dir) throws Exception {
+        Path input = Files.createDirectories(dir.resolve("input"));
+        Path output = dir.resolve("output");
+        List<Map<String, String>> data = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        writeCsv(input.resolve("x.csv"), data);
+        writeXlsx(input.resolve("x.xlsx"), data);
+
+        WatchProperties properties = new WatchProperties();
+        properties.setEnabled(true);
+        properties.setInputDir(input.toString());
+        properties.setOutputDir(output.toString());
+        properties.setSettleMillis(50);
+
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        DirectoryBatchProcessor processor = new DirectoryBatchProcessor();
+        ReflectionTestUtils.setField(processor, "properties", properties);
+        ReflectionTestUtils.setField(processor, "csvService", new CsvService());
+        ReflectionTestUtils.setField(processor, "excelService", new ExcelService());
+        ReflectionTestUtils.setField(processor, "anonymityService", anonymityService);
+        ReflectionTestUtils.setField(processor, "objectMapper", new ObjectMapper());
+
+        processor.start();
+        try {
+            long deadline = System.currentTimeMillis() + 120000;
+            while (!(Files.exists(input.resolve("processed/x.csv")) && Files.exists(input.resolve("processed/x.xlsx")))) {
+                assertTrue(System.currentTimeMillis() < deadline, "批次處理逾時");
+                assertFalse(Files.exists(input.resolve("failed/x.csv")) || Files.exists(input.resolve("failed/x.xlsx")),
+                    "批次處理失敗");
+                Thread.sleep(100);
+            }
+        } finally {
+            processor.stop();
+        }
+
+        for (String name : new String[]{"x.csv", "x.xlsx"}) {
+            List<String> lines = Files.readAllLines(output.resolve(name + ".anonymized.csv"), StandardCharsets.UTF_8);
+            assertEquals(DATA_SIZE + 1, lines.size(), name);
+            assertTrue(Files.exists(output.resolve(name + ".stats.json")), name);
+        }
+    }
+
+    private static void writeCsv(Path file, List<Map<String, String>> data) throws Exception {
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (Map<String, String> row : data) {
+            for (int j = 0; j < COLUMNS.length; j++) {
+                csv.append(j > 0 ? "," : "").append(row.get(COLUMNS[j]));
+            }
+            csv.append('\n');
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+    }
+
+    private static void writeXlsx(Path file, List<Map<String, String>> data) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            for (int j = 0; j < COLUMNS.length; j++) {
+                header.createCell(j).setCellValue(COLUMNS[j]);
+            }
+            for (int i = 0; i < data.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                for (int j = 0; j < COLUMNS.length; j++) {
+                    row.createCell(j).setCellValue(data.get(i).get(COLUMNS[j]));
+                }
+            }
+            workbook.write(out);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.anonymity;
 
+import com.anonymity.controller.dto.DatasetPayload;
 import com.anonymity.controller.dto.DifferentialPrivacyRequest;
+import com.anonymity.service.DifferentialPrivacyService;
 import com.anonymity.util.DpTestDataGenerator;
 import com.anonymity.util.PrivacyMetricsCalculator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.DataHandle;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +40,7 @@ import java.io.BufferedWriter;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.junit.jupiter.api.Assertions.*;
@@ -75,6 +79,9 @@ public class DpTest extends Application {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DifferentialPrivacyService differentialPrivacyService;
+
     @BeforeAll
     public static void initJavaFX() {
         // 初始化 JavaFX
@@ -106,7 +113,7 @@ public class DpTest extends Application {
         request.setEpsilon(epsilon);
         request.setDelta(delta);
         request.setIsDataIndependent(false);
-        request.setData(objectMapper.writeValueAsString(testData));
+        request.setData(DatasetPayload.of(objectMapper.writeValueAsString(testData)));
 
         // 記錄開始時間
         Instant startTime = Instant.now();
@@ -117,6 +124,10 @@ public class DpTest extends Application {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andReturn();
+        // 結果以 StreamingResponseBody 寫出，需等非同步處理完成
+        result = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
 
         // 計算執行時間
         Duration executionTime = Duration.between(startTime, Instant.now());
@@ -177,7 +188,7 @@ public class DpTest extends Application {
         request.setEpsilon(2d);
         request.setDelta(0.001d);
         request.setIsDataIndependent(false);
-        request.setData(objectMapper.writeValueAsString(testData));
+        request.setData(DatasetPayload.of(objectMapper.writeValueAsString(testData)));
 
         // 記錄開始時間
         Instant startTime = Instant.now();
@@ -188,6 +199,10 @@ public class DpTest extends Application {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andReturn();
+        // 結果以 StreamingResponseBody 寫出，需等非同步處理完成
+        result = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
 
         // 計算執行時間
         Duration executionTime = Duration.between(startTime, Instant.now());
@@ -244,7 +259,7 @@ public class DpTest extends Application {
         request.setEpsilon(-1.0);
         request.setDelta(0.1);
         request.setIsDataIndependent(false);
-        request.setData(objectMapper.writeValueAsString(testData));
+        request.setData(DatasetPayload.of(objectMapper.writeValueAsString(testData)));
 
         // 發送請求並驗證錯誤響應
         mockMvc.perform(post("/api/differential-privacy/apply")
@@ -260,7 +275,7 @@ public class DpTest extends Application {
         request.setEpsilon(2.0);
         request.setDelta(0.1);
         request.setIsDataIndependent(false);
-        request.setData("");
+        request.setData(DatasetPayload.of(""));
 
         // 發送請求並驗證錯誤響應
         mockMvc.perform(post("/api/differential-privacy/apply")
@@ -269,6 +284,26 @@ public class DpTest extends Application {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void testIdentifiersSuppressed() throws Exception {
+        // 識別欄位在載入 ARX 前換成 *，輸出仍保留原本的欄位
+        List<Map<String, String>> testData = DpTestDataGenerator.generateTestData(2000);
+        String[] header = testData.get(0).keySet().toArray(new String[0]);
+        List<String[]> rows = new ArrayList<>();
+        for (Map<String, String> record : testData) {
+            rows.add(record.values().toArray(new String[0]));
+        }
+
+        DataHandle output = differentialPrivacyService.anonymize(DatasetPayload.of(header, rows), 2.0, 1e-5, true);
+
+        assertEquals(header.length, output.getNumColumns());
+        int column = output.getColumnIndexOf("身分證");
+        assertTrue(column >= 0);
+        for (int i = 0; i < output.getNumRows(); i++) {
+            assertEquals("*", output.getValue(i, column));
+        }
+    }
+
     @Test
     public void testDpDependentLoop() throws Exception {
         // 定義要測試的 epsilon 和 delta 值
@@ -314,7 +349,7 @@ public class DpTest extends Application {
                 request.setIsDataIndependent(false);
 
                 String testDataJson = objectMapper.writeValueAsString(testData);
-                 request.setData(testDataJson);
+                 request.setData(DatasetPayload.of(testDataJson));
 
                 // 記錄開始時間
                 Instant startTime = Instant.now();
@@ -326,6 +361,10 @@ public class DpTest extends Application {
                             .content(objectMapper.writeValueAsString(request)))
                             .andExpect(status().isOk())
                             .andReturn();
+                    // 結果以 StreamingResponseBody 寫出，需等非同步處理完成
+                    result = mockMvc.perform(asyncDispatch(result))
+                            .andExpect(status().isOk())
+                            .andReturn();
 
                     // 計算執行時間
                     Duration executionTime = Duration.between(startTime, Instant.now());
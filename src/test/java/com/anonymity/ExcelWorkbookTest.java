@@ -0,0 +1,80 @@
+package com.anonymity;
+
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.ExcelService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多工作表活頁簿：各工作表同時處理，結果依工作表順序回傳，單一工作表失敗不影響其他工作表
+ */
+public class ExcelWorkbookTest {
+
+    private static final String[] COLUMNS = {"年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診"};
+
+    private final ExcelService excelService = new ExcelService();
+
+    @AfterEach
+    public void tearDown() {
+        excelService.shutdown();
+    }
+
+    @Test
+    public void testSheetsAnonymizedConcurrently() throws Exception {
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        ReflectionTestUtils.setField(excelService, "anonymityService", anonymityService);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            writeSheet(workbook.createSheet("一月"), DpTestDataGenerator.generateTestData(500));
+            writeSheet(workbook.createSheet("二月"), DpTestDataGenerator.generateTestData(300));
+            // 只有一筆資料無法滿足 k 值
+            writeSheet(workbook.createSheet("三月"), DpTestDataGenerator.generateTestData(1));
+            workbook.write(bytes);
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "cases.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", bytes.toByteArray());
+
+        List<Map<String, Object>> results = excelService.anonymizeWorkbook(file,
+            Arrays.asList("年齡", "性別", "縣市", "通報日期"), Arrays.asList("疾病", "檢驗結果", "是否確診"), 3, 2);
+
+        assertEquals(3, results.size());
+        assertEquals("一月", results.get(0).get("sheet"));
+        assertEquals("二月", results.get(1).get("sheet"));
+        assertEquals("三月", results.get(2).get("sheet"));
+        assertEquals(true, results.get(0).get("success"));
+        assertEquals(true, results.get(1).get("success"));
+        assertEquals(500, ((List<?>) results.get(0).get("data")).size());
+        assertEquals(300, ((List<?>) results.get(1).get("data")).size());
+        assertEquals(false, results.get(2).get("success"));
+        assertNotNull(results.get(2).get("error"));
+    }
+
+    private static void writeSheet(Sheet sheet, List<Map<String, String>> data) {
+        Row header = sheet.createRow(0);
+        for (int j = 0; j < COLUMNS.length; j++) {
+            header.createCell(j).setCellValue(COLUMNS[j]);
+        }
+        for (int i = 0; i < data.size(); i++) {
+            Row row = sheet.createRow(i + 1);
+            for (int j = 0; j < COLUMNS.length; j++) {
+                row.createCell(j).setCellValue(data.get(i).get(COLUMNS[j]));
+            }
+        }
+    }
+}
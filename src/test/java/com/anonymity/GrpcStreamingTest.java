@@ -0,0 +1,202 @@
+package com.anonymity;
+
+import com.anonymity.config.GrpcProperties;
+import com.anonymity.grpc.AnonymityGrpc;
+import com.anonymity.grpc.AnonymityGrpcService;
+import com.anonymity.grpc.Parameters;
+import com.anonymity.grpc.Row;
+import com.anonymity.grpc.RowBatch;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.DifferentialPrivacyService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Value;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 以 in-process 的 gRPC 伺服器測試串流上傳與回傳，用戶端依 isReady 控制送出速度
+ */
+public class GrpcStreamingTest {
+
+    private static final int DATA_SIZE = 20000;
+    private static final int BATCH_ROWS = 500;
+    private static final String[] COLUMNS = {"年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診"};
+
+    private final GrpcProperties properties = new GrpcProperties();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        AnonymityGrpcService service = new AnonymityGrpcService(
+            anonymityService, new DifferentialPrivacyService(new ObjectMapper()), properties);
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAnonymizeStream() throws Exception {
+        Parameters parameters = Parameters.newBuilder()
+            .setK(3)
+            .setL(2)
+            .addAllQuasiIdentifiers(Arrays.asList("年齡", "性別", "縣市", "通報日期"))
+            .addAllSensitiveAttributes(Arrays.asList("疾病", "檢驗結果", "是否確診"))
+            .build();
+
+        long start = System.currentTimeMillis();
+        List<RowBatch> responses = call(AnonymityGrpc.getAnonymizeMethod(), parameters, rows(DATA_SIZE));
+        System.out.println("gRPC 串流匿名化 " + DATA_SIZE + " 筆: " + (System.currentTimeMillis() - start) + " 毫秒, "
+            + responses.size() + " 個回傳批次");
+
+        assertEquals(Arrays.asList(COLUMNS), responses.get(0).getColumnsList());
+        assertEquals(DATA_SIZE, responses.stream().mapToInt(RowBatch::getRowsCount).sum());
+        RowBatch last = responses.get(responses.size() - 1);
+        assertEquals(0, last.getRowsCount());
+        assertEquals(DATA_SIZE, (int) statistic(last, "rows").getNumberValue());
+    }
+
+    @Test
+    public void testDifferentialPrivacyStream() throws Exception {
+        Parameters parameters = Parameters.newBuilder().setEpsilon(2.0).setDelta(1e-5).build();
+        List<RowBatch> responses = call(AnonymityGrpc.getApplyDifferentialPrivacyMethod(), parameters, rows(2000));
+
+        assertTrue(responses.get(0).getColumnsCount() > 0);
+        RowBatch last = responses.get(responses.size() - 1);
+        assertEquals(2.0, statistic(last, "epsilon").getNumberValue());
+        assertFalse(statistic(last, "isDataIndependent").getBoolValue());
+        assertEquals((int) statistic(last, "rows").getNumberValue(),
+            responses.stream().mapToInt(RowBatch::getRowsCount).sum());
+    }
+
+    @Test
+    public void testRejectsInvalidStreams() {
+        Parameters parameters = Parameters.newBuilder().setK(3).setL(2).build();
+
+        // 缺少準識別符與敏感屬性
+        assertEquals(Status.Code.INVALID_ARGUMENT,
+            statusOf(() -> call(AnonymityGrpc.getAnonymizeMethod(), parameters, rows(100))));
+
+        // 缺少 k 與 l
+        Parameters withoutK = Parameters.newBuilder()
+            .addQuasiIdentifiers("年齡")
+            .addSensitiveAttributes("疾病")
+            .build();
+        assertEquals(Status.Code.INVALID_ARGUMENT,
+            statusOf(() -> call(AnonymityGrpc.getAnonymizeMethod(), withoutK, rows(100))));
+
+        // 超過可上傳的資料列上限
+        properties.setMaxRows(1000);
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED,
+            statusOf(() -> call(AnonymityGrpc.getAnonymizeMethod(), parameters, rows(5000))));
+    }
+
+    /**
+     * 第一個批次帶 columns 與參數，之後只在 isReady 時送出下一個批次
+     */
+    private List<RowBatch> call(MethodDescriptor<RowBatch, RowBatch> method, Parameters parameters,
+                                List<Row> rows) throws Exception {
+        CompletableFuture<List<RowBatch>> result = new CompletableFuture<>();
+        List<RowBatch> responses = new ArrayList<>();
+
+        ClientCalls.asyncBidiStreamingCall(channel.newCall(method, CallOptions.DEFAULT),
+            new ClientResponseObserver<RowBatch, RowBatch>() {
+                private int next;
+                private boolean completed;
+
+                @Override
+                public void beforeStart(ClientCallStreamObserver<RowBatch> requests) {
+                    requests.setOnReadyHandler(() -> {
+                        while (!completed && requests.isReady()) {
+                            if (next >= rows.size()) {
+                                requests.onCompleted();
+                                completed = true;
+                                return;
+                            }
+                            RowBatch.Builder batch = RowBatch.newBuilder();
+                            if (next == 0) {
+                                batch.addAllColumns(Arrays.asList(COLUMNS));
+                                batch.setParameters(parameters);
+                            }
+                            int end = Math.min(rows.size(), next + BATCH_ROWS);
+                            batch.addAllRows(rows.subList(next, end));
+                            requests.onNext(batch.build());
+                            next = end;
+                        }
+                    });
+                }
+
+                @Override
+                public void onNext(RowBatch batch) {
+                    responses.add(batch);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    result.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted() {
+                    result.complete(responses);
+                }
+            });
+        return result.get(2, TimeUnit.MINUTES);
+    }
+
+    private static Status.Code statusOf(Executable call) {
+        ExecutionException e = assertThrows(ExecutionException.class, call);
+        return Status.fromThrowable(e.getCause()).getCode();
+    }
+
+    private static Value statistic(RowBatch batch, String name) {
+        assertTrue(batch.getStatistics().containsFields(name), name);
+        return batch.getStatistics().getFieldsOrThrow(name);
+    }
+
+    private static List<Row> rows(int size) {
+        List<Row> rows = new ArrayList<>(size);
+        for (Map<String, String> record : DpTestDataGenerator.generateTestData(size)) {
+            Row.Builder row = Row.newBuilder();
+            for (String column : COLUMNS) {
+                row.addValues(record.get(column));
+            }
+            rows.add(row.build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,260 @@
+package com.anonymity;
+
+import com.anonymity.ingest.JsonRowReader;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.ingest.StreamingJsonIngestor;
+import com.anonymity.ingest.StreamingJsonIngestor.IngestedRequest;
+import com.anonymity.ingest.ValueInterner;
+import com.anonymity.service.CsvService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.util.HeapUsage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.Data.DefaultData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 匯入路徑效能比較
+ * 以相同資料比較 Map 綁定、串流匯入與延遲迭代的解析時間與峰值 heap
+ */
+@Tag("benchmark")
+public class IngestBenchmarkTest {
+
+    private static final int DATA_SIZE = 200000;
+    private static final int INTERN_SIZE = 1000000;
+
+    /** CSV 匯入的目標吞吐量 */
+    private static final double CSV_TARGET_MB_PER_SECOND = 100.0;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testJsonMapVsStreaming() throws Exception {
+        // 產生測試資料並序列化成請求內容
+        List<Map<String, String>> testData = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+            "data", testData,
+            "k", 3,
+            "l", 2
+        ));
+        testData = null;
+        System.out.printf("請求大小: %.1f MB%n", body.length / 1024d / 1024d);
+
+        // 原本的方式：整個請求綁定成 Map，再逐筆複製到 DefaultData
+        HeapUsage.resetPeak();
+        long start = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = objectMapper.readValue(body, Map.class);
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> rows = (List<Map<String, String>>) request.get("data");
+        DefaultData mapped = Data.create();
+        mapped.add(rows.get(0).keySet().toArray(new String[0]));
+        for (Map<String, String> row : rows) {
+            mapped.add(row.values().toArray(new String[0]));
+        }
+        long mapMillis = (System.nanoTime() - start) / 1000000;
+        long mapPeak = HeapUsage.peak();
+        int mapRows = rows.size();
+        request = null;
+        rows = null;
+        mapped = null;
+
+        // 串流匯入：data 陣列逐筆解析成資料列，不經過 Map
+        HeapUsage.resetPeak();
+        start = System.nanoTime();
+        IngestedRequest streamed = new StreamingJsonIngestor(objectMapper).read(new ByteArrayInputStream(body));
+        long streamMillis = (System.nanoTime() - start) / 1000000;
+        long streamPeak = HeapUsage.peak();
+
+        assertEquals(mapRows, streamed.getRowCount());
+        assertEquals(3, streamed.getK());
+
+        System.out.println("\n=== JSON 匯入比較 (" + DATA_SIZE + " 筆) ===");
+        System.out.printf("Map 綁定: %d 毫秒, 峰值 heap %.1f MB%n", mapMillis, mapPeak / 1024d / 1024d);
+        System.out.printf("串流匯入: %d 毫秒, 峰值 heap %.1f MB%n", streamMillis, streamPeak / 1024d / 1024d);
+    }
+
+    @Test
+    public void testCsvVsJson() throws Exception {
+        // 相同資料分別輸出成 CSV 與 JSON
+        List<Map<String, String>> testData = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        String[] header = testData.get(0).keySet().toArray(new String[0]);
+        Path csv = Files.createTempFile("ingest-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", header));
+            writer.newLine();
+            for (Map<String, String> row : testData) {
+                writer.write(String.join(",", row.values()));
+                writer.newLine();
+            }
+        }
+        byte[] json = objectMapper.writeValueAsBytes(Map.of("data", testData, "k", 3, "l", 2));
+        testData = null;
+
+        try {
+            // JSON 路徑（目前的 Map 綁定）
+            System.gc();
+            long start = System.nanoTime();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = objectMapper.readValue(json, Map.class);
+            @SuppressWarnings("unchecked")
+            List<Map<String, String>> rows = (List<Map<String, String>>) request.get("data");
+            DefaultData mapped = Data.create();
+            mapped.add(header);
+            for (Map<String, String> row : rows) {
+                mapped.add(row.values().toArray(new String[0]));
+            }
+            double jsonSeconds = (System.nanoTime() - start) / 1e9;
+            request = null;
+            rows = null;
+            mapped = null;
+
+            // CSV 路徑（記憶體映射）
+            System.gc();
+            start = System.nanoTime();
+            Data csvData = new CsvService().readCsvFile(csv, ',');
+            double csvSeconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(DATA_SIZE, csvData.getHandle().getNumRows());
+
+            double csvMb = Files.size(csv) / 1024d / 1024d;
+            double jsonMb = json.length / 1024d / 1024d;
+            System.out.println("\n=== CSV 與 JSON 匯入比較 (" + DATA_SIZE + " 筆) ===");
+            System.out.printf("JSON: %.1f MB, %.0f 毫秒, %.1f MB/s, %.0f 筆/秒%n",
+                jsonMb, jsonSeconds * 1000, jsonMb / jsonSeconds, DATA_SIZE / jsonSeconds);
+            System.out.printf("CSV : %.1f MB, %.0f 毫秒, %.1f MB/s, %.0f 筆/秒 (目標 %.0f MB/s)%n",
+                csvMb, csvSeconds * 1000, csvMb / csvSeconds, DATA_SIZE / csvSeconds, CSV_TARGET_MB_PER_SECOND);
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    @Test
+    public void testCopyVsLazyIterator() throws Exception {
+        // 複製到 DefaultData：請求的 Map、DefaultData 的資料列與 ARX 的編碼同時存在
+        List<Map<String, String>> rows = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        String[] header = rows.get(0).keySet().toArray(new String[0]);
+        HeapUsage.resetPeak();
+        long start = System.nanoTime();
+        DefaultData copied = Data.create();
+        copied.add(header);
+        for (Map<String, String> row : rows) {
+            copied.add(row.values().toArray(new String[0]));
+        }
+        int copiedRows = copied.getHandle().getNumRows();
+        long copyMillis = (System.nanoTime() - start) / 1000000;
+        long copyPeak = HeapUsage.peak();
+        copied = null;
+        rows = null;
+
+        // 延遲迭代：ARX 編碼時才轉換，轉換過的 Map 立即釋放
+        rows = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        HeapUsage.resetPeak();
+        start = System.nanoTime();
+        Data lazy = Data.create(RowIterators.fromMaps(header, rows));
+        int lazyRows = lazy.getHandle().getNumRows();
+        long lazyMillis = (System.nanoTime() - start) / 1000000;
+        long lazyPeak = HeapUsage.peak();
+
+        assertEquals(copiedRows, lazyRows);
+        assertTrue(rows.isEmpty(), "走訪完後請求的資料列應已釋放");
+
+        System.out.println("\n=== 複製與延遲迭代比較 (" + DATA_SIZE + " 筆) ===");
+        System.out.printf("複製到 DefaultData: %d 毫秒, 峰值 heap %.1f MB%n", copyMillis, copyPeak / 1024d / 1024d);
+        System.out.printf("延遲迭代          : %d 毫秒, 峰值 heap %.1f MB%n", lazyMillis, lazyPeak / 1024d / 1024d);
+    }
+
+    @Test
+    public void testInterning() throws Exception {
+        // 分批產生一百萬筆資料直接寫成 JSON，不同時保留全部的 Map
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (int written = 0; written < INTERN_SIZE; written += 10000) {
+                for (Map<String, String> row : DpTestDataGenerator.generateTestData(10000)) {
+                    generator.writeObject(row);
+                }
+            }
+            generator.writeEndArray();
+        }
+        byte[] body = out.toByteArray();
+        out = null;
+
+        // 解析後保留全部資料列，與交給 ARX 前相同，比較保留的 heap
+        List<String[]> plain = null;
+        int cityColumn = -1;
+        long plainBytes = 0;
+        long plainMillis = 0;
+        long internedBytes = 0;
+        long internedMillis = 0;
+        for (int maxValues : new int[]{0, ValueInterner.DEFAULT_MAX_VALUES}) {
+            long base = HeapUsage.used();
+            long start = System.nanoTime();
+            List<String[]> rows = new ArrayList<>(INTERN_SIZE);
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                parser.nextToken();
+                JsonRowReader reader = new JsonRowReader(parser, new ValueInterner(maxValues));
+                cityColumn = Arrays.asList(reader.getHeader()).indexOf("縣市");
+                while (reader.hasNext()) {
+                    rows.add(reader.next());
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1000000;
+            long bytes = HeapUsage.used() - base;
+            assertEquals(INTERN_SIZE, rows.size());
+
+            if (maxValues == 0) {
+                plain = sample(rows);
+                plainBytes = bytes;
+                plainMillis = millis;
+                rows = null;
+            } else {
+                internedBytes = bytes;
+                internedMillis = millis;
+                List<String[]> interned = sample(rows);
+                for (int i = 0; i < interned.size(); i++) {
+                    assertArrayEquals(plain.get(i), interned.get(i));
+                }
+                // 低基數欄位共用同一個 String，身分證超過上限後不再正規化
+                Set<String> cities = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (String[] row : rows) {
+                    cities.add(row[cityColumn]);
+                }
+                assertTrue(cities.size() <= 5);
+            }
+        }
+        assertTrue(internedBytes < plainBytes);
+
+        System.out.println("\n=== 類別值正規化 (" + INTERN_SIZE + " 筆) ===");
+        System.out.printf("未正規化: %.1f MB, %d 毫秒%n", plainBytes / 1024d / 1024d, plainMillis);
+        System.out.printf("正規化  : %.1f MB, %d 毫秒%n", internedBytes / 1024d / 1024d, internedMillis);
+        System.out.printf("節省 heap: %.1f MB (%.0f bytes/筆)%n",
+            (plainBytes - internedBytes) / 1024d / 1024d, (double) (plainBytes - internedBytes) / INTERN_SIZE);
+    }
+
+    private static List<String[]> sample(List<String[]> rows) {
+        List<String[]> sample = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i += 9973) {
+            sample.add(rows.get(i));
+        }
+        return sample;
+    }
+}
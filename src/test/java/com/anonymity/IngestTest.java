@@ -0,0 +1,112 @@
+package com.anonymity;
+
+import com.anonymity.ingest.CsvRowReader;
+import com.anonymity.ingest.StreamingJsonIngestor;
+import com.anonymity.ingest.StreamingJsonIngestor.IngestedRequest;
+import com.anonymity.ingest.ValueInterner;
+import com.anonymity.ingest.XlsxSheetReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 匯入讀取器的邊界情況
+ */
+public class IngestTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testNullParametersAreMissing() throws Exception {
+        String json = "{\"k\": null, \"l\": null, \"quasiIdentifiers\": null, \"data\": null}";
+        IngestedRequest request = new StreamingJsonIngestor(objectMapper)
+            .read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertNull(request.getK());
+        assertNull(request.getL());
+        assertNull(request.getQuasiIdentifiers());
+        assertNull(request.getDataSet());
+    }
+
+    @Test
+    public void testXlsxTypedCells(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cells.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            String[] names = {"通報日期", "年齡", "體溫", "加倍", "備註"};
+            for (int j = 0; j < names.length; j++) {
+                header.createCell(j).setCellValue(names[j]);
+            }
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(LocalDate.of(2025, 3, 7));
+            row.getCell(0).setCellStyle(dateStyle);
+            row.createCell(1).setCellValue(25);
+            row.createCell(2).setCellValue(36.5);
+            row.createCell(3).setCellFormula("B2*2");
+            row.createCell(4);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+
+        List<String[]> rows = new ArrayList<>();
+        try (XlsxSheetReader reader = new XlsxSheetReader(file.toFile())) {
+            reader.readFirstSheet(rows::add);
+        }
+
+        // 日期轉為 yyyy/MM/dd，整數不帶小數點，公式取計算結果，空白儲存格與 CSV 一樣視為缺值
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"2025/03/07", "25", "36.5", "50", "NULL"}, rows.get(1));
+    }
+
+    @Test
+    public void testCsvRejectsNonAsciiDelimiter(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cases.csv");
+        Files.writeString(file, "年齡；性別\n25；男\n");
+        assertThrows(IllegalArgumentException.class, () -> new CsvRowReader(file, '；'));
+    }
+
+    @Test
+    public void testInternerDisablesColumnAtMaxValues() {
+        ValueInterner interner = new ValueInterner(2);
+        String male = interner.intern(0, "男");
+        interner.intern(0, "女");
+        assertSame(male, interner.intern(0, new String("男")));
+
+        // 第三種值超過上限，該欄位停止正規化，其他欄位不受影響
+        assertEquals("其他", interner.intern(0, "其他"));
+        assertFalse(interner.isEnabled(0));
+        assertNotSame(male, interner.intern(0, new String("男")));
+        assertTrue(interner.isEnabled(1));
+    }
+
+    @Test
+    public void testInternerCharsMatchString() {
+        ValueInterner interner = new ValueInterner();
+        String city = interner.intern(0, "台北市");
+        char[] chars = "新北市台北市".toCharArray();
+        // 字元內容的雜湊需與 String.hashCode 一致，才會找到以 String 記錄的值
+        assertSame(city, interner.intern(0, chars, 3, 3));
+
+        String county = interner.intern(1, chars, 0, 3);
+        assertEquals("新北市", county);
+        assertSame(county, interner.intern(1, new String("新北市")));
+    }
+}
@@ -0,0 +1,257 @@
+package com.anonymity;
+
+import com.anonymity.config.JdbcSourceProperties;
+import com.anonymity.ingest.JdbcRowReader;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.service.JdbcService;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.validation.DataValidator;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 從嵌入式 H2 資料庫直接讀取資料並匿名化，以及將結果批次寫回資料庫
+ */
+public class JdbcIngestTest {
+
+    private static final int DATA_SIZE = 20000;
+    private static final String URL = "jdbc:h2:mem:cases;DB_CLOSE_DELAY=-1";
+    private static final String[] COLUMNS = {"身分證", "年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診"};
+
+    private Connection connection;
+    private JdbcService jdbcService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE 通報資料 (身分證 VARCHAR(10), 年齡 INT, 性別 VARCHAR(2), " +
+                "縣市 VARCHAR(10), 通報日期 DATE, 疾病 VARCHAR(10), 檢驗結果 VARCHAR(10), 是否確診 VARCHAR(2))");
+        }
+
+        List<Map<String, String>> testData = DpTestDataGenerator.generateTestData(DATA_SIZE);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO 通報資料 VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (Map<String, String> row : testData) {
+                for (int j = 0; j < COLUMNS.length; j++) {
+                    String value = row.get(COLUMNS[j]);
+                    if (COLUMNS[j].equals("通報日期")) {
+                        insert.setDate(j + 1, java.sql.Date.valueOf(value.replace('/', '-')));
+                    } else {
+                        insert.setString(j + 1, value);
+                    }
+                }
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        JdbcSourceProperties properties = new JdbcSourceProperties();
+        JdbcSourceProperties.Source source = new JdbcSourceProperties.Source();
+        source.setUrl(URL);
+        source.setUsername("sa");
+        source.setPassword("");
+        properties.getSources().put("cases", source);
+        properties.getTargets().put("reports", source);
+        jdbcService = new JdbcService(properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE 通報資料");
+            statement.execute("DROP TABLE IF EXISTS 匿名化結果");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testReadTable() throws Exception {
+        List<String> columns = Arrays.asList("年齡", "性別", "縣市", "通報日期", "疾病");
+        Data dataSet = jdbcService.readTable("cases", "通報資料", columns, 500);
+        DataHandle handle = dataSet.getHandle();
+
+        assertEquals(DATA_SIZE, handle.getNumRows());
+        assertEquals(columns.size(), handle.getNumColumns());
+        assertEquals("年齡", handle.getAttributeName(0));
+        assertTrue(handle.getValue(0, 3).matches("\\d{4}/\\d{2}/\\d{2}"), "日期應轉成 yyyy/MM/dd");
+    }
+
+    @Test
+    public void testRejectsInvalidIdentifiers() {
+        assertThrows(IllegalArgumentException.class,
+            () -> jdbcService.readTable("cases", "通報資料; DROP TABLE 通報資料", List.of("年齡"), 500));
+        assertThrows(IllegalArgumentException.class,
+            () -> jdbcService.readTable("cases", "通報資料", List.of("年齡 FROM 通報資料 --"), 500));
+        assertThrows(IllegalArgumentException.class,
+            () -> jdbcService.readTable("unknown", "通報資料", List.of("年齡"), 500));
+    }
+
+    @Test
+    public void testReaderReleasesCursorOnFailure() throws Exception {
+        // 查詢成功但讀取標題失敗：游標要關閉，auto-commit 要還原
+        AtomicBoolean resultSetClosed = new AtomicBoolean();
+        AtomicBoolean statementClosed = new AtomicBoolean();
+        Connection failing = proxy(Connection.class, connection, (name, args) -> {
+            if (!name.equals("prepareStatement")) {
+                return null;
+            }
+            PreparedStatement statement = connection.prepareStatement((String) args[0], (int) args[1], (int) args[2]);
+            return proxy(PreparedStatement.class, statement, (statementMethod, statementArgs) -> {
+                if (statementMethod.equals("close")) {
+                    statementClosed.set(true);
+                } else if (statementMethod.equals("executeQuery")) {
+                    ResultSet resultSet = statement.executeQuery();
+                    return proxy(ResultSet.class, resultSet, (resultSetMethod, resultSetArgs) -> {
+                        if (resultSetMethod.equals("close")) {
+                            resultSetClosed.set(true);
+                        } else if (resultSetMethod.equals("getMetaData")) {
+                            throw new SQLException("metadata unavailable");
+                        }
+                        return null;
+                    });
+                }
+                return null;
+            });
+        });
+
+        assertTrue(connection.getAutoCommit());
+        assertThrows(SQLException.class, () -> new JdbcRowReader(failing, "SELECT 年齡 FROM 通報資料", 100));
+        assertTrue(resultSetClosed.get());
+        assertTrue(statementClosed.get());
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    public void testAnonymizeFromDatabase() throws Exception {
+        List<String> quasiIdentifiers = Arrays.asList("年齡", "性別", "縣市", "通報日期");
+        List<String> sensitiveAttributes = Arrays.asList("疾病", "檢驗結果", "是否確診");
+        List<String> columns = Arrays.asList("年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診");
+
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> result = anonymityService.anonymizeData(
+            jdbcService.readTable("cases", "通報資料", columns, 1000),
+            quasiIdentifiers, sensitiveAttributes, 3, 2);
+        System.out.println("資料庫讀取並匿名化 " + DATA_SIZE + " 筆: " + (System.currentTimeMillis() - start) + " 毫秒");
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> data = (List<Map<String, String>>) result.get("data");
+        assertEquals(DATA_SIZE, data.size());
+    }
+
+    @Test
+    public void testWriteResultToTarget() throws Exception {
+        List<String> quasiIdentifiers = Arrays.asList("年齡", "性別", "縣市", "通報日期");
+        List<String> sensitiveAttributes = Arrays.asList("疾病", "檢驗結果", "是否確診");
+        List<String> columns = Arrays.asList("年齡", "性別", "縣市", "通報日期", "疾病", "檢驗結果", "是否確診");
+
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        AnonymizationResult result = anonymityService.anonymize(
+            jdbcService.readTable("cases", "通報資料", columns, 1000),
+            quasiIdentifiers, sensitiveAttributes, 3, 2);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE 匿名化結果 (年齡 VARCHAR(20), 性別 VARCHAR(10), 縣市 VARCHAR(20), " +
+                "通報日期 VARCHAR(30), 疾病 VARCHAR(10), 檢驗結果 VARCHAR(10), 是否確診 VARCHAR(2))");
+        }
+
+        System.out.println("\n=== 寫入資料庫 (" + DATA_SIZE + " 筆) ===");
+        for (int batchSize : new int[]{1, 100, 1000}) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM 匿名化結果");
+            }
+            long start = System.currentTimeMillis();
+            assertEquals(DATA_SIZE, jdbcService.writeTable("reports", "匿名化結果", result, batchSize));
+            System.out.println("batch size " + batchSize + ": " + (System.currentTimeMillis() - start) + " 毫秒");
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), MIN(疾病) FROM 匿名化結果")) {
+            assertTrue(resultSet.next());
+            assertEquals(DATA_SIZE, resultSet.getInt(1));
+            assertNotNull(resultSet.getString(2));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+            () -> jdbcService.writeTable("cases", "匿名化結果", result, 1000));
+        assertThrows(IllegalArgumentException.class,
+            () -> jdbcService.writeTable("reports", "匿名化結果; DROP TABLE 通報資料", result, 1000));
+
+        // 寫入目標在匿名化之前檢查
+        jdbcService.validateTarget("reports", "匿名化結果", null);
+        assertThrows(IllegalArgumentException.class, () -> jdbcService.validateTarget("cases", "匿名化結果", null));
+        assertThrows(IllegalArgumentException.class, () -> jdbcService.validateTarget("reports", " ", null));
+        assertThrows(IllegalArgumentException.class, () -> jdbcService.validateTarget("reports", "匿名化結果", 0));
+
+        // 已執行部分批次後發生非 SQLException 的錯誤也要整批回滾
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM 匿名化結果");
+        }
+        int[] added = new int[1];
+        Connection failing = proxy(Connection.class, connection, (name, args) -> {
+            if (!name.equals("prepareStatement")) {
+                return null;
+            }
+            PreparedStatement insert = connection.prepareStatement((String) args[0]);
+            return proxy(PreparedStatement.class, insert, (statementMethod, statementArgs) -> {
+                if (statementMethod.equals("addBatch") && ++added[0] > 250) {
+                    throw new IllegalStateException("讀取輸出資料失敗");
+                }
+                return null;
+            });
+        });
+        assertThrows(IllegalStateException.class, () -> jdbcService.writeTable(failing, "匿名化結果",
+            result.getOutput(), result.getHeader(), result.getColumns(), 100));
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM 匿名化結果")) {
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        /** 回傳 null 時呼叫原本物件的方法 */
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            Object result = interceptor.invoke(method.getName(), args);
+            if (result != null) {
+                return result;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
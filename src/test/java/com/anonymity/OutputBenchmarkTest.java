@@ -0,0 +1,346 @@
+package com.anonymity;
+
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.output.EquivalenceClassWriter;
+import com.anonymity.output.EquivalenceClassWriter.EquivalenceClass;
+import com.anonymity.output.JsonResultWriter;
+import com.anonymity.output.JsonResultWriter.RowShape;
+import com.anonymity.output.XlsxResultWriter;
+import com.anonymity.service.AnonymityService;
+import com.anonymity.service.AnonymizationResult;
+import com.anonymity.util.DpTestDataGenerator;
+import com.anonymity.util.HeapUsage;
+import com.anonymity.validation.DataValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.deidentifier.arx.Data;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.deidentifier.arx.DataHandle;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 輸出路徑效能比較
+ * 以相同的 DataHandle 比較先組成 List<Map> 再序列化與逐列串流輸出的耗時、首位元組時間與峰值 heap，
+ * 以及各 JSON 結果形式、等價類彙總輸出的大小與序列化時間，SXSSF 匯出 .xlsx 的耗時與峰值 heap，
+ * 和結果平行轉換為 List<Map> 的耗時
+ */
+@Tag("benchmark")
+public class OutputBenchmarkTest {
+
+    private static final int DATA_SIZE = 200000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testStreamedOutputMatchesMap() throws Exception {
+        DataHandle handle = createHandle(1000);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+
+        ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+        objectMapper.writeValue(mapped, Map.of("statistics", Map.of(), "data", toMaps(handle, names)));
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        JsonResultWriter.writeDocument(objectMapper, Map.of("statistics", Map.of()), "data", RowShape.OBJECT,
+            handle, names, columns, streamed);
+        assertEquals(objectMapper.readTree(mapped.toByteArray()), objectMapper.readTree(streamed.toByteArray()));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        JsonResultWriter.writeNdjson(objectMapper, handle, names, columns, ndjson);
+        String[] lines = ndjson.toString("UTF-8").split("\n");
+        assertEquals(handle.getNumRows(), lines.length);
+        assertEquals(objectMapper.readTree(mapped.toByteArray()).get("data").get(0), objectMapper.readTree(lines[0]));
+    }
+
+    @Test
+    public void testMapVsStreamedOutput() throws Exception {
+        DataHandle handle = createHandle(DATA_SIZE);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+
+        // 原本的方式：每列建立 HashMap，整份資料組成後才交給 Jackson
+        HeapUsage.resetPeak();
+        TimingOutputStream mapOut = new TimingOutputStream();
+        objectMapper.writeValue(mapOut, Map.of("data", toMaps(handle, names)));
+        long mapPeak = HeapUsage.peak();
+
+        // 串流輸出：直接從 DataHandle 逐列寫出
+        HeapUsage.resetPeak();
+        TimingOutputStream streamOut = new TimingOutputStream();
+        JsonResultWriter.writeDocument(objectMapper, Map.of(), "data", RowShape.OBJECT,
+            handle, names, columns, streamOut);
+        long streamPeak = HeapUsage.peak();
+
+        HeapUsage.resetPeak();
+        TimingOutputStream ndjsonOut = new TimingOutputStream();
+        JsonResultWriter.writeNdjson(objectMapper, handle, names, columns, ndjsonOut);
+        long ndjsonPeak = HeapUsage.peak();
+
+        assertTrue(streamOut.firstByteMillis() <= streamOut.totalMillis());
+
+        System.out.println("\n=== JSON 輸出比較 (" + DATA_SIZE + " 筆) ===");
+        print("List<Map> + Jackson", mapOut, mapPeak);
+        print("串流 JSON          ", streamOut, streamPeak);
+        print("NDJSON             ", ndjsonOut, ndjsonPeak);
+    }
+
+    @Test
+    public void testCompactFormatsDecodeToSameRows() throws Exception {
+        DataHandle handle = createHandle(1000);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+        JsonNode expected = objectMapper.readTree(write(handle, names, columns, RowShape.OBJECT)).get("data");
+
+        JsonNode compact = objectMapper.readTree(write(handle, names, columns, RowShape.ARRAY));
+        JsonNode dictionary = objectMapper.readTree(write(handle, names, columns, RowShape.DICTIONARY));
+        for (int i = 0; i < handle.getNumRows(); i++) {
+            for (int j = 0; j < names.length; j++) {
+                String value = expected.get(i).get(names[j]).asText();
+                assertEquals(value, compact.get("data").get(i).get(j).asText());
+                int code = dictionary.get("data").get(i).get(j).asInt();
+                assertEquals(value, dictionary.get("dictionaries").get(j).get(code).asText());
+            }
+        }
+    }
+
+    @Test
+    public void testObjectVsCompactFormat() throws Exception {
+        DataHandle handle = createHandle(DATA_SIZE);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+
+        System.out.println("\n=== JSON 結果形式比較 (" + DATA_SIZE + " 筆) ===");
+        for (RowShape shape : RowShape.values()) {
+            // 先執行一次暖機
+            write(handle, names, columns, shape);
+
+            TimingOutputStream plain = new TimingOutputStream();
+            JsonResultWriter.writeDocument(objectMapper, Map.of("columns", names), "data", shape,
+                handle, names, columns, plain);
+
+            TimingOutputStream compressed = new TimingOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 64 * 1024)) {
+                JsonResultWriter.writeDocument(objectMapper, Map.of("columns", names), "data", shape,
+                    handle, names, columns, gzip);
+            }
+
+            System.out.printf("%-10s: %d 毫秒, %.1f MB, gzip 後 %.1f MB%n", shape.getFormat(),
+                plain.totalMillis(), plain.bytes / 1024d / 1024d, compressed.bytes / 1024d / 1024d);
+        }
+    }
+
+    @Test
+    public void testEquivalenceClassOutput() throws Exception {
+        DataHandle handle = createGeneralizedHandle(DATA_SIZE);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+        String[] qiNames = Arrays.copyOfRange(names, 0, 3);
+        String[] saNames = Arrays.copyOfRange(names, 3, names.length);
+
+        long start = System.nanoTime();
+        List<EquivalenceClass> classes = EquivalenceClassWriter.group(handle, new int[]{0, 1, 2}, new int[]{3, 4});
+        long groupMillis = (System.nanoTime() - start) / 1000000;
+
+        int total = 0;
+        for (EquivalenceClass equivalenceClass : classes) {
+            total += equivalenceClass.getCount();
+            for (Map<String, Integer> histogram : equivalenceClass.getHistograms()) {
+                assertEquals(equivalenceClass.getCount(), histogram.values().stream().mapToInt(Integer::intValue).sum());
+            }
+        }
+        assertEquals(handle.getNumRows(), total);
+
+        ByteArrayOutputStream aggregated = new ByteArrayOutputStream();
+        EquivalenceClassWriter.writeDocument(objectMapper, Map.of(), classes, qiNames, saNames, aggregated);
+        JsonNode first = objectMapper.readTree(aggregated.toByteArray()).get("classes").get(0);
+        assertEquals(handle.getValue(0, 0), first.get("values").get(qiNames[0]).asText());
+        assertEquals(classes.get(0).getCount(), first.get("count").asInt());
+
+        byte[] rows = write(handle, names, columns, RowShape.OBJECT);
+        System.out.println("\n=== 等價類輸出比較 (" + DATA_SIZE + " 筆) ===");
+        System.out.printf("逐列輸出: %.1f MB%n", rows.length / 1024d / 1024d);
+        System.out.printf("等價類輸出: %d 類, 分組 %d 毫秒, %.1f KB%n",
+            classes.size(), groupMillis, aggregated.size() / 1024d);
+    }
+
+    @Test
+    public void testXlsxOutput() throws Exception {
+        DataHandle handle = createHandle(1000);
+        String[] names = names(handle);
+        int[] columns = {3, 1};
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxResultWriter.write(handle, new String[]{names[3], names[1]}, columns, handle, out);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, workbook.getNumberOfSheets());
+            Sheet result = workbook.getSheet("匿名化結果");
+            assertEquals(handle.getNumRows(), result.getLastRowNum());
+            assertEquals(names[3], result.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(handle.getValue(999, 1), result.getRow(1000).getCell(1).getStringCellValue());
+            Sheet original = workbook.getSheet("原始資料");
+            assertEquals(names.length, original.getRow(0).getLastCellNum());
+        }
+
+        DataHandle large = createHandle(DATA_SIZE);
+        int[] allColumns = IntStream.range(0, names.length).toArray();
+        HeapUsage.resetPeak();
+        TimingOutputStream xlsxOut = new TimingOutputStream();
+        XlsxResultWriter.write(large, names, allColumns, null, xlsxOut);
+        long xlsxPeak = HeapUsage.peak();
+
+        System.out.println("\n=== XLSX 匯出 (" + DATA_SIZE + " 筆) ===");
+        print("SXSSF", xlsxOut, xlsxPeak);
+    }
+
+    @Test
+    public void testParallelRowConversion() throws Exception {
+        AnonymityService anonymityService = new AnonymityService();
+        ReflectionTestUtils.setField(anonymityService, "dataValidator", new DataValidator());
+        AnonymizationResult result = anonymityService.anonymize(DpTestDataGenerator.generateTestData(DATA_SIZE),
+            Arrays.asList("年齡", "性別", "縣市", "通報日期"), Arrays.asList("疾病", "檢驗結果", "是否確診"), 3, 2);
+
+        // 多執行緒同時讀取 ARX 的輸出資料，結果應與單執行緒逐列轉換相同
+        List<Map<String, String>> sequential = toMaps(result);
+        List<Map<String, String>> parallel = result.toRows();
+        assertEquals(sequential, parallel);
+
+        long sequentialMillis = Long.MAX_VALUE;
+        long parallelMillis = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            toMaps(result);
+            sequentialMillis = Math.min(sequentialMillis, (System.nanoTime() - start) / 1000000);
+            start = System.nanoTime();
+            result.toRows();
+            parallelMillis = Math.min(parallelMillis, (System.nanoTime() - start) / 1000000);
+        }
+        System.out.println("\n=== 結果轉換為 List<Map> (" + DATA_SIZE + " 筆, "
+            + ForkJoinPool.commonPool().getParallelism() + " 個 fork-join 執行緒) ===");
+        System.out.println("單執行緒: " + sequentialMillis + " 毫秒");
+        System.out.println("平行: " + parallelMillis + " 毫秒");
+    }
+
+    private byte[] write(DataHandle handle, String[] names, int[] columns, RowShape shape) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonResultWriter.writeDocument(objectMapper, Map.of(), "data", shape, handle, names, columns, out);
+        return out.toByteArray();
+    }
+
+    private static DataHandle createHandle(int size) {
+        List<Map<String, String>> rows = DpTestDataGenerator.generateTestData(size);
+        String[] header = rows.get(0).keySet().toArray(new String[0]);
+        return Data.create(RowIterators.fromMaps(header, rows)).getHandle();
+    }
+
+    /**
+     * 產生類似匿名化後的資料：準識別符已概化，值的組合很少
+     */
+    private static DataHandle createGeneralizedHandle(int size) {
+        String[] ages = {"0-19", "20-39", "40-59", "60-79", "80-99"};
+        String[] genders = {"男", "女", "*"};
+        String[] regions = {"北區", "中區", "南區", "東區", "離島"};
+        String[] diseases = {"流感", "糖尿病", "高血壓", "氣喘", "癌症"};
+        String[] results = {"陽性", "陰性", "待確認"};
+        Random random = new Random(42);
+        List<String[]> rows = new ArrayList<>(size + 1);
+        rows.add(new String[]{"年齡", "性別", "縣市", "疾病", "檢驗結果"});
+        for (int i = 0; i < size; i++) {
+            rows.add(new String[]{
+                ages[random.nextInt(ages.length)],
+                genders[random.nextInt(genders.length)],
+                regions[random.nextInt(regions.length)],
+                diseases[random.nextInt(diseases.length)],
+                results[random.nextInt(results.length)]
+            });
+        }
+        return Data.create(RowIterators.consuming(rows)).getHandle();
+    }
+
+    private static String[] names(DataHandle handle) {
+        String[] names = new String[handle.getNumColumns()];
+        for (int j = 0; j < names.length; j++) {
+            names[j] = handle.getAttributeName(j);
+        }
+        return names;
+    }
+
+    private static List<Map<String, String>> toMaps(DataHandle handle, String[] names) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < handle.getNumRows(); i++) {
+            Map<String, String> row = new HashMap<>();
+            for (int j = 0; j < names.length; j++) {
+                row.put(names[j], handle.getValue(i, j));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Map<String, String>> toMaps(AnonymizationResult result) {
+        String[] header = result.getHeader();
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < result.getNumRows(); i++) {
+            Map<String, String> row = new HashMap<>();
+            for (int j = 0; j < header.length; j++) {
+                row.put(header[j], result.getValue(i, j));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void print(String label, TimingOutputStream out, long peak) {
+        System.out.printf("%s: 首位元組 %d 毫秒, 完成 %d 毫秒, %.1f MB, 峰值 heap %.1f MB%n",
+            label, out.firstByteMillis(), out.totalMillis(), out.bytes / 1024d / 1024d, peak / 1024d / 1024d);
+    }
+
+    /**
+     * 丟棄輸出內容，只記錄第一個位元組寫出的時間與總位元組數
+     */
+    private static class TimingOutputStream extends OutputStream {
+        private final long start = System.nanoTime();
+        private long firstByte = -1;
+        private long end;
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (firstByte < 0 && len > 0) {
+                firstByte = System.nanoTime();
+            }
+            bytes += len;
+            end = System.nanoTime();
+        }
+
+        long firstByteMillis() {
+            return (firstByte - start) / 1000000;
+        }
+
+        long totalMillis() {
+            return (end - start) / 1000000;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.anonymity;
+
+import com.anonymity.controller.dto.AnonymizationParameters;
+import com.anonymity.controller.dto.AnonymizationRequest;
+import com.anonymity.util.DpTestDataGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 匿名化請求的反序列化與回應參數的序列化成本（JMH）
+ * 比較原本的 Map<String, Object> 加轉型、每次建立 ObjectReader 的具體型別、預先建立的 ObjectReader，
+ * 以及加上 Blackbird 的差異
+ *
+ * mvn -Pbenchmark -DskipTests test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBindingBenchmark {
+
+    private static final List<String> QUASI_IDENTIFIERS = Arrays.asList("年齡", "性別", "縣市", "通報日期");
+    private static final List<String> SENSITIVE_ATTRIBUTES = Arrays.asList("疾病", "檢驗結果", "是否確診");
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private byte[] body;
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private ObjectReader blackbirdReader;
+    private ObjectWriter blackbirdWriter;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("data", DpTestDataGenerator.generateTestData(rows));
+        request.put("k", 3);
+        request.put("l", 2);
+        request.put("quasiIdentifiers", QUASI_IDENTIFIERS);
+        request.put("sensitiveAttributes", SENSITIVE_ATTRIBUTES);
+        body = mapper.writeValueAsBytes(request);
+
+        reader = mapper.readerFor(AnonymizationRequest.class);
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+        blackbirdReader = blackbird.readerFor(AnonymizationRequest.class);
+        blackbirdWriter = blackbird.writerFor(AnonymizationParameters.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void readMap(Blackhole blackhole) throws Exception {
+        Map<String, Object> request = mapper.readValue(body, Map.class);
+        blackhole.consume((List<Map<String, String>>) request.get("data"));
+        blackhole.consume((List<String>) request.get("quasiIdentifiers"));
+        blackhole.consume(((Number) request.get("k")).intValue());
+        blackhole.consume(((Number) request.get("l")).doubleValue());
+    }
+
+    @Benchmark
+    public AnonymizationRequest readTyped() throws Exception {
+        return mapper.readValue(body, AnonymizationRequest.class);
+    }
+
+    @Benchmark
+    public AnonymizationRequest readTypedCachedReader() throws Exception {
+        return reader.readValue(body);
+    }
+
+    @Benchmark
+    public AnonymizationRequest readTypedBlackbird() throws Exception {
+        return blackbirdReader.readValue(body);
+    }
+
+    @Benchmark
+    public byte[] writeParametersMap() throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("k", 3);
+        parameters.put("l", 2.0);
+        parameters.put("quasiIdentifiers", QUASI_IDENTIFIERS);
+        parameters.put("sensitiveAttributes", SENSITIVE_ATTRIBUTES);
+        return mapper.writeValueAsBytes(parameters);
+    }
+
+    @Benchmark
+    public byte[] writeParametersBlackbird() throws Exception {
+        return blackbirdWriter.writeValueAsBytes(
+            new AnonymizationParameters(3, 2.0, QUASI_IDENTIFIERS, SENSITIVE_ATTRIBUTES));
+    }
+}
@@ -0,0 +1,59 @@
+package com.anonymity;
+
+import com.anonymity.controller.AnonymityController;
+import com.anonymity.controller.RequestErrorAdvice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 請求綁定失敗時回傳 400 與 {"error", "message"} 錯誤內容
+ */
+public class RequestValidationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AnonymityController())
+            .setControllerAdvice(new RequestErrorAdvice())
+            .build();
+    }
+
+    @Test
+    public void testMissingData() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/anonymity/anonymize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"k\": 2, \"l\": 1}"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("請求參數無效", body.get("error").asText());
+        assertEquals("缺少必要參數：data", body.get("message").asText());
+    }
+
+    @Test
+    public void testMalformedBody() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/anonymity/anonymize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"k\": 2, \"l\": "))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("請求參數無效", body.get("error").asText());
+        assertTrue(body.hasNonNull("message"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.anonymity;
+
+import com.anonymity.config.ResultProperties;
+import com.anonymity.ingest.RowIterators;
+import com.anonymity.service.ResultStore;
+import com.anonymity.service.StoredResult;
+import com.anonymity.store.ColumnStorage;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 伺服器端結果分頁：排序、範圍與保存數量上限，並記錄大型結果的分頁查詢時間
+ */
+public class ResultStoreTest {
+
+    private static final int DATA_SIZE = 1000000;
+
+    @Test
+    public void testSortedPages() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"年齡", "縣市"});
+        rows.add(new String[]{"9", "南區"});
+        rows.add(new String[]{"*", "北區"});
+        rows.add(new String[]{"10", "北區"});
+        rows.add(new String[]{"10", "中區"});
+        DataHandle handle = Data.create(RowIterators.consuming(rows)).getHandle();
+
+        ResultStore store = new ResultStore(new ResultProperties());
+        StoredResult result = store.get(store.save(handle, new String[]{"年齡", "縣市"}, new int[]{0, 1}));
+        assertEquals(4, result.getNumRows());
+
+        // 數字依數值排序並排在其他值之前，值相同的列保持原本順序
+        List<Map<String, String>> ascending = result.getRows(0, 10, "年齡", false);
+        assertEquals(List.of("9", "10", "10", "*"), ascending.stream().map(row -> row.get("年齡")).toList());
+        assertEquals("北區", ascending.get(1).get("縣市"));
+
+        List<Map<String, String>> descending = result.getRows(1, 2, "年齡", true);
+        assertEquals(List.of("10", "10"), descending.stream().map(row -> row.get("年齡")).toList());
+
+        assertEquals("南區", result.getRows(0, 1, null, false).get(0).get("縣市"));
+        // 未指定排序欄位時依原本順序，desc 不反轉
+        assertEquals(result.getRows(0, 4, null, false), result.getRows(0, 4, null, true));
+        assertTrue(result.getRows(10, 5, null, false).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> result.getRows(0, 1, "疾病", false));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ResultProperties properties = new ResultProperties();
+        properties.setMaxResults(2);
+        ResultStore store = new ResultStore(properties);
+        DataHandle handle = createHandle(10);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+
+        String first = store.save(handle, names, columns);
+        store.save(handle, names, columns);
+        store.save(handle, names, columns);
+        assertThrows(IllegalArgumentException.class, () -> store.get(first));
+
+        properties.setMaxResults(0);
+        assertNull(store.save(handle, names, columns));
+    }
+
+    @Test
+    public void testOffHeapStorage() {
+        DataHandle handle = createHandle(10000);
+        String[] names = names(handle);
+        int[] columns = IntStream.range(0, names.length).toArray();
+        ResultStore heapStore = new ResultStore(new ResultProperties());
+        StoredResult expected = heapStore.get(heapStore.save(handle, names, columns));
+
+        // 堆外與記憶體映射的結果與 heap 上的結果逐列相同
+        for (ColumnStorage storage : new ColumnStorage[]{ColumnStorage.DIRECT, ColumnStorage.MAPPED}) {
+            ResultProperties properties = new ResultProperties();
+            properties.setStorage(storage);
+            ResultStore store = new ResultStore(properties);
+            StoredResult result = store.get(store.save(handle, names, columns));
+            assertEquals(expected.getNumRows(), result.getNumRows());
+            assertEquals(expected.getRows(0, 10000, null, false), result.getRows(0, 10000, null, false));
+            assertEquals(expected.getRows(100, 500, names[1], true), result.getRows(100, 500, names[1], true));
+        }
+    }
+
+    @Test
+    public void testPageLatency() {
+        DataHandle handle = createHandle(DATA_SIZE);
+        String[] names = names(handle);
+        ResultStore store = new ResultStore(new ResultProperties());
+        StoredResult result = store.get(store.save(handle, names, IntStream.range(0, names.length).toArray()));
+
+        long start = System.nanoTime();
+        result.getRows(DATA_SIZE / 2, 100, null, false);
+        long unsorted = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        result.getRows(0, 100, names[0], false);
+        long firstSort = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Map<String, String>> page = result.getRows(DATA_SIZE - 100, 100, names[0], true);
+        long sorted = System.nanoTime() - start;
+        assertEquals(100, page.size());
+
+        System.out.println("\n=== 結果分頁查詢 (" + DATA_SIZE + " 筆, 每頁 100 筆) ===");
+        System.out.printf("原本順序: %.2f 毫秒%n", unsorted / 1e6);
+        System.out.printf("第一次排序（建立列順序）: %.2f 毫秒%n", firstSort / 1e6);
+        System.out.printf("已排序欄位: %.2f 毫秒%n", sorted / 1e6);
+    }
+
+    /**
+     * 產生類似匿名化後的資料：準識別符已概化，值的組合很少
+     */
+    private static DataHandle createHandle(int size) {
+        String[] ages = {"0-19", "20-39", "40-59", "60-79", "80-99"};
+        String[] regions = {"北區", "中區", "南區", "東區", "離島"};
+        String[] diseases = {"流感", "糖尿病", "高血壓", "氣喘", "癌症"};
+        Random random = new Random(42);
+        List<String[]> rows = new ArrayList<>(size + 1);
+        rows.add(new String[]{"年齡", "縣市", "疾病"});
+        for (int i = 0; i < size; i++) {
+            rows.add(new String[]{
+                ages[random.nextInt(ages.length)],
+                regions[random.nextInt(regions.length)],
+                diseases[random.nextInt(diseases.length)]
+            });
+        }
+        return Data.create(RowIterators.consuming(rows)).getHandle();
+    }
+
+    private static String[] names(DataHandle handle) {
+        String[] names = new String[handle.getNumColumns()];
+        for (int j = 0; j < names.length; j++) {
+            names[j] = handle.getAttributeName(j);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,53 @@
+package com.anonymity;
+
+import com.anonymity.output.XlsxResultWriter;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.deidentifier.arx.Data;
+import org.deidentifier.arx.DataHandle;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * .xlsx 匯出：超過每個工作表的筆數時接續到下一個工作表，每個工作表都有標題列
+ */
+public class XlsxExportTest {
+
+    @Test
+    public void testRollsOverToNextSheet() throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"年齡", "縣市"});
+        for (int i = 0; i < 5; i++) {
+            rows.add(new String[]{String.valueOf(20 + i), "台北市"});
+        }
+        DataHandle handle = Data.create(rows).getHandle();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxResultWriter.write(handle, new String[]{"年齡", "縣市"}, new int[]{0, 1}, null, 2, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            String[] names = {"匿名化結果", "匿名化結果 (2)", "匿名化結果 (3)"};
+            int[] dataRows = {2, 2, 1};
+            int value = 20;
+            for (int s = 0; s < names.length; s++) {
+                Sheet sheet = workbook.getSheetAt(s);
+                assertEquals(names[s], sheet.getSheetName());
+                assertEquals(dataRows[s], sheet.getLastRowNum());
+                assertEquals("年齡", sheet.getRow(0).getCell(0).getStringCellValue());
+                for (int i = 1; i <= dataRows[s]; i++) {
+                    assertEquals(String.valueOf(value++), sheet.getRow(i).getCell(0).getStringCellValue());
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> XlsxResultWriter.write(
+            handle, new String[]{"年齡"}, new int[]{0}, null, 0, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.anonymity.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * 基準測試用的堆積記憶體量測
+ */
+public final class HeapUsage {
+
+    private HeapUsage() {
+    }
+
+    /**
+     * 執行數次 GC 後目前使用中的堆積大小
+     */
+    public static long used() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * GC 後重設各堆積記憶體池的峰值，之後以 {@link #peak()} 取得這段期間的峰值
+     */
+    public static void resetPeak() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * 各堆積記憶體池峰值的總和
+     */
+    public static long peak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
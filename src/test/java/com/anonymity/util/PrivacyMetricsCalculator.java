@@ -1,11 +1,13 @@
 package com.anonymity.util;
 
+import com.anonymity.service.AnonymityService;
+import com.anonymity.store.ColumnarTable;
+
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.ArrayList;
 
 /**
  * 隱私指標計算器
@@ -26,6 +28,17 @@ public class PrivacyMetricsCalculator {
      */
     public static Map<String, Double> calculateMetrics(List<Map<String, String>> originalData, 
                                                      List<List<String>> anonymizedData) {
+        return calculateMetrics(ColumnarTable.fromMaps(originalData, AnonymityService.COLUMN_KINDS), anonymizedData);
+    }
+    
+    /**
+     * 計算所有評估指標，原始資料的分布直接取自欄式資料表的字典與計數
+     * @param originalData 原始資料，欄位順序與匿名化後的資料一致
+     * @param anonymizedData 匿名化後的資料，格式為 List<List<String>>
+     * @return 包含所有評估指標的 Map
+     */
+    public static Map<String, Double> calculateMetrics(ColumnarTable originalData, 
+                                                     List<List<String>> anonymizedData) {
         // 計算信息損失：評估資料匿名化後資訊的保留程度
         double informationLoss = calculateInformationLoss(originalData, anonymizedData);
         
@@ -55,32 +68,26 @@ public class PrivacyMetricsCalculator {
      * 基於每個欄位的唯一值數量變化來評估資訊損失
      * 值域範圍：0（無損失）到 1（完全損失）
      */
-    private static double calculateInformationLoss(List<Map<String, String>> originalData, 
+    private static double calculateInformationLoss(ColumnarTable originalData, 
                                                  List<List<String>> anonymizedData) {
-        if (originalData.isEmpty() || anonymizedData.isEmpty()) {
+        if (originalData.getNumRows() == 0 || anonymizedData.isEmpty()) {
             return 1.0;
         }
         
         // 計算每個欄位的資訊損失
         Map<String, Double> columnLosses = new HashMap<>();
-        Set<String> columns = originalData.get(0).keySet();
         
-        for (String column : columns) {
-            // 計算原始資料中該欄位的唯一值數量
-            Set<String> originalUniqueValues = new HashSet<>();
-            for (Map<String, String> row : originalData) {
-                originalUniqueValues.add(row.get(column));
-            }
+        for (int columnIndex = 0; columnIndex < originalData.getNumColumns(); columnIndex++) {
+            String column = originalData.getAttributeName(columnIndex);
             
             // 計算匿名化後該欄位的唯一值數量
             Set<String> anonymizedUniqueValues = new HashSet<>();
-            int columnIndex = new ArrayList<>(columns).indexOf(column);
             for (List<String> row : anonymizedData) {
                 anonymizedUniqueValues.add(row.get(columnIndex));
             }
             
             // 計算該欄位的資訊損失：1 - (匿名化後唯一值數量 / 原始唯一值數量)
-            double originalCount = originalUniqueValues.size();
+            double originalCount = originalData.getDistinctCount(columnIndex);
             double anonymizedCount = anonymizedUniqueValues.size();
             double loss = 1.0 - (anonymizedCount / originalCount);
             columnLosses.put(column, loss);
@@ -98,14 +105,14 @@ public class PrivacyMetricsCalculator {
      * 基於每個欄位的統計特性變化來評估效用損失
      * 值域範圍：0（無損失）到 1（完全損失）
      */
-    private static double calculateUtilityLoss(List<Map<String, String>> originalData, 
+    private static double calculateUtilityLoss(ColumnarTable originalData, 
                                              List<List<String>> anonymizedData) {
-        if (originalData.isEmpty() || anonymizedData.isEmpty()) {
+        if (originalData.getNumRows() == 0 || anonymizedData.isEmpty()) {
             return 1.0;
         }
         
         // 計算每個欄位的統計特性
-        Map<String, Map<String, Double>> originalStats = calculateMapColumnStatistics(originalData);
+        Map<String, Map<String, Double>> originalStats = calculateTableColumnStatistics(originalData);
         Map<String, Map<String, Double>> anonymizedStats = calculateListColumnStatistics(anonymizedData);
         
         // 計算每個欄位的效用損失
@@ -113,7 +120,7 @@ public class PrivacyMetricsCalculator {
         int columnCount = 0;
         
         // 獲取原始資料的欄位名稱列表
-        List<String> columns = new ArrayList<>(originalData.get(0).keySet());
+        List<String> columns = List.of(originalData.getHeader());
         
         for (int i = 0; i < columns.size(); i++) {
             String originalColumn = columns.get(i);
@@ -155,34 +162,30 @@ public class PrivacyMetricsCalculator {
      * 基於資訊熵來評估隱私保護程度
      * 值域範圍：0（無保護）到 1（完全保護）
      */
-    private static double calculatePrivacyGuarantee(List<Map<String, String>> originalData, 
+    private static double calculatePrivacyGuarantee(ColumnarTable originalData, 
                                                   List<List<String>> anonymizedData) {
-        if (originalData.isEmpty() || anonymizedData.isEmpty()) {
+        if (originalData.getNumRows() == 0 || anonymizedData.isEmpty()) {
             return 0.0;
         }
         
         // 計算每個欄位的隱私保障
         Map<String, Double> columnPrivacy = new HashMap<>();
-        Set<String> columns = originalData.get(0).keySet();
         
-        for (String column : columns) {
-            // 計算原始資料中該欄位的值分布
-            Map<String, Integer> originalDistribution = new HashMap<>();
-            for (Map<String, String> row : originalData) {
-                String value = row.get(column);
-                originalDistribution.merge(value, 1, Integer::sum);
-            }
+        for (int columnIndex = 0; columnIndex < originalData.getNumColumns(); columnIndex++) {
+            String column = originalData.getAttributeName(columnIndex);
+            
+            // 原始資料中該欄位的值分布
+            Map<String, Integer> originalDistribution = calculateDistribution(originalData, columnIndex);
             
             // 計算匿名化後該欄位的值分布
             Map<String, Integer> anonymizedDistribution = new HashMap<>();
-            int columnIndex = new ArrayList<>(columns).indexOf(column);
             for (List<String> row : anonymizedData) {
                 String value = row.get(columnIndex);
                 anonymizedDistribution.merge(value, 1, Integer::sum);
             }
             
             // 計算該欄位的隱私保障：匿名化後熵值 / 原始熵值
-            double originalEntropy = calculateEntropy(originalDistribution, originalData.size());
+            double originalEntropy = calculateEntropy(originalDistribution, originalData.getNumRows());
             double anonymizedEntropy = calculateEntropy(anonymizedDistribution, anonymizedData.size());
             double privacy = anonymizedEntropy / originalEntropy;
             columnPrivacy.put(column, privacy);
@@ -196,43 +199,44 @@ public class PrivacyMetricsCalculator {
     }
     
     /**
-     * 計算 Map 格式資料的欄位統計特性
+     * 計算欄式資料表的欄位統計特性
      * 包括：唯一值數量、值分布、最大頻率等
      */
-    private static Map<String, Map<String, Double>> calculateMapColumnStatistics(List<Map<String, String>> data) {
+    private static Map<String, Map<String, Double>> calculateTableColumnStatistics(ColumnarTable data) {
         Map<String, Map<String, Double>> stats = new HashMap<>();
-        Set<String> columns = data.get(0).keySet();
         
-        for (String column : columns) {
+        for (int i = 0; i < data.getNumColumns(); i++) {
             Map<String, Double> columnStats = new HashMap<>();
             
-            // 計算唯一值數量
-            Set<String> uniqueValues = new HashSet<>();
-            for (Map<String, String> row : data) {
-                uniqueValues.add(row.get(column));
-            }
-            columnStats.put("uniqueCount", (double) uniqueValues.size());
-            
-            // 計算值分布
-            Map<String, Integer> valueCounts = new HashMap<>();
-            for (Map<String, String> row : data) {
-                String value = row.get(column);
-                valueCounts.merge(value, 1, Integer::sum);
-            }
+            // 唯一值數量與值分布直接取自欄位計數
+            ColumnarTable.ValueCounts valueCounts = data.getValueCounts(i);
+            columnStats.put("uniqueCount", (double) valueCounts.size());
             
             // 計算最大頻率
-            double maxFrequency = valueCounts.values().stream()
-                .mapToDouble(count -> (double) count / data.size())
-                .max()
-                .orElse(0.0);
-            columnStats.put("maxFrequency", maxFrequency);
+            int maxCount = 0;
+            for (int j = 0; j < valueCounts.size(); j++) {
+                maxCount = Math.max(maxCount, valueCounts.getCount(j));
+            }
+            columnStats.put("maxFrequency", (double) maxCount / data.getNumRows());
             
-            stats.put(column, columnStats);
+            stats.put(data.getAttributeName(i), columnStats);
         }
         
         return stats;
     }
     
+    /**
+     * 取得欄式資料表中某個欄位的值分布
+     */
+    private static Map<String, Integer> calculateDistribution(ColumnarTable data, int columnIndex) {
+        ColumnarTable.ValueCounts valueCounts = data.getValueCounts(columnIndex);
+        Map<String, Integer> distribution = new HashMap<>();
+        for (int i = 0; i < valueCounts.size(); i++) {
+            distribution.put(valueCounts.getValue(i), valueCounts.getCount(i));
+        }
+        return distribution;
+    }
+    
     /**
      * 計算 List 格式資料的欄位統計特性
      * 包括：唯一值數量、值分布、最大頻率等
@@ -289,25 +293,25 @@ public class PrivacyMetricsCalculator {
      * 評估數值型欄位在匿名化前後的平均值變化
      * 值域範圍：0（無差異）到 1（最大差異）
      */
-    private static double calculateMeanDifference(List<Map<String, String>> originalData, 
+    private static double calculateMeanDifference(ColumnarTable originalData, 
                                                 List<List<String>> anonymizedData) {
-        if (originalData.isEmpty() || anonymizedData.isEmpty()) {
+        if (originalData.getNumRows() == 0 || anonymizedData.isEmpty()) {
             return 1.0;
         }
         
         // 計算每個數值型欄位的平均值差異
         Map<String, Double> columnDifferences = new HashMap<>();
-        Set<String> columns = originalData.get(0).keySet();
         
-        for (String column : columns) {
+        for (int i = 0; i < originalData.getNumColumns(); i++) {
+            String column = originalData.getAttributeName(i);
+            int columnIndex = i;
             try {
                 // 檢查該欄位是否被完全匿名化
                 boolean isFullyAnonymized = anonymizedData.stream()
-                    .allMatch(row -> row.get(new ArrayList<>(columns).indexOf(column)).equals("*"));
+                    .allMatch(row -> row.get(columnIndex).equals("*"));
                 
                 if (!isFullyAnonymized) {
-                    double originalMean = calculateMean(originalData, column);
-                    int columnIndex = new ArrayList<>(columns).indexOf(column);
+                    double originalMean = calculateMean(originalData, columnIndex);
                     double anonymizedMean = calculateMean(anonymizedData, columnIndex);
                     
                     // 避免除以零
@@ -340,34 +344,30 @@ public class PrivacyMetricsCalculator {
      * 評估分類型欄位在匿名化前後的分布相似度
      * 值域範圍：0（完全不一致）到 1（完全一致）
      */
-    private static double calculateClassificationAccuracy(List<Map<String, String>> originalData, 
+    private static double calculateClassificationAccuracy(ColumnarTable originalData, 
                                                        List<List<String>> anonymizedData) {
-        if (originalData.isEmpty() || anonymizedData.isEmpty()) {
+        if (originalData.getNumRows() == 0 || anonymizedData.isEmpty()) {
             return 0.0;
         }
         
         // 計算每個分類欄位的準確率
         Map<String, Double> columnAccuracies = new HashMap<>();
-        Set<String> columns = originalData.get(0).keySet();
         
-        for (String column : columns) {
-            // 計算原始資料中該欄位的值分布
-            Map<String, Integer> originalDistribution = new HashMap<>();
-            for (Map<String, String> row : originalData) {
-                String value = row.get(column);
-                originalDistribution.merge(value, 1, Integer::sum);
-            }
+        for (int columnIndex = 0; columnIndex < originalData.getNumColumns(); columnIndex++) {
+            String column = originalData.getAttributeName(columnIndex);
+            
+            // 原始資料中該欄位的值分布
+            Map<String, Integer> originalDistribution = calculateDistribution(originalData, columnIndex);
             
             // 計算匿名化後該欄位的值分布
             Map<String, Integer> anonymizedDistribution = new HashMap<>();
-            int columnIndex = new ArrayList<>(columns).indexOf(column);
             for (List<String> row : anonymizedData) {
                 String value = row.get(columnIndex);
                 anonymizedDistribution.merge(value, 1, Integer::sum);
             }
             
             // 計算該欄位的分類準確率
-            double accuracy = calculateDistributionSimilarity(originalDistribution, anonymizedDistribution, originalData.size());
+            double accuracy = calculateDistributionSimilarity(originalDistribution, anonymizedDistribution, originalData.getNumRows());
             columnAccuracies.put(column, accuracy);
         }
         
@@ -379,13 +379,15 @@ public class PrivacyMetricsCalculator {
     }
     
     /**
-     * 計算 Map 格式資料的欄位平均值
+     * 計算欄式資料表的欄位平均值，每個唯一值只解析一次
      */
-    private static double calculateMean(List<Map<String, String>> data, String column) {
-        return data.stream()
-            .mapToDouble(row -> Double.parseDouble(row.get(column)))
-            .average()
-            .orElse(0.0);
+    private static double calculateMean(ColumnarTable data, int columnIndex) {
+        ColumnarTable.ValueCounts valueCounts = data.getValueCounts(columnIndex);
+        double sum = 0.0;
+        for (int i = 0; i < valueCounts.size(); i++) {
+            sum += Double.parseDouble(valueCounts.getValue(i)) * valueCounts.getCount(i);
+        }
+        return data.getNumRows() > 0 ? sum / data.getNumRows() : 0.0;
     }
     
     /**